@@ -0,0 +1,151 @@
+package com.example.datamigration.benchmark;
+
+import com.example.datamigration.App;
+import com.example.datamigration.service.DataMigrationService;
+import com.example.datamigration.service.MigrationOptions;
+import com.example.datamigration.service.seed.SeedResult;
+import com.example.datamigration.service.seed.SeedService;
+import com.example.datamigration.service.seed.SyntheticCaseSpec;
+import com.example.datamigration.service.sink.SinkMode;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * 端到端吞吐测试：写入合成数据后对嵌入式H2执行一次完整迁移，
+ * 输出 行/秒、步骤/秒、堆内存峰值 和 GC耗时
+ *
+ * 与JMH基准不同，这里测的是整条迁移链路（分区、流水线、分组提交、错误日志）在大数据量下的表现，
+ * 用来确认内存占用不随总行数增长。H2默认使用 target/harness 下的文件库，每次运行前清空。
+ * 参数通过系统属性传入：
+ * <pre>
+ * harness.rows           源表记录数，默认1000000
+ * harness.workers        并行分区数，默认4
+ * harness.sink           写入方式，默认jdbc-batch
+ * harness.maxSteps       每条用例最多步骤数，默认10
+ * harness.malformedRate  非法JSON比例，默认0.001
+ * harness.url            数据库连接串，默认 target/harness 下的H2文件库
+ * </pre>
+ */
+public class MigrationHarness {
+
+    private static final Path DEFAULT_DB_DIR = Paths.get("target", "harness");
+
+    public static void main(String[] args) throws Exception {
+        long rows = Long.getLong("harness.rows", 1_000_000L);
+        int workers = Integer.getInteger("harness.workers", 4);
+        SinkMode sink = SinkMode.from(System.getProperty("harness.sink", "jdbc-batch"));
+        String url = System.getProperty("harness.url");
+        if (url == null) {
+            deleteRecursively(DEFAULT_DB_DIR);
+            url = "jdbc:h2:file:" + DEFAULT_DB_DIR.toAbsolutePath().resolve("migration")
+                    + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+        }
+
+        SyntheticCaseSpec spec = new SyntheticCaseSpec();
+        spec.setMaxSteps(Integer.getInteger("harness.maxSteps", 10));
+        spec.setMalformedRate(Double.parseDouble(System.getProperty("harness.malformedRate", "0.001")));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(App.class)
+                .web(WebApplicationType.NONE)
+                .profiles("seed")
+                .run("--logging.level.root=WARN",
+                     "--logging.level.com.example.datamigration.service.seed=INFO",
+                     "--spring.datasource.url=" + url)) {
+
+            SeedResult seed = context.getBean(SeedService.class).seed(rows, spec);
+
+            MigrationOptions options = new MigrationOptions();
+            options.setWorkers(workers);
+            options.setSinkMode(sink);
+
+            System.gc();
+            resetPeakHeap();
+            long gcCountBefore = gcCount();
+            long gcMillisBefore = gcMillis();
+            long start = System.nanoTime();
+
+            DataMigrationService.MigrationResult result =
+                    context.getBean(DataMigrationService.class).executeMigration(options);
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long gcCount = gcCount() - gcCountBefore;
+            long gcMillis = gcMillis() - gcMillisBefore;
+
+            System.out.println();
+            System.out.println("========== 端到端吞吐 ==========");
+            System.out.printf("源表记录数:   %d (非法JSON %d, 写入 %.0f 行/秒)%n",
+                              seed.getRows(), seed.getMalformedRows(), seed.getRowsPerSecond());
+            System.out.printf("分区/写入方式: %d / %s%n", result.getPartitionCount(), result.getSinkMode());
+            System.out.printf("迁移结果:     成功 %d, 失败 %d, 步骤 %d%n",
+                              result.getSuccessCount(), result.getFailedCount(), result.getStepCount());
+            System.out.printf("耗时:         %.1f 秒%n", seconds);
+            System.out.printf("吞吐:         %.0f 行/秒, %.0f 步骤/秒%n",
+                              result.getTotalCount() / seconds, result.getStepCount() / seconds);
+            System.out.printf("堆内存峰值:   %.1f MB (最大堆 %.1f MB)%n",
+                              peakHeapBytes() / 1048576.0, Runtime.getRuntime().maxMemory() / 1048576.0);
+            System.out.printf("GC:          %d 次, %d ms (%.1f%%)%n",
+                              gcCount, gcMillis, gcMillis / 10.0 / seconds);
+            System.out.println("================================");
+        }
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * 各堆内存池峰值之和，各池峰值不一定同时出现，结果是堆峰值的上限
+     */
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
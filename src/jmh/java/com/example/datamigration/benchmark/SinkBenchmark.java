@@ -0,0 +1,97 @@
+package com.example.datamigration.benchmark;
+
+import com.example.datamigration.App;
+import com.example.datamigration.service.seed.SyntheticCaseGenerator;
+import com.example.datamigration.service.seed.SyntheticCaseSpec;
+import com.example.datamigration.service.job.JobSinks;
+import com.example.datamigration.service.job.TestCaseMigrationJob;
+import com.example.datamigration.service.sink.SinkMode;
+import com.example.datamigration.service.transform.MigrationRecord;
+import com.example.datamigration.service.transform.TestCaseTransformer;
+import com.example.datamigration.service.transform.TransformedBatch;
+import com.example.datamigration.service.writer.JobBatchWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 写入阶段：XML foreach 多行INSERT vs JDBC批量执行
+ *
+ * 使用 src/test/resources 中的H2（MySQL模式）配置启动应用上下文，
+ * 每次调用在事务中写入一批记录后回滚，表中数据量保持不变
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SinkBenchmark {
+
+    @Param({"XML", "JDBC_BATCH"})
+    private SinkMode sink;
+
+    @Param({"100", "1000"})
+    private int batchSize;
+
+    @Param({"5", "20"})
+    private int maxSteps;
+
+    @Param({"32"})
+    private int payloadChars;
+
+    private ConfigurableApplicationContext context;
+
+    private JobBatchWriter writer;
+
+    private JobSinks<MigrationRecord> sinks;
+
+    private TransactionTemplate transactionTemplate;
+
+    private List<MigrationRecord> records;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(App.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN");
+        writer = context.getBean(JobBatchWriter.class);
+        sinks = context.getBean(TestCaseMigrationJob.class).sinks(sink);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        SyntheticCaseSpec spec = new SyntheticCaseSpec();
+        spec.setMaxSteps(maxSteps);
+        spec.setPayloadChars(payloadChars);
+        TransformedBatch<MigrationRecord> batch = context.getBean(TestCaseTransformer.class)
+                .transform(new SyntheticCaseGenerator(spec).batch(1, batchSize));
+        records = batch.getRecords();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int writeBatch() {
+        return transactionTemplate.execute(status -> {
+            try {
+                writer.writeAll(records, sinks);
+            } catch (Exception e) {
+                throw new IllegalStateException("批量写入失败", e);
+            }
+            status.setRollbackOnly();
+            return records.size();
+        });
+    }
+}
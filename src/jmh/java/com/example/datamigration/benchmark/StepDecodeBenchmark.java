@@ -0,0 +1,85 @@
+package com.example.datamigration.benchmark;
+
+import com.example.datamigration.entity.TestCaseStep;
+import com.example.datamigration.service.seed.SyntheticCaseGenerator;
+import com.example.datamigration.service.seed.SyntheticCaseSpec;
+import com.example.datamigration.service.transform.StepJsonDecoder;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * step字段JSON解码：流式解码 vs 原先的 List&lt;Map&gt; 绑定
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StepDecodeBenchmark {
+
+    private static final int SAMPLES = 256;
+
+    @Param({"1", "10", "50"})
+    private int steps;
+
+    @Param({"16", "128"})
+    private int payloadChars;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StepJsonDecoder decoder;
+
+    private String[] samples;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        decoder = new StepJsonDecoder(objectMapper);
+
+        SyntheticCaseSpec spec = new SyntheticCaseSpec();
+        spec.setPayloadChars(payloadChars);
+        SyntheticCaseGenerator generator = new SyntheticCaseGenerator(spec);
+        samples = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = generator.stepJson(steps);
+        }
+    }
+
+    @Benchmark
+    public List<TestCaseStep> streaming() throws IOException {
+        return decoder.decode(nextSample());
+    }
+
+    @Benchmark
+    public List<TestCaseStep> mapBinding() throws IOException {
+        List<Map<String, String>> maps = objectMapper.readValue(nextSample(),
+                new TypeReference<List<Map<String, String>>>() {});
+        List<TestCaseStep> result = new ArrayList<>(maps.size());
+        for (Map<String, String> map : maps) {
+            TestCaseStep step = new TestCaseStep();
+            step.setName(map.get("name"));
+            step.setResult(map.get("result"));
+            result.add(step);
+        }
+        return result;
+    }
+
+    private String nextSample() {
+        String sample = samples[next];
+        next = (next + 1) % SAMPLES;
+        return sample;
+    }
+}
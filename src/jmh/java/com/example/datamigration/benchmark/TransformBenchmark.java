@@ -0,0 +1,60 @@
+package com.example.datamigration.benchmark;
+
+import com.example.datamigration.entity.TestCaseInfo;
+import com.example.datamigration.service.seed.SyntheticCaseGenerator;
+import com.example.datamigration.service.seed.SyntheticCaseSpec;
+import com.example.datamigration.service.transform.MigrationRecord;
+import com.example.datamigration.service.transform.StepJsonDecoder;
+import com.example.datamigration.service.transform.TestCaseTransformer;
+import com.example.datamigration.service.transform.TransformedBatch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 转换阶段：一批 test_case_info 解析step并构建 TestCasePool / TestCaseStep
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransformBenchmark {
+
+    @Param({"1000"})
+    private int batchSize;
+
+    @Param({"5", "20"})
+    private int maxSteps;
+
+    @Param({"32"})
+    private int payloadChars;
+
+    private TestCaseTransformer transformer;
+
+    private List<TestCaseInfo> batch;
+
+    @Setup
+    public void setUp() {
+        transformer = new TestCaseTransformer();
+        ReflectionTestUtils.setField(transformer, "stepJsonDecoder", new StepJsonDecoder(new ObjectMapper()));
+
+        SyntheticCaseSpec spec = new SyntheticCaseSpec();
+        spec.setMaxSteps(maxSteps);
+        spec.setPayloadChars(payloadChars);
+        batch = new SyntheticCaseGenerator(spec).batch(1, batchSize);
+    }
+
+    @Benchmark
+    public TransformedBatch<MigrationRecord> transform() {
+        return transformer.transform(batch);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.datamigration.api;
+
+import com.example.datamigration.config.MigrationProperties;
+import com.example.datamigration.service.execution.MigrationExecutors;
+import com.example.datamigration.service.incremental.IncrementalMigrationService;
+import com.example.datamigration.service.incremental.IncrementalResult;
+import com.example.datamigration.service.incremental.Watermark;
+import com.example.datamigration.service.job.MigrationJobScheduler;
+import com.example.datamigration.service.job.TestCaseMigrationJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 增量迁移控制器
+ * 全量迁移完成后按高水位迁移新增（及修改）的记录，也可以通过 migration.incremental.cron 定时执行
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/migration/incremental")
+public class IncrementalController {
+
+    @Autowired
+    private IncrementalMigrationService incrementalMigrationService;
+
+    @Autowired
+    private MigrationJobScheduler migrationJobScheduler;
+
+    @Autowired
+    private MigrationExecutors migrationExecutors;
+
+    @Autowired
+    private MigrationProperties migrationProperties;
+
+    /**
+     * 异步执行一次增量迁移
+     *
+     * @return 响应结果
+     */
+    @GetMapping("/start")
+    public ResponseEntity<Map<String, Object>> start() {
+        Map<String, Object> response = new HashMap<>();
+
+        if (incrementalMigrationService.isRunning()) {
+            response.put("success", false);
+            response.put("message", "增量迁移正在运行中，请勿重复启动");
+            return ResponseEntity.ok(response);
+        }
+        if (migrationJobScheduler.isRunning(TestCaseMigrationJob.NAME)) {
+            response.put("success", false);
+            response.put("message", "迁移任务 " + TestCaseMigrationJob.NAME + " 正在运行，请等待完成后再执行增量迁移");
+            return ResponseEntity.ok(response);
+        }
+
+        migrationExecutors.taskExecutor().execute(() -> {
+            try {
+                incrementalMigrationService.runDelta();
+            } catch (Exception e) {
+                log.error("增量迁移异常", e);
+            }
+        });
+
+        response.put("success", true);
+        response.put("message", "增量迁移已启动，请使用 /api/migration/incremental 查询状态");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 查询高水位和最近一次增量迁移的状态
+     *
+     * @return 增量迁移状态
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        Map<String, Object> response = new HashMap<>();
+
+        MigrationProperties.Incremental config = migrationProperties.getIncremental();
+        response.put("isRunning", incrementalMigrationService.isRunning());
+        response.put("cron", config.getCron());
+        response.put("updatedAtColumn", config.getUpdatedAtColumn());
+        Watermark watermark = incrementalMigrationService.getWatermark();
+        if (watermark != null) {
+            response.put("watermark", watermark);
+        }
+        IncrementalResult lastResult = incrementalMigrationService.getLastResult();
+        if (lastResult != null) {
+            response.put("lastResult", lastResult);
+        }
+        String lastError = incrementalMigrationService.getLastError();
+        if (lastError != null) {
+            response.put("lastError", lastError);
+        }
+        return ResponseEntity.ok(response);
+    }
+}
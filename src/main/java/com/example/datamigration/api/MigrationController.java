@@ -1,17 +1,30 @@
 package com.example.datamigration.api;
 
 import com.example.datamigration.service.DataMigrationService;
+import com.example.datamigration.service.MigrationOptions;
+import com.example.datamigration.service.failure.FailedIdStore;
+import com.example.datamigration.service.failure.FailurePage;
+import com.example.datamigration.service.job.MigrationJob;
+import com.example.datamigration.service.job.MigrationJobRegistry;
+import com.example.datamigration.service.job.MigrationJobScheduler;
+import com.example.datamigration.service.job.TestCaseMigrationJob;
+import com.example.datamigration.service.metrics.MigrationProgress;
+import com.example.datamigration.service.reader.ReaderMode;
+import com.example.datamigration.service.sink.SinkMode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * 数据迁移控制器
@@ -25,62 +38,287 @@ public class MigrationController {
     @Autowired
     private DataMigrationService dataMigrationService;
 
-    /**
-     * 迁移任务运行状态标识
-     */
-    private final AtomicBoolean isRunning = new AtomicBoolean(false);
+    @Autowired
+    private MigrationJobScheduler migrationJobScheduler;
+
+    @Autowired
+    private MigrationJobRegistry migrationJobRegistry;
 
     /**
-     * 最近一次迁移结果
+     * 失败ID分页查询的最大页大小
      */
-    private DataMigrationService.MigrationResult lastResult;
+    private static final int MAX_FAILURE_PAGE_SIZE = 10_000;
 
     /**
      * 启动数据迁移
      * 异步执行迁移任务，避免HTTP请求超时
      *
+     * @param workers 并行工作线程数，按主键范围切分为相同数量的分区，建议不超过连接池大小
+     * @param sink 目标表写入方式：xml、jdbc-batch、load-data 或 upsert，不传时使用配置的默认值
+     * @param commitEvery 每个事务包含的批次数，不传时使用配置的默认值
+     * @param batchSize 每批记录数，开启自适应时为初始值，不传时使用配置的默认值
+     * @param adaptive 是否根据写入耗时自动调整批量大小，不传时使用配置的默认值
+     * @param reader 源表读取方式：keyset 或 cursor，不传时使用配置的默认值
+     * @param fromId 只迁移主键不小于该值的记录，不传时从头迁移
+     * @param toId 只迁移主键不大于该值的记录，不传时不设上界
      * @return 响应结果
      */
     @GetMapping("/start")
-    public ResponseEntity<Map<String, Object>> startMigration() {
+    public ResponseEntity<Map<String, Object>> startMigration(@RequestParam(defaultValue = "1") int workers,
+                                                              @RequestParam(required = false) String sink,
+                                                              @RequestParam(required = false) Integer commitEvery,
+                                                              @RequestParam(required = false) Integer batchSize,
+                                                              @RequestParam(required = false) Boolean adaptive,
+                                                              @RequestParam(required = false) String reader,
+                                                              @RequestParam(required = false) Integer fromId,
+                                                              @RequestParam(required = false) Integer toId) {
+        MigrationOptions options;
+        try {
+            options = buildOptions(workers, sink, commitEvery, batchSize, adaptive, reader, fromId, toId);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+
+        return launch(List.of(TestCaseMigrationJob.NAME), options,
+                      "数据迁移任务已启动，请使用 /api/migration/status 查询进度");
+    }
+
+    /**
+     * 恢复迁移
+     * 任务正在运行且已暂停时恢复读取，各分区从暂停时的检查点继续，此时忽略 sink 和 reader 参数；
+     * 否则从最近一次未完成迁移（中途退出或已取消）的检查点继续，
+     * 分区数沿用原迁移，每个未完成的分区从已提交的最后一条记录之后继续
+     *
+     * @param sink 目标表写入方式，不传时沿用原迁移的写入方式
+     * @param reader 源表读取方式，不传时使用配置的默认值
+     * @param job 迁移任务名，不传时为 test-case
+     * @return 响应结果
+     */
+    @GetMapping("/resume")
+    public ResponseEntity<Map<String, Object>> resumeMigration(@RequestParam(required = false) String sink,
+                                                               @RequestParam(required = false) String reader,
+                                                               @RequestParam(defaultValue = TestCaseMigrationJob.NAME)
+                                                               String job) {
         Map<String, Object> response = new HashMap<>();
 
-        // 检查是否已有任务在运行
-        if (isRunning.get()) {
+        MigrationOptions options = new MigrationOptions();
+        options.setResume(true);
+        try {
+            migrationJobRegistry.get(job);
+            if (sink != null) {
+                options.setSinkMode(SinkMode.from(sink));
+            }
+            if (reader != null) {
+                options.setReaderMode(ReaderMode.from(reader));
+            }
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+
+        if (dataMigrationService.isPaused(job)) {
+            return control(job, () -> dataMigrationService.unpause(job), "已恢复暂停的迁移");
+        }
+        if (!migrationJobScheduler.isRunning(job) && !dataMigrationService.hasResumableRun(job)) {
             response.put("success", false);
-            response.put("message", "迁移任务正在运行中，请勿重复启动");
+            response.put("message", "没有可继续的未完成迁移");
             return ResponseEntity.ok(response);
         }
 
-        // 标记任务开始
-        if (!isRunning.compareAndSet(false, true)) {
+        return launch(List.of(job), options, "已从检查点继续迁移，请使用 /api/migration/status 查询进度");
+    }
+
+    /**
+     * 暂停正在运行的迁移
+     * 各分区提交已经读出的批次后停止读取并归还数据库连接，之后调用 /resume 继续，或 /cancel 取消
+     *
+     * @param job 迁移任务名，不传时为 test-case
+     * @return 响应结果，progress.resumePositions 为各分区已提交的最后一条记录ID
+     */
+    @GetMapping("/pause")
+    public ResponseEntity<Map<String, Object>> pauseMigration(@RequestParam(defaultValue = TestCaseMigrationJob.NAME)
+                                                              String job) {
+        return control(job, () -> dataMigrationService.pause(job),
+                       "已请求暂停，进行中的批次提交后停止读取，progress.state 为 PAUSED 时暂停完成");
+    }
+
+    /**
+     * 取消正在运行或暂停的迁移
+     * 各分区提交已经读出的批次后退出，迁移保持未完成状态，之后可以通过 /resume 从检查点继续
+     *
+     * @param job 迁移任务名，不传时为 test-case
+     * @return 响应结果，progress.resumePositions 为各分区已提交的最后一条记录ID
+     */
+    @GetMapping("/cancel")
+    public ResponseEntity<Map<String, Object>> cancelMigration(@RequestParam(defaultValue = TestCaseMigrationJob.NAME)
+                                                               String job) {
+        return control(job, () -> dataMigrationService.cancel(job),
+                       "已请求取消，进行中的批次提交后退出，之后可以通过 /resume 从检查点继续");
+    }
+
+    /**
+     * 对正在运行的迁移执行暂停、恢复或取消
+     *
+     * @param job 迁移任务名
+     * @param action 控制操作，返回操作后的进度
+     * @param message 成功时返回的提示
+     * @return 响应结果
+     */
+    private ResponseEntity<Map<String, Object>> control(String job, Supplier<MigrationProgress> action,
+                                                        String message) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            migrationJobRegistry.get(job);
+            MigrationProgress progress = action.get();
+            response.put("success", true);
+            response.put("message", message);
+            response.put("progress", progress);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        } catch (IllegalStateException e) {
             response.put("success", false);
-            response.put("message", "迁移任务正在运行中，请勿重复启动");
-            return ResponseEntity.ok(response);
+            response.put("message", e.getMessage());
         }
+        return ResponseEntity.ok(response);
+    }
 
-        // 异步执行迁移任务
-        CompletableFuture.runAsync(() -> {
-            try {
-                log.info("开始执行数据迁移任务");
-                DataMigrationService.MigrationResult result = dataMigrationService.executeMigration();
-                lastResult = result;
-                log.info("数据迁移任务完成");
-            } catch (Exception e) {
-                log.error("数据迁移任务执行异常", e);
-            } finally {
-                // 任务完成，重置标识
-                isRunning.set(false);
+    /**
+     * 列出已注册的迁移任务及其运行状态和最近一次结果
+     *
+     * @return 任务列表
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> listJobs() {
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (MigrationJob<?, ?> job : migrationJobRegistry.all()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("name", job.name());
+            item.put("isRunning", migrationJobScheduler.isRunning(job.name()));
+            MigrationProgress progress = dataMigrationService.getCurrentProgress(job.name());
+            if (progress != null) {
+                item.put("progress", progress);
+            }
+            DataMigrationService.MigrationResult lastResult = migrationJobScheduler.getLastResult(job.name());
+            if (lastResult != null) {
+                item.put("lastResult", lastResult);
             }
-        });
+            jobs.add(item);
+        }
 
+        Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("message", "数据迁移任务已启动，请使用 /api/migration/status 查询进度");
+        response.put("jobs", jobs);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 同时启动多个迁移任务，各任务共用数据库访问许可和吞吐预算
+     *
+     * @param names 任务名，多个用逗号分隔
+     * @param workers 每个任务的并行工作线程数
+     * @param sink 目标表写入方式，不传时使用配置的默认值
+     * @param commitEvery 每个事务包含的批次数，不传时使用配置的默认值
+     * @param batchSize 每批记录数，不传时使用配置的默认值
+     * @param adaptive 是否根据写入耗时自动调整批量大小，不传时使用配置的默认值
+     * @param reader 源表读取方式：keyset 或 cursor，不传时使用配置的默认值
+     * @param fromId 只迁移主键不小于该值的记录，不传时从头迁移
+     * @param toId 只迁移主键不大于该值的记录，不传时不设上界
+     * @return 响应结果
+     */
+    @GetMapping("/jobs/start")
+    public ResponseEntity<Map<String, Object>> startJobs(@RequestParam List<String> names,
+                                                         @RequestParam(defaultValue = "1") int workers,
+                                                         @RequestParam(required = false) String sink,
+                                                         @RequestParam(required = false) Integer commitEvery,
+                                                         @RequestParam(required = false) Integer batchSize,
+                                                         @RequestParam(required = false) Boolean adaptive,
+                                                         @RequestParam(required = false) String reader,
+                                                         @RequestParam(required = false) Integer fromId,
+                                                         @RequestParam(required = false) Integer toId) {
+        MigrationOptions options;
+        try {
+            options = buildOptions(workers, sink, commitEvery, batchSize, adaptive, reader, fromId, toId);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+
+        return launch(names, options, "迁移任务 " + names + " 已启动，请使用 /api/migration/jobs 查询进度");
+    }
+
+    /**
+     * 校验请求参数并组装运行参数
+     *
+     * @throws IllegalArgumentException 参数不合法
+     */
+    private MigrationOptions buildOptions(int workers, String sink, Integer commitEvery, Integer batchSize,
+                                          Boolean adaptive, String reader, Integer fromId, Integer toId) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers 必须大于0");
+        }
+        if (commitEvery != null && commitEvery < 1) {
+            throw new IllegalArgumentException("commitEvery 必须大于0");
+        }
+        if (batchSize != null && batchSize < 1) {
+            throw new IllegalArgumentException("batchSize 必须大于0");
+        }
+        if (fromId != null && toId != null && fromId > toId) {
+            throw new IllegalArgumentException("fromId 不能大于 toId");
+        }
+
+        MigrationOptions options = new MigrationOptions();
+        options.setWorkers(workers);
+        options.setCommitEveryBatches(commitEvery);
+        options.setBatchSize(batchSize);
+        options.setAdaptiveBatch(adaptive);
+        if (sink != null) {
+            options.setSinkMode(SinkMode.from(sink));
+        }
+        if (reader != null) {
+            options.setReaderMode(ReaderMode.from(reader));
+        }
+        if (fromId != null) {
+            options.setStartAfterId(fromId - 1);
+        }
+        options.setEndId(toId);
+        return options;
+    }
+
+    /**
+     * 在迁移专用线程上异步执行迁移任务，同一个任务同一时间只允许运行一次
+     *
+     * @param names 任务名
+     * @param options 运行参数
+     * @param startedMessage 启动成功时返回的提示
+     * @return 响应结果
+     */
+    private ResponseEntity<Map<String, Object>> launch(List<String> names, MigrationOptions options,
+                                                       String startedMessage) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            migrationJobScheduler.start(names, options);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        } catch (IllegalStateException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.ok(response);
+        }
+
+        response.put("success", true);
+        response.put("message", startedMessage);
+        return ResponseEntity.ok(response);
+    }
+
+    private static ResponseEntity<Map<String, Object>> badRequest(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        return ResponseEntity.badRequest().body(response);
+    }
+
     /**
      * 查询迁移任务状态
+     * 运行中时返回实时进度：读取/写入速率、完成百分比、预计剩余时间、队列深度和各阶段耗时，
+     * runningJobs 为所有正在运行的任务的进度
      *
      * @return 任务状态
      */
@@ -88,8 +326,19 @@ public class MigrationController {
     public ResponseEntity<Map<String, Object>> getStatus() {
         Map<String, Object> response = new HashMap<>();
 
-        response.put("isRunning", isRunning.get());
+        response.put("isRunning", migrationJobScheduler.isRunning(TestCaseMigrationJob.NAME));
 
+        MigrationProgress progress = dataMigrationService.getCurrentProgress();
+        if (progress != null) {
+            response.put("progress", progress);
+        }
+
+        Map<String, MigrationProgress> running = dataMigrationService.getRunningProgress();
+        if (!running.isEmpty()) {
+            response.put("runningJobs", running);
+        }
+
+        DataMigrationService.MigrationResult lastResult = migrationJobScheduler.getLastResult(TestCaseMigrationJob.NAME);
         if (lastResult != null) {
             response.put("lastResult", lastResult);
         }
@@ -106,6 +355,7 @@ public class MigrationController {
     public ResponseEntity<Map<String, Object>> getLastResult() {
         Map<String, Object> response = new HashMap<>();
 
+        DataMigrationService.MigrationResult lastResult = migrationJobScheduler.getLastResult(TestCaseMigrationJob.NAME);
         if (lastResult == null) {
             response.put("success", false);
             response.put("message", "暂无迁移记录");
@@ -116,4 +366,41 @@ public class MigrationController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * 分页查询最近一次迁移的失败记录ID，迁移运行期间也可以查询
+     *
+     * @param cursor 起始偏移量，首页传0，后续传上一页返回的 nextCursor
+     * @param limit 每页数量，最大10000
+     * @param job 迁移任务名，不传时为 test-case
+     * @return 一页失败ID
+     */
+    @GetMapping("/failures")
+    public ResponseEntity<Map<String, Object>> getFailures(@RequestParam(defaultValue = "0") long cursor,
+                                                           @RequestParam(defaultValue = "1000") int limit,
+                                                           @RequestParam(defaultValue = TestCaseMigrationJob.NAME)
+                                                           String job) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (cursor < 0 || limit < 1 || limit > MAX_FAILURE_PAGE_SIZE) {
+            response.put("success", false);
+            response.put("message", "cursor 不能小于0，limit 取值范围 1-" + MAX_FAILURE_PAGE_SIZE);
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        FailedIdStore failedIds = dataMigrationService.getLatestFailedIds(job);
+        if (failedIds == null) {
+            response.put("success", false);
+            response.put("message", "暂无迁移记录");
+            return ResponseEntity.ok(response);
+        }
+
+        FailurePage page = failedIds.page(cursor, limit);
+        response.put("success", true);
+        response.put("total", page.getTotal());
+        response.put("cursor", page.getCursor());
+        response.put("nextCursor", page.getNextCursor());
+        response.put("ids", page.getIds());
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.datamigration.api;
+
+import com.example.datamigration.service.seed.SeedResult;
+import com.example.datamigration.service.seed.SeedService;
+import com.example.datamigration.service.seed.SyntheticCaseSpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 合成数据控制器，仅在 seed profile 下启用
+ * 向源表写入指定数量的合成用例，用于压测迁移吞吐
+ */
+@Slf4j
+@RestController
+@Profile("seed")
+@RequestMapping("/api/migration")
+public class SeedController {
+
+    @Autowired
+    private SeedService seedService;
+
+    /**
+     * 写入任务运行状态标识
+     */
+    private final AtomicBoolean isSeeding = new AtomicBoolean(false);
+
+    /**
+     * 向 test_case_info 写入合成数据，同步执行，写入完成后返回
+     *
+     * @param rows 记录数
+     * @param minSteps 每条用例最少步骤数
+     * @param maxSteps 每条用例最多步骤数，步骤数偏向较小值分布
+     * @param payloadChars 步骤 name/result 字段的字符数
+     * @param malformedRate step为非法JSON的记录比例，0-1
+     * @param seed 随机种子
+     * @return 写入结果
+     */
+    @PostMapping("/seed")
+    public ResponseEntity<Map<String, Object>> seed(@RequestParam long rows,
+                                                    @RequestParam(defaultValue = "1") int minSteps,
+                                                    @RequestParam(defaultValue = "10") int maxSteps,
+                                                    @RequestParam(defaultValue = "32") int payloadChars,
+                                                    @RequestParam(defaultValue = "0") double malformedRate,
+                                                    @RequestParam(defaultValue = "42") long seed) {
+        Map<String, Object> response = new HashMap<>();
+
+        SyntheticCaseSpec spec = new SyntheticCaseSpec();
+        spec.setMinSteps(minSteps);
+        spec.setMaxSteps(maxSteps);
+        spec.setPayloadChars(payloadChars);
+        spec.setMalformedRate(malformedRate);
+        spec.setSeed(seed);
+
+        if (!isSeeding.compareAndSet(false, true)) {
+            response.put("success", false);
+            response.put("message", "合成数据正在写入中，请勿重复提交");
+            return ResponseEntity.ok(response);
+        }
+        try {
+            SeedResult result = seedService.seed(rows, spec);
+            response.put("success", true);
+            response.put("result", result);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } finally {
+            isSeeding.set(false);
+        }
+    }
+}
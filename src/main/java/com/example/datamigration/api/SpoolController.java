@@ -0,0 +1,112 @@
+package com.example.datamigration.api;
+
+import com.example.datamigration.service.execution.MigrationExecutors;
+import com.example.datamigration.service.job.MigrationJobScheduler;
+import com.example.datamigration.service.job.SpooledTestCaseJob;
+import com.example.datamigration.service.spool.SpoolResult;
+import com.example.datamigration.service.spool.SpoolService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 源表快照控制器
+ * 抽取 test_case_info 到本地快照文件，之后通过 /api/migration/jobs/start?names=test-case-spool 从快照加载
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/migration/spool")
+public class SpoolController {
+
+    @Autowired
+    private SpoolService spoolService;
+
+    @Autowired
+    private MigrationJobScheduler migrationJobScheduler;
+
+    @Autowired
+    private MigrationExecutors migrationExecutors;
+
+    /**
+     * 抽取任务运行状态标识
+     */
+    private final AtomicBoolean isExtracting = new AtomicBoolean(false);
+
+    /**
+     * 最近一次抽取结果
+     */
+    private volatile SpoolResult lastResult;
+
+    /**
+     * 最近一次抽取失败的原因
+     */
+    private volatile String lastError;
+
+    /**
+     * 异步抽取 test_case_info 的快照，完成后替换原快照文件
+     *
+     * @return 响应结果
+     */
+    @GetMapping("/extract")
+    public ResponseEntity<Map<String, Object>> extract() {
+        Map<String, Object> response = new HashMap<>();
+
+        if (migrationJobScheduler.isRunning(SpooledTestCaseJob.NAME)) {
+            response.put("success", false);
+            response.put("message", "正在从快照加载，请等待加载完成后再抽取");
+            return ResponseEntity.ok(response);
+        }
+        if (!isExtracting.compareAndSet(false, true)) {
+            response.put("success", false);
+            response.put("message", "快照正在抽取中，请勿重复启动");
+            return ResponseEntity.ok(response);
+        }
+
+        migrationExecutors.taskExecutor().execute(() -> {
+            try {
+                lastResult = spoolService.extract();
+                lastError = null;
+            } catch (Exception e) {
+                log.error("快照抽取异常", e);
+                lastError = e.getMessage();
+            } finally {
+                isExtracting.set(false);
+            }
+        });
+
+        response.put("success", true);
+        response.put("message", "快照抽取已启动，请使用 /api/migration/spool 查询状态");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 查询快照文件和最近一次抽取的状态
+     *
+     * @return 快照状态
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        Map<String, Object> response = new HashMap<>();
+
+        Path file = spoolService.path();
+        response.put("isExtracting", isExtracting.get());
+        response.put("path", file.toAbsolutePath().toString());
+        response.put("exists", Files.exists(file));
+        if (lastResult != null) {
+            response.put("lastResult", lastResult);
+        }
+        if (lastError != null) {
+            response.put("lastError", lastError);
+        }
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.datamigration.api;
+
+import com.example.datamigration.config.MigrationProperties;
+import com.example.datamigration.service.execution.LoadFeedback;
+import com.example.datamigration.service.execution.ThroughputBudget;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 吞吐限速控制器
+ * 查看和调整所有迁移任务共享的每秒读取记录数、字节数上限，调整立即对正在运行的迁移生效
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/migration/throttle")
+public class ThrottleController {
+
+    @Autowired
+    private ThroughputBudget throughputBudget;
+
+    @Autowired
+    private LoadFeedback loadFeedback;
+
+    @Autowired
+    private MigrationProperties migrationProperties;
+
+    /**
+     * 调整吞吐上限，未传的参数保持不变，传0表示不限制
+     *
+     * @param rowsPerSecond 每秒读取的记录数上限
+     * @param bytesPerSecond 每秒读取的估算字节数上限
+     * @return 调整后的限速状态
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> update(@RequestParam(required = false) Long rowsPerSecond,
+                                                      @RequestParam(required = false) Long bytesPerSecond) {
+        if (rowsPerSecond == null && bytesPerSecond == null) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "至少指定 rowsPerSecond 或 bytesPerSecond");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if ((rowsPerSecond != null && rowsPerSecond < 0) || (bytesPerSecond != null && bytesPerSecond < 0)) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "rowsPerSecond 和 bytesPerSecond 不能小于0，0表示不限制");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        throughputBudget.setLimits(rowsPerSecond, bytesPerSecond);
+        Map<String, Object> response = describe();
+        response.put("success", true);
+        response.put("message", "吞吐上限已调整");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 查询当前的吞吐上限、负载反馈的降速比例和最近一次负载探测结果
+     *
+     * @return 限速状态
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(describe());
+    }
+
+    private Map<String, Object> describe() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("rowsPerSecond", throughputBudget.getRowsPerSecond());
+        response.put("bytesPerSecond", throughputBudget.getBytesPerSecond());
+        response.put("effectiveRowsPerSecond", Math.round(throughputBudget.effectiveRowsPerSecond()));
+        response.put("effectiveBytesPerSecond", Math.round(throughputBudget.effectiveBytesPerSecond()));
+        response.put("loadFactor", throughputBudget.getLoadFactor());
+
+        Map<String, Object> probe = new HashMap<>();
+        probe.put("enabled", loadFeedback.isEnabled());
+        if (loadFeedback.isEnabled()) {
+            probe.put("threshold", migrationProperties.getThrottle().getProbeThreshold());
+            probe.put("lastValue", loadFeedback.getLastValue());
+            probe.put("lastProbeTime", loadFeedback.getLastProbeTime());
+            if (loadFeedback.getLastError() != null) {
+                probe.put("lastError", loadFeedback.getLastError());
+            }
+        }
+        response.put("probe", probe);
+        return response;
+    }
+}
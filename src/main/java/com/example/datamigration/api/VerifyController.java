@@ -0,0 +1,117 @@
+package com.example.datamigration.api;
+
+import com.example.datamigration.service.execution.MigrationExecutors;
+import com.example.datamigration.service.job.MigrationJobScheduler;
+import com.example.datamigration.service.job.TestCaseMigrationJob;
+import com.example.datamigration.service.verify.VerifyResult;
+import com.example.datamigration.service.verify.VerifyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 迁移核对控制器
+ * 迁移完成后比较 test_case_info 与 test_case_pool + test_case_step 的分段校验和，定位不一致的源记录
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/migration/verify")
+public class VerifyController {
+
+    @Autowired
+    private VerifyService verifyService;
+
+    @Autowired
+    private MigrationJobScheduler migrationJobScheduler;
+
+    @Autowired
+    private MigrationExecutors migrationExecutors;
+
+    /**
+     * 核对任务运行状态标识
+     */
+    private final AtomicBoolean isVerifying = new AtomicBoolean(false);
+
+    /**
+     * 最近一次核对结果
+     */
+    private volatile VerifyResult lastResult;
+
+    /**
+     * 最近一次核对失败的原因
+     */
+    private volatile String lastError;
+
+    /**
+     * 异步核对迁移结果
+     *
+     * @param workers 并行核对的分段数，不传时使用 migration.verify.workers
+     * @param chunkSize 每段的源表主键跨度，不传时使用 migration.verify.chunk-size
+     * @return 响应结果
+     */
+    @GetMapping("/start")
+    public ResponseEntity<Map<String, Object>> start(@RequestParam(required = false) Integer workers,
+                                                     @RequestParam(required = false) Integer chunkSize) {
+        Map<String, Object> response = new HashMap<>();
+
+        if ((workers != null && workers < 1) || (chunkSize != null && chunkSize < 1)) {
+            response.put("success", false);
+            response.put("message", "workers 和 chunkSize 必须大于0");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (migrationJobScheduler.isRunning(TestCaseMigrationJob.NAME)
+            || migrationJobScheduler.isRunning(TestCaseMigrationJob.CHANGES_NAME)) {
+            response.put("success", false);
+            response.put("message", "迁移任务正在运行，请等待迁移完成后再核对");
+            return ResponseEntity.ok(response);
+        }
+        if (!isVerifying.compareAndSet(false, true)) {
+            response.put("success", false);
+            response.put("message", "核对任务正在运行中，请勿重复启动");
+            return ResponseEntity.ok(response);
+        }
+
+        migrationExecutors.taskExecutor().execute(() -> {
+            try {
+                lastResult = verifyService.verify(workers, chunkSize);
+                lastError = null;
+            } catch (Exception e) {
+                log.error("迁移核对异常", e);
+                lastError = e.getMessage();
+            } finally {
+                isVerifying.set(false);
+            }
+        });
+
+        response.put("success", true);
+        response.put("message", "迁移核对已启动，请使用 /api/migration/verify 查询结果");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 查询核对状态和最近一次核对结果
+     *
+     * @return 核对状态
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        Map<String, Object> response = new HashMap<>();
+
+        response.put("isVerifying", isVerifying.get());
+        if (lastResult != null) {
+            response.put("lastResult", lastResult);
+        }
+        if (lastError != null) {
+            response.put("lastError", lastError);
+        }
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.datamigration.config;
+
+import com.example.datamigration.service.errorlog.ErrorLogFormat;
+import com.example.datamigration.service.execution.ThreadMode;
+import com.example.datamigration.service.ids.IdMode;
+import com.example.datamigration.service.reader.ReaderMode;
+import com.example.datamigration.service.sink.SinkMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 数据迁移配置
+ * 对应 application.yml 中 migration 前缀下的配置项
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "migration")
+public class MigrationProperties {
+
+    /**
+     * 默认的目标表写入方式：xml（foreach多行INSERT）、jdbc-batch（JDBC批量执行）
+     * 或 load-data（LOAD DATA LOCAL INFILE，需要预分配主键）
+     * 可以在启动迁移时通过 sink 参数按次覆盖
+     */
+    private SinkMode sink = SinkMode.XML;
+
+    /**
+     * 批量大小配置
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * 每个事务包含的批次数（分组提交）
+     * 大于1时连续多个批次在同一个事务中写入后一次提交，减少提交和刷盘次数；
+     * 代价是事务持有锁的时间更长，出错时需要回滚并逐批重放整组
+     */
+    private int commitEveryBatches = 1;
+
+    /**
+     * 源表读取配置
+     */
+    private Reader reader = new Reader();
+
+    /**
+     * 流水线配置
+     */
+    private Pipeline pipeline = new Pipeline();
+
+    /**
+     * 线程与并发配置
+     */
+    private Execution execution = new Execution();
+
+    /**
+     * 按数据库负载自动降速的配置
+     */
+    private Throttle throttle = new Throttle();
+
+    /**
+     * 目标表主键配置
+     */
+    private Ids ids = new Ids();
+
+    /**
+     * 增量迁移配置
+     */
+    private Incremental incremental = new Incremental();
+
+    /**
+     * 源表快照配置
+     */
+    private Spool spool = new Spool();
+
+    /**
+     * 迁移核对配置
+     */
+    private Verify verify = new Verify();
+
+    /**
+     * 错误日志配置
+     */
+    private ErrorLog errorLog = new ErrorLog();
+
+    /**
+     * 失败记录配置
+     */
+    private Failures failures = new Failures();
+
+    @Data
+    public static class Reader {
+
+        /**
+         * 读取方式：keyset（按主键分页查询）或 cursor（每个分区一次有序扫描，逐行流式读取）
+         */
+        private ReaderMode mode = ReaderMode.KEYSET;
+
+        /**
+         * cursor 方式下每批源记录的估算字节数上限，与批量大小共同决定批次的截断位置，不大于0表示只按条数截断
+         */
+        private long maxBatchBytes = 8L * 1024 * 1024;
+    }
+
+    @Data
+    public static class Pipeline {
+
+        /**
+         * 读取→转换、转换→写入两个阶段之间的队列容量（单位：批）
+         * 队列满时上游阶段阻塞等待，每个分区同时驻留在内存中的批次数不超过 2 * queueCapacity + 3
+         */
+        private int queueCapacity = 2;
+    }
+
+    @Data
+    public static class Execution {
+
+        /**
+         * 迁移任务和分区工作线程的线程类型：platform 或 virtual
+         */
+        private ThreadMode threads = ThreadMode.PLATFORM;
+
+        /**
+         * 同时访问数据库的最大数量（读取查询、写入事务各占一个），
+         * 不大于0时取连接池的 maximum-pool-size
+         */
+        private int dbPermits = 0;
+
+        /**
+         * 所有同时运行的迁移任务合计每秒最多读取的源记录数，不大于0表示不限制，
+         * 运行期间可以通过 /api/migration/throttle 调整
+         */
+        private long rowsPerSecond = 0;
+
+        /**
+         * 所有同时运行的迁移任务合计每秒最多读取的源记录估算字节数，不大于0表示不限制
+         */
+        private long bytesPerSecond = 0;
+    }
+
+    @Data
+    public static class Throttle {
+
+        /**
+         * 负载探测SQL，在目标库上定时执行，取第一行的 probe-column 列（未配置时取最后一列）作为负载值，
+         * 例如 SHOW GLOBAL STATUS LIKE 'Threads_running'。不配置时不探测
+         */
+        private String probeSql;
+
+        /**
+         * 负载值所在的列名，用于 SHOW REPLICA STATUS 这类返回多列的语句，例如 Seconds_Behind_Source
+         */
+        private String probeColumn;
+
+        /**
+         * 负载阈值，负载值超过阈值或为NULL时降速
+         */
+        private double probeThreshold = 0;
+
+        /**
+         * 探测间隔（毫秒）
+         */
+        private long probeIntervalMs = 5000;
+
+        /**
+         * 降速后速率不低于原速率的比例
+         */
+        private double minFactor = 0.1;
+
+        /**
+         * 负载恢复后每次探测回升的比例
+         */
+        private double recoverStep = 0.1;
+    }
+
+    @Data
+    public static class Ids {
+
+        /**
+         * test_case_pool 主键来源：generated（数据库自增后回填）或 preallocated（按块预留，转换阶段分配）
+         */
+        private IdMode mode = IdMode.GENERATED;
+
+        /**
+         * preallocated 模式下每次从 migration_id_block 预留的主键数
+         * 越大预留次数越少，进程退出时作废的主键也越多
+         */
+        private int blockSize = 1000;
+    }
+
+    @Data
+    public static class Incremental {
+
+        /**
+         * test_case_info 的更新时间列名，配置后增量迁移会重新迁移已迁移过、之后又被修改的记录，
+         * 全量和增量迁移都会在 migration_source_map 中记录源记录对应的 test_case_pool 主键。
+         * 不配置时只按主键高水位迁移新增的记录
+         */
+        private String updatedAtColumn;
+
+        /**
+         * 定时执行增量迁移的cron表达式，默认 "-" 表示不定时执行
+         */
+        private String cron = "-";
+
+        /**
+         * 增量迁移的并行分区数
+         */
+        private int workers = 1;
+    }
+
+    @Data
+    public static class Spool {
+
+        /**
+         * 快照文件路径，应位于本地磁盘
+         */
+        private String path = "spool/test_case_info.spool";
+
+        /**
+         * 抽取时每次读取的记录数
+         */
+        private int extractBatchSize = 5000;
+    }
+
+    @Data
+    public static class Verify {
+
+        /**
+         * 每段覆盖的源表主键跨度，逐段计算校验和，不一致时只在该段内逐条比较
+         */
+        private int chunkSize = 10_000;
+
+        /**
+         * 并行核对的分段数
+         */
+        private int workers = 4;
+
+        /**
+         * 结果中最多列出的不一致记录数
+         */
+        private int maxMismatches = 1000;
+    }
+
+    @Data
+    public static class ErrorLog {
+
+        /**
+         * 日志格式：text（每行 [时间] 信息）或 json（JSON Lines，便于工具重新加载失败ID）
+         */
+        private ErrorLogFormat format = ErrorLogFormat.TEXT;
+
+        /**
+         * 后台写入线程的缓冲区大小（字节），写满时立即写出
+         */
+        private int bufferBytes = 64 * 1024;
+
+        /**
+         * 缓冲区未满时的最长写出间隔（毫秒）
+         */
+        private long flushIntervalMillis = 1000;
+    }
+
+    @Data
+    public static class Failures {
+
+        /**
+         * 内存中最多保存的失败ID数，超过后写入临时文件，通过 /api/migration/failures 分页查询
+         */
+        private int memoryLimit = 100_000;
+    }
+
+    @Data
+    public static class Batch {
+
+        /**
+         * 每批读取和写入的记录数；开启自适应时为初始值
+         */
+        private int size = 1000;
+
+        /**
+         * 是否根据写入耗时自动调整批量大小（加性增、乘性减）
+         */
+        private boolean adaptive = true;
+
+        /**
+         * 自适应调整的下限
+         */
+        private int minSize = 100;
+
+        /**
+         * 自适应调整的上限
+         */
+        private int maxSize = 5000;
+
+        /**
+         * 每批写入的目标耗时（毫秒），低于目标时增大批量，超过时减小
+         */
+        private long targetLatencyMillis = 500;
+
+        /**
+         * 低于目标耗时时每次增加的记录数
+         */
+        private int additiveStep = 100;
+
+        /**
+         * 超过目标耗时时批量大小乘以的系数
+         */
+        private double decreaseFactor = 0.5;
+
+        /**
+         * 单批写入的SQL估算字节数上限，应小于目标库的 max_allowed_packet
+         */
+        private long maxPacketBytes = 4L * 1024 * 1024;
+
+        /**
+         * 复制一份配置，用于按次覆盖
+         */
+        public Batch copy() {
+            Batch copy = new Batch();
+            copy.setSize(size);
+            copy.setAdaptive(adaptive);
+            copy.setMinSize(minSize);
+            copy.setMaxSize(maxSize);
+            copy.setTargetLatencyMillis(targetLatencyMillis);
+            copy.setAdditiveStep(additiveStep);
+            copy.setDecreaseFactor(decreaseFactor);
+            copy.setMaxPacketBytes(maxPacketBytes);
+            return copy;
+        }
+    }
+}
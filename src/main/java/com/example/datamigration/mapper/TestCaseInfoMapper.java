@@ -3,9 +3,13 @@ package com.example.datamigration.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.datamigration.entity.TestCaseInfo;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -25,6 +29,122 @@ public interface TestCaseInfoMapper extends BaseMapper<TestCaseInfo> {
     @Select("SELECT id, title, step, suit, case_id FROM test_case_info LIMIT #{offset}, #{limit}")
     List<TestCaseInfo> selectByPage(@Param("offset") int offset, @Param("limit") int limit);
 
+    /**
+     * 按主键游标（keyset）分页查询测试用例信息
+     * 通过 id > lastId 定位起点，避免 LIMIT offset 扫描并丢弃前面的所有行
+     *
+     * @param lastId 上一页最后一条记录的ID，首页传0
+     * @param limit 每页数量
+     * @return 按ID升序排列的测试用例列表
+     */
+    @Select("SELECT id, title, step, suit, case_id FROM test_case_info WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<TestCaseInfo> selectAfterId(@Param("lastId") int lastId, @Param("limit") int limit);
+
+    /**
+     * 在主键区间 (lastId, endId] 内按主键游标分页查询
+     * 用于分区并行迁移，每个工作线程只读取自己负责的区间
+     *
+     * @param lastId 上一页最后一条记录的ID
+     * @param endId 区间终点（包含）
+     * @param limit 每页数量
+     * @return 按ID升序排列的测试用例列表
+     */
+    @Select("SELECT id, title, step, suit, case_id FROM test_case_info WHERE id > #{lastId} AND id <= #{endId} ORDER BY id LIMIT #{limit}")
+    List<TestCaseInfo> selectRangeAfterId(@Param("lastId") int lastId, @Param("endId") int endId, @Param("limit") int limit);
+
+    /**
+     * 流式查询 lastId 之后的全部测试用例信息，一次有序扫描，驱动每次取回 fetchSize 行
+     * MySQL需要在连接串中开启 useCursorFetch=true，否则驱动会把整个结果集读入内存
+     * 游标在所属 SqlSession 关闭前有效，不能通过Spring管理的Mapper代理调用
+     *
+     * @param lastId 从该ID之后开始读取
+     * @return 按ID升序排列的游标
+     */
+    @Select("SELECT id, title, step, suit, case_id FROM test_case_info WHERE id > #{lastId} ORDER BY id")
+    @Options(fetchSize = 1000, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<TestCaseInfo> cursorAfterId(@Param("lastId") int lastId);
+
+    /**
+     * 流式查询主键区间 (lastId, endId] 内的测试用例信息，用于分区并行迁移
+     *
+     * @param lastId 从该ID之后开始读取
+     * @param endId 区间终点（包含）
+     * @return 按ID升序排列的游标
+     * @see #cursorAfterId(int)
+     */
+    @Select("SELECT id, title, step, suit, case_id FROM test_case_info WHERE id > #{lastId} AND id <= #{endId} ORDER BY id")
+    @Options(fetchSize = 1000, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<TestCaseInfo> cursorRangeAfterId(@Param("lastId") int lastId, @Param("endId") int endId);
+
+    /**
+     * 在主键区间 (lastId, endId] 内按主键游标分页查询更新时间晚于 since 的记录，用于增量迁移重新迁移变更的记录
+     * column 直接拼入SQL，调用方必须先校验列名
+     *
+     * @param column 更新时间列名
+     * @param since 变更时间基准（不包含）
+     * @param lastId 上一页最后一条记录的ID
+     * @param endId 区间终点（包含）
+     * @param limit 每页数量
+     * @return 按ID升序排列的测试用例列表
+     */
+    @Select("SELECT id, title, step, suit, case_id FROM test_case_info " +
+            "WHERE ${column} > #{since} AND id > #{lastId} AND id <= #{endId} ORDER BY id LIMIT #{limit}")
+    List<TestCaseInfo> selectChangedAfterId(@Param("column") String column, @Param("since") LocalDateTime since,
+                                            @Param("lastId") int lastId, @Param("endId") int endId,
+                                            @Param("limit") int limit);
+
+    /**
+     * 查询主键不大于 upToId、更新时间晚于 since 的记录中的最小主键
+     *
+     * @param column 更新时间列名，调用方必须先校验
+     * @param since 变更时间基准（不包含）
+     * @param upToId 主键上界（包含）
+     * @return 最小ID，没有变更时返回null
+     */
+    @Select("SELECT MIN(id) FROM test_case_info WHERE ${column} > #{since} AND id <= #{upToId}")
+    Integer selectChangedMinId(@Param("column") String column, @Param("since") LocalDateTime since,
+                               @Param("upToId") int upToId);
+
+    /**
+     * 查询主键不大于 upToId、更新时间晚于 since 的记录中的最大主键
+     *
+     * @param column 更新时间列名，调用方必须先校验
+     * @param since 变更时间基准（不包含）
+     * @param upToId 主键上界（包含）
+     * @return 最大ID，没有变更时返回null
+     */
+    @Select("SELECT MAX(id) FROM test_case_info WHERE ${column} > #{since} AND id <= #{upToId}")
+    Integer selectChangedMaxId(@Param("column") String column, @Param("since") LocalDateTime since,
+                               @Param("upToId") int upToId);
+
+    /**
+     * 查询主键不大于 upToId、更新时间晚于 since 的记录数
+     *
+     * @param column 更新时间列名，调用方必须先校验
+     * @param since 变更时间基准（不包含）
+     * @param upToId 主键上界（包含）
+     * @return 记录数
+     */
+    @Select("SELECT COUNT(*) FROM test_case_info WHERE ${column} > #{since} AND id <= #{upToId}")
+    long selectChangedCount(@Param("column") String column, @Param("since") LocalDateTime since,
+                            @Param("upToId") int upToId);
+
+    /**
+     * 查询最小主键
+     *
+     * @return 最小ID，表为空时返回null
+     */
+    @Select("SELECT MIN(id) FROM test_case_info")
+    Integer selectMinId();
+
+    /**
+     * 查询最大主键
+     *
+     * @return 最大ID，表为空时返回null
+     */
+    @Select("SELECT MAX(id) FROM test_case_info")
+    Integer selectMaxId();
+
     /**
      * 查询总记录数
      *
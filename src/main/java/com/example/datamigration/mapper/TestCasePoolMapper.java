@@ -20,4 +20,12 @@ public interface TestCasePoolMapper extends BaseMapper<TestCasePool> {
      * @return 插入的记录数
      */
     int batchInsert(List<TestCasePool> poolList);
+
+    /**
+     * 按已分配的主键批量插入测试用例池记录，不回填主键
+     *
+     * @param poolList 已设置主键的测试用例池列表
+     * @return 插入的记录数
+     */
+    int batchInsertWithIds(List<TestCasePool> poolList);
 }
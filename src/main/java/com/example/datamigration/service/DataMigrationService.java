@@ -1,430 +1,820 @@
 package com.example.datamigration.service;
 
-import com.example.datamigration.entity.TestCaseInfo;
-import com.example.datamigration.entity.TestCasePool;
-import com.example.datamigration.entity.TestCaseStep;
-import com.example.datamigration.mapper.TestCaseInfoMapper;
-import com.example.datamigration.mapper.TestCasePoolMapper;
-import com.example.datamigration.mapper.TestCaseStepMapper;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.datamigration.config.MigrationProperties;
+import com.example.datamigration.service.batch.AdaptiveBatchSizer;
+import com.example.datamigration.service.batch.BatchSizeSnapshot;
+import com.example.datamigration.service.checkpoint.CheckpointStore;
+import com.example.datamigration.service.checkpoint.PartitionCheckpoint;
+import com.example.datamigration.service.errorlog.ErrorLogEntry;
+import com.example.datamigration.service.errorlog.ErrorLogFactory;
+import com.example.datamigration.service.errorlog.ErrorLogWriter;
+import com.example.datamigration.service.execution.DbPermits;
+import com.example.datamigration.service.execution.MigrationExecutors;
+import com.example.datamigration.service.execution.RunControl;
+import com.example.datamigration.service.execution.RunState;
+import com.example.datamigration.service.execution.ThreadMode;
+import com.example.datamigration.service.execution.ThroughputBudget;
+import com.example.datamigration.service.failure.FailedIdStore;
+import com.example.datamigration.service.job.CursorJobSource;
+import com.example.datamigration.service.job.JobRecord;
+import com.example.datamigration.service.job.JobSinks;
+import com.example.datamigration.service.job.JobSource;
+import com.example.datamigration.service.job.MigrationJob;
+import com.example.datamigration.service.job.RowTransformer;
+import com.example.datamigration.service.job.TestCaseMigrationJob;
+import com.example.datamigration.service.metrics.MigrationMetrics;
+import com.example.datamigration.service.metrics.MigrationPhase;
+import com.example.datamigration.service.metrics.MigrationProgress;
+import com.example.datamigration.service.pipeline.MigrationPipeline;
+import com.example.datamigration.service.pipeline.PipelineStats;
+import com.example.datamigration.service.reader.CursorSourceReader;
+import com.example.datamigration.service.reader.IdRange;
+import com.example.datamigration.service.reader.KeysetSourceReader;
+import com.example.datamigration.service.reader.ReaderMode;
+import com.example.datamigration.service.reader.SourceReader;
+import com.example.datamigration.service.sink.SinkMode;
+import com.example.datamigration.service.transform.TransformedBatch;
+import com.example.datamigration.service.writer.BatchOutcome;
+import com.example.datamigration.service.writer.JobBatchWriter;
+import com.example.datamigration.service.writer.PartitionWriter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 /**
  * 数据迁移服务类
- * 负责将test_case_info表的数据迁移到test_case_pool和test_case_step表
+ * 按注册的迁移任务（MigrationJob）把一张源表迁移到一张或多张目标表，
+ * 不指定任务时迁移 test_case_info → test_case_pool + test_case_step
  *
- * 支持两种迁移模式：
- * 1. 批量模式（推荐）- 使用MyBatis XML批量插入，性能高
- * 2. 单条模式（降级） - 逐条插入，用于批量失败时的降级处理
+ * 每个分区按 读取 → 转换 → 写入 三阶段流水线执行，阶段之间通过有界队列连接
+ *
+ * 写入阶段由 JobBatchWriter 显式控制事务，支持两种迁移模式：
+ * 1. 批量模式（推荐）- 使用写入器批量插入（MyBatis XML多行INSERT或JDBC批量执行），性能高
+ * 2. 二分拆分（降级） - 批量失败时对半拆分重试，只对定位出的单条记录单独写入
+ *
+ * 不同的任务可以同时运行，共用数据库访问许可和吞吐预算；同一个任务同一时间只能运行一次
  */
 @Slf4j
 @Service
 public class DataMigrationService {
 
     @Autowired
-    private TestCaseInfoMapper testCaseInfoMapper;
+    private TestCaseMigrationJob testCaseMigrationJob;
+
+    @Autowired
+    private MigrationProperties migrationProperties;
 
     @Autowired
-    private TestCasePoolMapper testCasePoolMapper;
+    private CheckpointStore checkpointStore;
 
     @Autowired
-    private TestCaseStepMapper testCaseStepMapper;
+    private JobBatchWriter jobBatchWriter;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private ErrorLogFactory errorLogFactory;
+
+    @Autowired
+    private MigrationMetrics migrationMetrics;
+
+    @Autowired
+    private MigrationExecutors migrationExecutors;
+
+    @Autowired
+    private DbPermits dbPermits;
+
+    @Autowired
+    private ThroughputBudget throughputBudget;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
 
     /**
-     * 每批处理的记录数
-     * 建议值：500-2000，根据服务器性能和网络状况调整
+     * 正在运行的迁移任务名，同一个任务不能同时运行两次
      */
-    private static final int BATCH_SIZE = 1000;
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
 
     /**
-     * 失败记录日志文件路径
+     * 正在迁移数据的任务上下文，用于查询实时进度，key为任务名
      */
-    private static final String ERROR_LOG_FILE = "migration_error_log.txt";
+    private final Map<String, MigrationContext> runningContexts = new ConcurrentHashMap<>();
 
     /**
-     * 执行数据迁移
-     * 主入口方法，协调整个迁移流程
+     * 各任务最近一次的失败ID，迁移运行期间也可以分页读取，key为任务名
+     */
+    private final Map<String, FailedIdStore> latestFailedIds = new ConcurrentHashMap<>();
+
+    /**
+     * 执行数据迁移（单线程）
      *
      * @return 迁移统计信息
      */
     public MigrationResult executeMigration() {
-        log.info("================== 开始数据迁移 ==================");
-        long startTime = System.currentTimeMillis();
+        return executeMigration(1);
+    }
 
-        // 统计信息
-        AtomicLong totalCount = new AtomicLong(0);
-        AtomicLong successCount = new AtomicLong(0);
-        AtomicLong failedCount = new AtomicLong(0);
-        List<Integer> failedIds = new ArrayList<>();
+    /**
+     * 执行数据迁移
+     * 主入口方法，协调整个迁移流程
+     *
+     * @param workers 并行工作线程数
+     * @return 迁移统计信息
+     */
+    public MigrationResult executeMigration(int workers) {
+        MigrationOptions options = new MigrationOptions();
+        options.setWorkers(workers);
+        return executeMigration(options);
+    }
 
-        // 创建错误日志文件
-        String errorLogPath = initErrorLogFile();
+    /**
+     * 按指定参数执行 test_case_info 的迁移
+     *
+     * @param options 运行参数
+     * @return 迁移统计信息
+     */
+    public MigrationResult executeMigration(MigrationOptions options) {
+        return executeMigration(testCaseMigrationJob, options);
+    }
 
+    /**
+     * 按指定参数执行一个迁移任务
+     *
+     * 按最小/最大主键把源表切分为 workers 个区间，每个区间由独立的工作线程迁移，
+     * 各工作线程使用各自的数据库连接，统计结果汇总到同一个 MigrationResult
+     *
+     * @param job 迁移任务
+     * @param options 运行参数
+     * @return 迁移统计信息
+     * @throws IllegalStateException 该任务正在运行，或要求继续迁移但没有未完成的迁移
+     */
+    public <S, T extends JobRecord> MigrationResult executeMigration(MigrationJob<S, T> job,
+                                                                     MigrationOptions options) {
+        String jobName = job.name();
+        if (!runningJobs.add(jobName)) {
+            throw new IllegalStateException("迁移任务 " + jobName + " 正在运行");
+        }
         try {
-            // 1. 查询总记录数
-            long total = testCaseInfoMapper.selectTotalCount();
-            totalCount.set(total);
-            log.info("待迁移总记录数: {}", total);
-
-            if (total == 0) {
-                log.warn("源表无数据，迁移结束");
-                return buildResult(totalCount.get(), successCount.get(), failedCount.get(),
-                                 failedIds, startTime, errorLogPath);
+            return runJob(job, options);
+        } finally {
+            runningContexts.remove(jobName);
+            runningJobs.remove(jobName);
+        }
+    }
+
+    private <S, T extends JobRecord> MigrationResult runJob(MigrationJob<S, T> job, MigrationOptions options) {
+        String jobName = job.name();
+        List<PartitionCheckpoint> resumePoint = List.of();
+        if (options.isResume()) {
+            resumePoint = checkpointStore.findLatestUnfinishedRun(jobName);
+            if (resumePoint.isEmpty()) {
+                throw new IllegalStateException("迁移任务 " + jobName + " 没有可继续的未完成迁移");
             }
+        }
 
-            // 2. 分批处理数据
-            int batchCount = (int) Math.ceil((double) total / BATCH_SIZE);
-            log.info("将分 {} 批次处理，每批 {} 条记录", batchCount, BATCH_SIZE);
+        int workers = resumePoint.isEmpty() ? options.getWorkers() : resumePoint.size();
+        if (workers < 1) {
+            throw new IllegalArgumentException("工作线程数必须大于0: " + workers);
+        }
+        SinkMode sinkMode = resolveSinkMode(options, resumePoint);
+        JobSinks<T> sinks = job.sinks(sinkMode);
+        int commitEveryBatches = options.getCommitEveryBatches() != null
+                ? options.getCommitEveryBatches() : migrationProperties.getCommitEveryBatches();
+        if (commitEveryBatches < 1) {
+            throw new IllegalArgumentException("每个事务包含的批次数必须大于0: " + commitEveryBatches);
+        }
 
-            for (int i = 0; i < batchCount; i++) {
-                int offset = i * BATCH_SIZE;
-                log.info("处理第 {}/{} 批，offset={}", (i + 1), batchCount, offset);
+        MigrationProperties.Batch batchConfig = migrationProperties.getBatch().copy();
+        if (options.getBatchSize() != null) {
+            batchConfig.setSize(options.getBatchSize());
+        }
+        if (options.getAdaptiveBatch() != null) {
+            batchConfig.setAdaptive(options.getAdaptiveBatch());
+        }
+        if (batchConfig.getSize() < 1) {
+            throw new IllegalArgumentException("批量大小必须大于0: " + batchConfig.getSize());
+        }
 
-                try {
-                    // 查询一批数据
-                    List<TestCaseInfo> batchData = testCaseInfoMapper.selectByPage(offset, BATCH_SIZE);
+        log.info("================== 开始数据迁移 [{}] ==================", jobName);
+        log.info("写入方式: {}，每 {} 批提交一次", sinkMode, commitEveryBatches);
+        log.info("批量大小: {}，{}", batchConfig.getSize(), batchConfig.isAdaptive()
+                ? String.format("按目标耗时 %dms 在 [%d, %d] 之间自适应调整",
+                                batchConfig.getTargetLatencyMillis(), batchConfig.getMinSize(), batchConfig.getMaxSize())
+                : "固定不变");
+        ReaderMode readerMode = options.getReaderMode() != null
+                ? options.getReaderMode() : migrationProperties.getReader().getMode();
+        Function<IdRange, SourceReader<S>> readers = readerFactory(job, readerMode, workers);
+        log.info("读取方式: {}", readerMode);
+        warnIfPoolTooSmall(workers, commitEveryBatches);
+
+        // 创建错误日志文件，后台线程异步写入
+        String runId = resumePoint.isEmpty() ? newRunId(jobName) : resumePoint.get(0).getRunId();
+        ErrorLogWriter errorLog = errorLogFactory.open(runId);
+        FailedIdStore failedIds = new FailedIdStore(migrationProperties.getFailures().getMemoryLimit());
+        publishFailedIds(jobName, failedIds);
+        MigrationContext context = null;
+        int partitionCount = 0;
 
-                    if (batchData == null || batchData.isEmpty()) {
-                        log.warn("第 {} 批数据为空，跳过", (i + 1));
-                        continue;
+        try {
+            // 1. 查询总记录数（仅用于估算进度，批次数以读到空页为准）
+            JobSource<S> source = job.source();
+            long estimatedTotal = source.estimateCount();
+            log.info("[{}] 待迁移总记录数(预估): {}", jobName, estimatedTotal);
+
+            List<IdRange> ranges;
+            if (resumePoint.isEmpty()) {
+                // 2. 按主键空间切分区间
+                context = new MigrationContext(jobName, runId, errorLog, failedIds, estimatedTotal, sinkMode,
+                                               commitEveryBatches, batchConfig);
+                Integer minId = source.minId();
+                Integer maxId = source.maxId();
+                if (minId == null || maxId == null) {
+                    log.warn("[{}] 源表无数据，迁移结束", jobName);
+                    return buildResult(context, 0);
+                }
+                if (options.getStartAfterId() != null) {
+                    if (maxId <= options.getStartAfterId()) {
+                        log.info("[{}] 没有主键大于 {} 的记录，迁移结束", jobName, options.getStartAfterId());
+                        return buildResult(context, 0);
                     }
+                    minId = Math.max(minId, options.getStartAfterId() + 1);
+                }
+                Integer endId = options.getEndId();
+                if (endId != null) {
+                    if (minId > endId) {
+                        log.info("[{}] 主键范围 [{}, {}] 内没有记录，迁移结束", jobName, minId, endId);
+                        return buildResult(context, 0);
+                    }
+                    maxId = Math.min(maxId, endId);
+                }
 
-                    // 处理这批数据
-                    processBatch(batchData, successCount, failedCount, failedIds, errorLogPath);
-
-                    // 打印进度
-                    long currentProgress = successCount.get() + failedCount.get();
-                    double percentage = (double) currentProgress / total * 100;
-                    log.info("进度: {}/{} ({:.2f}%), 成功: {}, 失败: {}",
-                             currentProgress, total, percentage, successCount.get(), failedCount.get());
-
-                } catch (Exception e) {
-                    log.error("处理第 {} 批数据时发生异常，继续下一批", (i + 1), e);
-                    writeErrorLog(errorLogPath, String.format("批次 %d 处理异常: %s", (i + 1), e.getMessage()));
+                ranges = IdRange.split(minId, maxId, workers);
+                if (endId != null) {
+                    // 指定了终点时最后一个分区也不越过终点
+                    IdRange last = ranges.get(ranges.size() - 1);
+                    ranges.set(ranges.size() - 1, new IdRange(last.getIndex(), last.getStartAfterId(), endId));
                 }
+                checkpointStore.createRun(context.getRunId(), jobName, ranges, sinkMode.name());
+                log.info("迁移 {}: 主键范围 [{}, {}]，切分为 {} 个分区并行处理",
+                         context.getRunId(), minId, maxId, ranges.size());
+            } else {
+                // 2. 从检查点恢复未完成的分区
+                context = new MigrationContext(jobName, runId, errorLog, failedIds, estimatedTotal, sinkMode,
+                                               commitEveryBatches, batchConfig);
+                ranges = new ArrayList<>();
+                for (PartitionCheckpoint checkpoint : resumePoint) {
+                    if (!checkpoint.isFinished()) {
+                        ranges.add(checkpoint.remainingRange());
+                    }
+                }
+                log.info("从检查点继续迁移 {}: 剩余 {} 个未完成分区 {}", context.getRunId(), ranges.size(), ranges);
+            }
+            partitionCount = ranges.size();
+
+            // 3. 每个分区由独立的工作线程按主键游标分批读取，直到读到空页
+            runningContexts.put(jobName, context);
+            migrationMetrics.bind(context);
+            try {
+                runPartitions(job, readers, sinks, ranges, context);
+            } finally {
+                migrationMetrics.unbind(context);
             }
 
         } catch (Exception e) {
-            log.error("数据迁移过程中发生严重异常", e);
-            writeErrorLog(errorLogPath, "严重异常: " + e.getMessage());
+            log.error("[{}] 数据迁移过程中发生严重异常", jobName, e);
+            errorLog.append(ErrorLogEntry.message("严重异常: " + e.getMessage()));
+        } finally {
+            // 写出剩余的错误日志并刷盘
+            errorLog.close();
+        }
+
+        if (context == null) {
+            context = new MigrationContext(jobName, runId, errorLog, failedIds, 0, sinkMode, commitEveryBatches,
+                                           batchConfig);
         }
 
-        // 3. 打印最终统计
-        long endTime = System.currentTimeMillis();
-        long duration = (endTime - startTime) / 1000;
+        // 4. 打印最终统计
+        long duration = (System.currentTimeMillis() - context.getStartTime()) / 1000;
 
-        log.info("================== 数据迁移完成 ==================");
-        log.info("总记录数: {}", totalCount.get());
-        log.info("成功迁移: {}", successCount.get());
-        log.info("失败记录: {}", failedCount.get());
+        if (context.getControl().isCancelled()) {
+            log.info("================== 数据迁移已取消 [{}] ==================", jobName);
+            log.info("各分区检查点位置: {}，可通过 /resume 继续", context.getResumePositions());
+        } else {
+            log.info("================== 数据迁移完成 [{}] ==================", jobName);
+        }
+        log.info("总记录数: {}", context.getTotalCount().get());
+        log.info("成功迁移: {}", context.getSuccessCount().get());
+        log.info("失败记录: {}", context.getFailedCount().get());
         log.info("耗时: {} 秒", duration);
-        log.info("错误日志文件: {}", errorLogPath);
+        log.info("错误日志文件: {}", errorLog.getPath());
         log.info("================================================");
 
-        return buildResult(totalCount.get(), successCount.get(), failedCount.get(),
-                         failedIds, startTime, errorLogPath);
+        return buildResult(context, partitionCount);
+    }
+
+    /**
+     * 确定写入方式：显式指定 > 恢复的检查点 > 配置默认值
+     */
+    private SinkMode resolveSinkMode(MigrationOptions options, List<PartitionCheckpoint> resumePoint) {
+        if (options.getSinkMode() != null) {
+            return options.getSinkMode();
+        }
+        if (!resumePoint.isEmpty()) {
+            return SinkMode.from(resumePoint.get(0).getSinkMode());
+        }
+        return migrationProperties.getSink();
     }
 
     /**
-     * 处理一批数据
-     * 策略：优先使用批量插入，失败时降级到单条处理
+     * test_case_info 迁移的实时进度
      *
-     * @param batchData 批次数据
-     * @param successCount 成功计数器
-     * @param failedCount 失败计数器
-     * @param failedIds 失败ID列表
-     * @param errorLogPath 错误日志文件路径
-     */
-    private void processBatch(List<TestCaseInfo> batchData,
-                             AtomicLong successCount,
-                             AtomicLong failedCount,
-                             List<Integer> failedIds,
-                             String errorLogPath) {
-        try {
-            // 尝试批量处理（推荐模式，性能高）
-            log.debug("尝试批量处理 {} 条记录", batchData.size());
-            migrateBatch(batchData);
+     * @return 当前进度，没有正在运行的迁移时返回null
+     */
+    public MigrationProgress getCurrentProgress() {
+        return getCurrentProgress(TestCaseMigrationJob.NAME);
+    }
 
-            // 批量成功，更新成功计数
-            successCount.addAndGet(batchData.size());
-            log.debug("批量处理成功，共 {} 条记录", batchData.size());
+    /**
+     * 指定任务的实时进度
+     *
+     * @param jobName 迁移任务名
+     * @return 当前进度，该任务没有在运行时返回null
+     */
+    public MigrationProgress getCurrentProgress(String jobName) {
+        MigrationContext context = runningContexts.get(jobName);
+        return context == null ? null : context.progress();
+    }
 
-        } catch (Exception batchException) {
-            // 批量处理失败，降级到单条处理
-            log.warn("批量处理失败: {}，降级到单条处理模式", batchException.getMessage());
-            writeErrorLog(errorLogPath, "批量处理失败，降级到单条模式: " + batchException.getMessage());
+    /**
+     * 所有正在运行的任务的实时进度
+     *
+     * @return 按任务名排列的进度
+     */
+    public Map<String, MigrationProgress> getRunningProgress() {
+        Map<String, MigrationProgress> progress = new TreeMap<>();
+        runningContexts.forEach((jobName, context) -> progress.put(jobName, context.progress()));
+        return progress;
+    }
 
-            // 逐条处理
-            processBatchOneByOne(batchData, successCount, failedCount, failedIds, errorLogPath);
-        }
+    /**
+     * @param jobName 迁移任务名
+     * @return 该任务是否正在运行
+     */
+    public boolean isRunning(String jobName) {
+        return runningJobs.contains(jobName);
     }
 
     /**
-     * 逐条处理批次数据（降级模式）
-     * 当批量处理失败时使用，确保每条记录独立处理
+     * 暂停正在运行的迁移
+     * 各分区提交已经读出的批次后停止读取，不持有事务和数据库连接，直到恢复或取消
      *
-     * @param batchData 批次数据
-     * @param successCount 成功计数器
-     * @param failedCount 失败计数器
-     * @param failedIds 失败ID列表
-     * @param errorLogPath 错误日志文件路径
-     */
-    private void processBatchOneByOne(List<TestCaseInfo> batchData,
-                                     AtomicLong successCount,
-                                     AtomicLong failedCount,
-                                     List<Integer> failedIds,
-                                     String errorLogPath) {
-        for (TestCaseInfo info : batchData) {
-            try {
-                // 处理单条记录（带事务）
-                migrateOneRecord(info);
-                successCount.incrementAndGet();
+     * @param jobName 迁移任务名
+     * @return 暂停请求后的进度，含各分区的检查点位置
+     * @throws IllegalStateException 该任务没有在迁移数据，或已经暂停、已取消
+     */
+    public MigrationProgress pause(String jobName) {
+        MigrationContext context = requireRunning(jobName);
+        context.getControl().pause();
+        log.info("[{}] 请求暂停迁移，各分区提交读出的批次后停止读取", jobName);
+        return context.progress();
+    }
 
-            } catch (Exception e) {
-                // 记录失败
-                failedCount.incrementAndGet();
-                failedIds.add(info.getId());
-
-                // 写入错误日志
-                String errorMsg = String.format("ID=%d 迁移失败: %s, title=%s",
-                                              info.getId(), e.getMessage(), info.getTitle());
-                log.error(errorMsg);
-                writeErrorLog(errorLogPath, errorMsg);
-            }
-        }
+    /**
+     * 恢复暂停的迁移，各分区从检查点位置继续读取
+     *
+     * @param jobName 迁移任务名
+     * @return 恢复后的进度
+     * @throws IllegalStateException 该任务没有在迁移数据，或没有暂停、已取消
+     */
+    public MigrationProgress unpause(String jobName) {
+        MigrationContext context = requireRunning(jobName);
+        context.getControl().resume();
+        log.info("[{}] 恢复暂停的迁移", jobName);
+        return context.progress();
     }
 
     /**
-     * 批量迁移记录（推荐模式）
-     * 使用MyBatis XML的批量插入功能，性能高
-     * 整个批次使用一个事务，要么全部成功，要么全部失败
+     * 取消正在运行或暂停的迁移
+     * 各分区提交已经读出的批次后退出，迁移保持未完成状态，之后可以通过 /resume 从检查点继续
      *
-     * @param batchData 批次数据
-     * @throws Exception 处理失败时抛出异常
+     * @param jobName 迁移任务名
+     * @return 取消请求后的进度，含各分区的检查点位置
+     * @throws IllegalStateException 该任务没有在迁移数据，或已经在取消中
+     */
+    public MigrationProgress cancel(String jobName) {
+        MigrationContext context = requireRunning(jobName);
+        context.getControl().cancel();
+        log.info("[{}] 请求取消迁移，各分区提交读出的批次后退出", jobName);
+        return context.progress();
+    }
+
+    /**
+     * @param jobName 迁移任务名
+     * @return 该任务是否正在运行且已请求暂停
      */
-    @Transactional(rollbackFor = Exception.class)
-    public void migrateBatch(List<TestCaseInfo> batchData) throws Exception {
-        if (batchData == null || batchData.isEmpty()) {
-            return;
+    public boolean isPaused(String jobName) {
+        MigrationContext context = runningContexts.get(jobName);
+        if (context == null) {
+            return false;
         }
+        RunState state = context.getControl().state();
+        return state == RunState.PAUSING || state == RunState.PAUSED;
+    }
 
-        // 1. 准备所有的 TestCasePool 对象
-        List<TestCasePool> poolList = new ArrayList<>(batchData.size());
-        for (TestCaseInfo info : batchData) {
-            TestCasePool pool = new TestCasePool();
-            pool.setTitle(info.getTitle());
-            pool.setMenuId(info.getSuit());
-            poolList.add(pool);
+    private MigrationContext requireRunning(String jobName) {
+        MigrationContext context = runningContexts.get(jobName);
+        if (context == null) {
+            throw new IllegalStateException("迁移任务 " + jobName + " 没有在迁移数据");
         }
+        return context;
+    }
+
+    /**
+     * test_case_info 最近一次（或正在运行的）迁移的失败ID
+     *
+     * @return 失败ID存储，尚未执行过迁移时为null
+     */
+    public FailedIdStore getLatestFailedIds() {
+        return getLatestFailedIds(TestCaseMigrationJob.NAME);
+    }
 
-        // 2. 批量插入 test_case_pool（使用XML批量插入）
-        int insertedPoolCount = testCasePoolMapper.batchInsert(poolList);
-        if (insertedPoolCount != poolList.size()) {
-            throw new RuntimeException(String.format(
-                "批量插入test_case_pool失败，期望插入%d条，实际插入%d条",
-                poolList.size(), insertedPoolCount));
+    /**
+     * 指定任务最近一次（或正在运行的）迁移的失败ID
+     *
+     * @param jobName 迁移任务名
+     * @return 失败ID存储，该任务尚未执行过迁移时为null
+     */
+    public FailedIdStore getLatestFailedIds(String jobName) {
+        return latestFailedIds.get(jobName);
+    }
+
+    /**
+     * 发布任务新一次迁移的失败ID存储，并释放该任务上一次迁移的临时文件
+     */
+    private void publishFailedIds(String jobName, FailedIdStore failedIds) {
+        FailedIdStore previous = latestFailedIds.put(jobName, failedIds);
+        if (previous != null) {
+            previous.close();
         }
+    }
 
-        log.debug("批量插入 test_case_pool 成功，共 {} 条记录", insertedPoolCount);
+    /**
+     * 检查 test_case_info 是否存在可以从检查点继续的未完成迁移
+     *
+     * @return 存在未完成的迁移时返回true
+     */
+    public boolean hasResumableRun() {
+        return hasResumableRun(TestCaseMigrationJob.NAME);
+    }
 
-        // 3. 准备所有的 TestCaseStep 对象
-        List<TestCaseStep> allSteps = new ArrayList<>();
-        for (int i = 0; i < batchData.size(); i++) {
-            TestCaseInfo info = batchData.get(i);
-            TestCasePool pool = poolList.get(i);
+    /**
+     * 检查指定任务是否存在可以从检查点继续的未完成迁移
+     *
+     * @param jobName 迁移任务名
+     * @return 存在未完成的迁移时返回true
+     */
+    public boolean hasResumableRun(String jobName) {
+        return !checkpointStore.findLatestUnfinishedRun(jobName).isEmpty();
+    }
 
-            // 获取新插入的pool的ID
-            Integer newPoolId = pool.getId();
-            if (newPoolId == null) {
-                throw new RuntimeException(String.format(
-                    "获取test_case_pool的ID失败，原记录ID=%d", info.getId()));
-            }
+    /**
+     * 生成迁移运行ID，同一任务内按时间排序，不同任务同时启动时也不会重复
+     */
+    private static String newRunId(String jobName) {
+        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS")) + "_" + jobName;
+    }
 
-            // 解析step JSON字符串
-            String stepJson = info.getStep();
-            if (stepJson != null && !stepJson.trim().isEmpty()) {
-                try {
-                    // 解析JSON数组
-                    List<Map<String, String>> steps = objectMapper.readValue(
-                        stepJson,
-                        new TypeReference<List<Map<String, String>>>() {}
-                    );
-
-                    // 构建TestCaseStep对象
-                    if (steps != null && !steps.isEmpty()) {
-                        for (Map<String, String> stepMap : steps) {
-                            TestCaseStep step = new TestCaseStep();
-                            step.setName(stepMap.get("name"));
-                            step.setResult(stepMap.get("result"));
-                            step.setCaseId(newPoolId);
-                            allSteps.add(step);
-                        }
-                    }
-                } catch (Exception e) {
-                    // JSON解析失败，抛出异常回滚整个批次
-                    throw new RuntimeException(String.format(
-                        "ID=%d 的step字段JSON解析失败: %s, step=%s",
-                        info.getId(), e.getMessage(), stepJson), e);
-                }
-            }
+    /**
+     * 按读取方式创建各分区的读取器
+     * cursor 方式下每个分区的读取器在整个分区迁移期间占用一个数据库访问许可，
+     * 分区数必须小于许可数，否则写入事务拿不到许可
+     *
+     * @param job 迁移任务
+     * @param readerMode 读取方式
+     * @param workers 分区数
+     * @return 按主键区间创建读取器的函数
+     * @throws IllegalArgumentException 源表不支持流式读取，或分区数不小于数据库访问许可数
+     */
+    private <S> Function<IdRange, SourceReader<S>> readerFactory(MigrationJob<S, ?> job, ReaderMode readerMode,
+                                                                 int workers) {
+        if (readerMode == ReaderMode.KEYSET) {
+            return range -> KeysetSourceReader.forRange(job.source(), range);
         }
+        if (!(job.source() instanceof CursorJobSource<S> source)) {
+            throw new IllegalArgumentException("迁移任务 " + job.name() + " 的源表不支持 cursor 读取方式");
+        }
+        if (workers >= dbPermits.getTotal()) {
+            throw new IllegalArgumentException(String.format(
+                "cursor 读取方式下每个分区的读取器独占一个数据库访问许可，分区数 %d 必须小于许可数 %d",
+                workers, dbPermits.getTotal()));
+        }
+        long maxBatchBytes = migrationProperties.getReader().getMaxBatchBytes();
+        return range -> new CursorSourceReader<>(sqlSessionFactory, dbPermits, source, range, maxBatchBytes);
+    }
 
-        // 4. 批量插入 test_case_step（使用XML批量插入）
-        if (!allSteps.isEmpty()) {
-            int insertedStepCount = testCaseStepMapper.batchInsert(allSteps);
-            if (insertedStepCount != allSteps.size()) {
-                throw new RuntimeException(String.format(
-                    "批量插入test_case_step失败，期望插入%d条，实际插入%d条",
-                    allSteps.size(), insertedStepCount));
+    /**
+     * 并行迁移所有分区，等待全部完成
+     *
+     * @param job 迁移任务
+     * @param readers 按主键区间创建读取器的函数
+     * @param sinks 目标表写入顺序
+     * @param ranges 主键区间
+     * @param context 迁移上下文
+     */
+    private <S, T extends JobRecord> void runPartitions(MigrationJob<S, T> job,
+                                                        Function<IdRange, SourceReader<S>> readers,
+                                                        JobSinks<T> sinks, List<IdRange> ranges,
+                                                        MigrationContext context)
+            throws InterruptedException {
+        ExecutorService executor = migrationExecutors.newWorkerExecutor(ranges.size());
+        try {
+            List<Future<?>> futures = new ArrayList<>(ranges.size());
+            for (IdRange range : ranges) {
+                futures.add(executor.submit(() -> migratePartition(job, readers, sinks, range, context)));
             }
 
-            log.debug("批量插入 test_case_step 成功，共 {} 条记录", insertedStepCount);
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    log.error("分区 {} 执行异常", ranges.get(i), e.getCause());
+                    context.logError(String.format("分区 %s 执行异常: %s", ranges.get(i), e.getCause().getMessage()));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
         }
     }
 
     /**
-     * 迁移单条记录（降级模式）
-     * 将一条test_case_info记录转换并插入到test_case_pool和test_case_step表
-     * 使用事务保证数据一致性
+     * 迁移一个分区
+     * 在区间内分批读取，经 读取 → 转换 → 写入 流水线处理，直到读到空页，结束后关闭读取器
      *
-     * 注意：保留此方法用于批量失败时的降级处理
+     * 暂停或取消时读取阶段不再读取，流水线排空后提交剩余批次并关闭读取器（cursor 方式下归还连接），
+     * 此时已读出的记录都已提交，读取器的 lastId 就是检查点位置。恢复后从该位置创建新的读取器继续，
+     * 取消时分区不标记完成，之后可以通过 /resume 从检查点继续
      *
-     * @param info 源记录
-     * @throws Exception 处理失败时抛出异常
-     */
-    @Transactional(rollbackFor = Exception.class)
-    public void migrateOneRecord(TestCaseInfo info) throws Exception {
-        // 1. 数据校验
-        if (info == null || info.getId() == null) {
-            throw new IllegalArgumentException("记录或ID为空");
-        }
-
-        // 2. 插入test_case_pool
-        TestCasePool pool = new TestCasePool();
-        pool.setTitle(info.getTitle());
-        pool.setMenuId(info.getSuit());
+     * @param job 迁移任务
+     * @param readers 按主键区间创建读取器的函数
+     * @param sinks 目标表写入顺序
+     * @param range 主键区间
+     * @param context 迁移上下文
+     */
+    private <S, T extends JobRecord> void migratePartition(MigrationJob<S, T> job,
+                                                           Function<IdRange, SourceReader<S>> readers,
+                                                           JobSinks<T> sinks, IdRange range,
+                                                           MigrationContext context) {
+        log.info("[{}] 分区 {} 开始迁移", context.getJobName(), range);
+        RunControl control = context.getControl();
+        AdaptiveBatchSizer sizer = context.newBatchSizer(range.getIndex());
+        PartitionWriter<T> writer = jobBatchWriter.openPartition(
+                context.getRunId(), range.getIndex(), sinks, context.getCommitEveryBatches(),
+                (batch, outcome) -> onBatchCommitted(range, batch, outcome, context));
+        context.getResumePositions().put(range.getIndex(), range.getStartAfterId());
+        control.partitionStarted();
+
+        SourceReader<S> reader = readers.apply(range);
+        try {
+            while (true) {
+                SourceReader<S> current = reader;
+                AtomicBoolean stopped = new AtomicBoolean(false);
+                MigrationPipeline<S, TransformedBatch<T>> pipeline = new MigrationPipeline<>(
+                        context.getJobName() + "-partition-" + range.getIndex(),
+                        migrationProperties.getPipeline().getQueueCapacity(),
+                        context.getPipelineStats(),
+                        migrationExecutors.stageThreads());
+                pipeline.run(() -> {
+                                 if (control.shouldStop()) {
+                                     stopped.set(true);
+                                     return List.of();
+                                 }
+                                 return readBatch(job.source(), current, sizer.nextSize(), context);
+                             },
+                             batch -> transformBatch(job, batch),
+                             batch -> writeBatch(job, writer, sizer, batch));
+                writer.flush();
+                if (!stopped.get()) {
+                    checkpointStore.finish(context.getRunId(), range.getIndex());
+                    log.info("[{}] 分区 {} 数据已全部读取，最后ID={}", context.getJobName(), range, reader.getLastId());
+                    return;
+                }
 
-        int insertResult = testCasePoolMapper.insert(pool);
-        if (insertResult <= 0) {
-            throw new RuntimeException("插入test_case_pool失败");
+                int lastId = reader.getLastId();
+                reader.close();
+                log.info("[{}] 分区 {} 已停止读取，读出的批次已全部提交，检查点 lastId={}",
+                         context.getJobName(), range, lastId);
+                if (!control.awaitResume()) {
+                    log.info("[{}] 分区 {} 已取消，可通过 /resume 从 lastId={} 继续", context.getJobName(), range, lastId);
+                    return;
+                }
+                log.info("[{}] 分区 {} 恢复迁移，从 lastId={} 继续", context.getJobName(), range, lastId);
+                reader = readers.apply(new IdRange(range.getIndex(), lastId, range.getEndId()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("[{}] 分区 {} 等待恢复时被中断，读取位置 lastId={}", context.getJobName(), range, reader.getLastId());
+        } catch (Exception e) {
+            flushQuietly(range, writer);
+            log.error("[{}] 分区 {} 执行异常，读取位置 lastId={}，终止该分区，可通过 /resume 从检查点继续",
+                      context.getJobName(), range, reader.getLastId(), e);
+            context.logError(String.format("分区 %s 执行异常(lastId=%d): %s",
+                                           range, reader.getLastId(), e.getMessage()));
+        } finally {
+            // 流水线返回前已等待读取线程结束，这里关闭读取器不会与读取并发
+            reader.close();
+            control.partitionEnded();
         }
+    }
 
-        // 3. 获取新插入的pool的ID
-        Integer newPoolId = pool.getId();
-        if (newPoolId == null) {
-            throw new RuntimeException("获取新插入的test_case_pool的ID失败");
+    /**
+     * 读取阶段：读取下一批源数据并计入读取指标，超出吞吐预算（记录数或字节数）时等待
+     * 分页读取时每次查询获取一个数据库访问许可，流式读取器自己持有许可
+     */
+    private <S> List<S> readBatch(JobSource<S> source, SourceReader<S> reader, int batchSize,
+                                  MigrationContext context) {
+        long begin = System.nanoTime();
+        List<S> batch;
+        if (reader.holdsConnection()) {
+            batch = reader.nextBatch(batchSize);
+        } else {
+            dbPermits.acquire();
+            try {
+                batch = reader.nextBatch(batchSize);
+            } finally {
+                dbPermits.release();
+            }
+        }
+        if (!batch.isEmpty()) {
+            migrationMetrics.record(MigrationPhase.READ, System.nanoTime() - begin);
+            migrationMetrics.rowsRead(batch.size());
+            context.getReadCount().addAndGet(batch.size());
+            long bytes = 0;
+            if (throughputBudget.limitsBytes()) {
+                for (S row : batch) {
+                    bytes += source.sizeOf(row);
+                }
+            }
+            throughputBudget.acquire(batch.size(), bytes);
         }
+        return batch;
+    }
 
-        // 4. 解析step JSON字符串并插入test_case_step
-        String stepJson = info.getStep();
-        if (stepJson != null && !stepJson.trim().isEmpty()) {
+    /**
+     * 转换阶段：逐行转换一批源数据并计入转换耗时
+     * 单条记录转换失败不影响同批其他记录，失败记录放入批次的 failures 中
+     */
+    private <S, T extends JobRecord> TransformedBatch<T> transformBatch(MigrationJob<S, T> job, List<S> rows) {
+        long begin = System.nanoTime();
+        JobSource<S> source = job.source();
+        RowTransformer<S, T> transformer = job.transformer();
+        TransformedBatch<T> transformed = new TransformedBatch<>(new ArrayList<>(rows.size()),
+                                                                 source.idOf(rows.get(rows.size() - 1)));
+        for (S row : rows) {
             try {
-                // 解析JSON数组
-                List<Map<String, String>> steps = objectMapper.readValue(
-                    stepJson,
-                    new TypeReference<List<Map<String, String>>>() {}
-                );
-
-                // 插入步骤
-                if (steps != null && !steps.isEmpty()) {
-                    for (Map<String, String> stepMap : steps) {
-                        TestCaseStep step = new TestCaseStep();
-                        step.setName(stepMap.get("name"));
-                        step.setResult(stepMap.get("result"));
-                        step.setCaseId(newPoolId);
-
-                        testCaseStepMapper.insert(step);
-                    }
-                }
+                transformed.getRecords().add(transformer.transform(row));
             } catch (Exception e) {
-                // JSON解析失败，抛出异常回滚
-                log.warn("ID={} 的step字段JSON解析失败: {}, step={}",
-                        info.getId(), e.getMessage(), stepJson);
-                throw new RuntimeException("JSON解析失败: " + e.getMessage(), e);
+                transformed.getFailures().add(new TransformedBatch.Failure(source.idOf(row), source.labelOf(row),
+                                                                           e.getMessage()));
             }
         }
+        migrationMetrics.record(MigrationPhase.PARSE, System.nanoTime() - begin);
+        return transformed;
+    }
+
+    /**
+     * 写入阶段：写入一个批次，并把耗时反馈给批量大小控制器
+     */
+    private <T extends JobRecord> void writeBatch(MigrationJob<?, T> job, PartitionWriter<T> writer,
+                                                  AdaptiveBatchSizer sizer, TransformedBatch<T> batch) {
+        long begin = System.nanoTime();
+        writer.write(batch);
+        sizer.onBatchWritten(batch.sourceCount(), job.payloadBytes(batch.getRecords()), System.nanoTime() - begin);
+    }
 
-        log.debug("成功迁移记录: id={}, title={}, 新pool_id={}",
-                 info.getId(), info.getTitle(), newPoolId);
+    /**
+     * 分区异常退出时提交已经写入的批次，这些批次本身是完整的
+     */
+    private void flushQuietly(IdRange range, PartitionWriter<?> writer) {
+        try {
+            writer.flush();
+        } catch (Exception e) {
+            log.warn("分区 {} 提交剩余批次失败: {}", range, e.getMessage());
+        }
     }
 
     /**
-     * 初始化错误日志文件
-     * 创建带时间戳的日志文件
+     * 批次所在事务提交后更新统计并打印进度
      *
-     * @return 日志文件路径
-     */
-    private String initErrorLogFile() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String filename = "migration_error_" + timestamp + ".log";
-
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
-            writer.write("数据迁移错误日志\n");
-            writer.write("开始时间: " + LocalDateTime.now() + "\n");
-            writer.write("===========================================\n\n");
-        } catch (IOException e) {
-            log.error("创建错误日志文件失败", e);
-            return ERROR_LOG_FILE;
+     * @param range 所属分区
+     * @param batch 转换后的批次
+     * @param outcome 写入结果
+     * @param context 迁移上下文
+     */
+    private void onBatchCommitted(IdRange range, TransformedBatch<?> batch, BatchOutcome outcome,
+                                  MigrationContext context) {
+        log.info("[{}] 分区 {} 提交批次，{} 条记录，lastId={}",
+                 context.getJobName(), range.getIndex(), batch.sourceCount(), batch.getLastSourceId());
+        context.getResumePositions().put(range.getIndex(), batch.getLastSourceId());
+
+        context.getTotalCount().addAndGet(batch.sourceCount());
+        context.getSuccessCount().addAndGet(outcome.getSucceeded());
+        context.getStepCount().addAndGet(outcome.getSucceededChildRows());
+        migrationMetrics.committed(outcome.getSucceeded(),
+                                   batch.getFailures().size() + outcome.getFailures().size(),
+                                   outcome.getSucceededChildRows());
+        if (outcome.getFallbackReason() != null) {
+            context.logError("批量处理失败，二分拆分定位失败记录: " + outcome.getFallbackReason());
+        }
+        for (TransformedBatch.Failure failure : batch.getFailures()) {
+            recordFailure(failure, context);
+        }
+        for (TransformedBatch.Failure failure : outcome.getFailures()) {
+            recordFailure(failure, context);
         }
 
-        return filename;
+        // 打印进度
+        long currentProgress = context.getSuccessCount().get() + context.getFailedCount().get();
+        long estimatedTotal = context.getEstimatedTotal();
+        double percentage = estimatedTotal > 0 ? (double) currentProgress / estimatedTotal * 100 : 100;
+        log.info("[{}] 进度: {}/{} ({}%), 成功: {}, 失败: {}",
+                 context.getJobName(), currentProgress, estimatedTotal, String.format("%.2f", percentage),
+                 context.getSuccessCount().get(), context.getFailedCount().get());
     }
 
     /**
-     * 写入错误日志
-     * 线程安全的日志写入方法
+     * 工作线程数超过数据库访问许可数时给出提示
+     * 平台线程模式下多出的工作线程只会阻塞等待，不会提高吞吐；
+     * 分组提交时每个分区的写入事务跨批次持有许可，分区数不小于许可数时读取可能等不到许可而超时
      *
-     * @param logPath 日志文件路径
-     * @param message 错误信息
-     */
-    private synchronized void writeErrorLog(String logPath, String message) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(logPath, true))) {
-            writer.write(String.format("[%s] %s\n",
-                        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                        message));
-        } catch (IOException e) {
-            log.error("写入错误日志失败: {}", message, e);
+     * @param workers 工作线程数
+     * @param commitEveryBatches 每个事务包含的批次数
+     */
+    private void warnIfPoolTooSmall(int workers, int commitEveryBatches) {
+        int permits = dbPermits.getTotal();
+        if (commitEveryBatches > 1 && workers >= permits) {
+            log.warn("分组提交时分区数 {} 不应小于数据库访问许可数 {}，写入事务会占满许可导致读取等待超时，建议减少分区数或设置 commitEvery=1",
+                     workers, permits);
+        } else if (migrationExecutors.getMode() == ThreadMode.PLATFORM && workers > permits) {
+            log.warn("工作线程数 {} 超过数据库访问许可数 {}，多出的线程将等待许可", workers, permits);
         }
     }
 
+    /**
+     * 记录一条迁移失败的源记录并写入错误日志
+     *
+     * @param failure 失败的源记录
+     * @param context 迁移上下文
+     */
+    private void recordFailure(TransformedBatch.Failure failure, MigrationContext context) {
+        context.recordFailure(failure.getSourceId());
+
+        log.error("ID={} 迁移失败: {}, title={}", failure.getSourceId(), failure.getMessage(), failure.getLabel());
+        context.getErrorLog().append(ErrorLogEntry.record(failure.getSourceId(), failure.getLabel(),
+                                                          failure.getMessage()));
+    }
+
     /**
      * 构建迁移结果对象
      *
-     * @param total 总记录数
-     * @param success 成功数
-     * @param failed 失败数
-     * @param failedIds 失败ID列表
-     * @param startTime 开始时间
-     * @param errorLogPath 错误日志路径
+     * @param context 迁移上下文
+     * @param partitionCount 实际分区数
      * @return 迁移结果
      */
-    private MigrationResult buildResult(long total, long success, long failed,
-                                       List<Integer> failedIds, long startTime,
-                                       String errorLogPath) {
+    private MigrationResult buildResult(MigrationContext context, int partitionCount) {
         MigrationResult result = new MigrationResult();
-        result.setTotalCount(total);
-        result.setSuccessCount(success);
-        result.setFailedCount(failed);
-        result.setFailedIds(failedIds);
-        result.setDurationSeconds((System.currentTimeMillis() - startTime) / 1000);
-        result.setErrorLogPath(errorLogPath);
+        result.setJobName(context.getJobName());
+        result.setTotalCount(context.getTotalCount().get());
+        result.setSuccessCount(context.getSuccessCount().get());
+        result.setFailedCount(context.getFailedCount().get());
+        result.setStepCount(context.getStepCount().get());
+        result.setFailedIds(context.getFailedIds());
+        result.setFailedIdsSpilled(context.getFailedIds().isSpilled());
+        result.setRunId(context.getRunId());
+        result.setPartitionCount(partitionCount);
+        result.setSinkMode(context.getSinkMode());
+        result.setCommitEveryBatches(context.getCommitEveryBatches());
+        result.setStageStats(context.getPipelineStats().snapshot());
+        result.setBatchSizes(context.batchSizeSnapshots());
+        result.setDurationSeconds((System.currentTimeMillis() - context.getStartTime()) / 1000);
+        result.setErrorLogPath(context.getErrorLog().getPath().toString());
+        if (context.getControl().isCancelled()) {
+            result.setCancelled(true);
+            result.setResumePositions(new TreeMap<>(context.getResumePositions()));
+        }
         return result;
     }
 
@@ -433,6 +823,12 @@ public class DataMigrationService {
      */
     @lombok.Data
     public static class MigrationResult {
+        /** 迁移任务名 */
+        private String jobName;
+
+        /** 迁移运行ID，用于从检查点继续 */
+        private String runId;
+
         /** 总记录数 */
         private long totalCount;
 
@@ -442,13 +838,41 @@ public class DataMigrationService {
         /** 失败数 */
         private long failedCount;
 
-        /** 失败的ID列表 */
-        private List<Integer> failedIds;
+        /** 写入的子表行数（测试用例迁移中为步骤数） */
+        private long stepCount;
+
+        /** 失败的ID，数量可能很大，不随结果序列化，通过 /api/migration/failures 分页查询 */
+        @JsonIgnore
+        private FailedIdStore failedIds;
+
+        /** 失败ID是否已超过内存上限写入临时文件 */
+        private boolean failedIdsSpilled;
+
+        /** 并行分区数 */
+        private int partitionCount;
+
+        /** 目标表写入方式 */
+        private SinkMode sinkMode;
+
+        /** 每个事务包含的批次数 */
+        private int commitEveryBatches;
+
+        /** 各分区的批量大小统计及调整过程 */
+        private List<BatchSizeSnapshot> batchSizes;
+
+        /** 流水线各阶段忙碌/空闲耗时，用于定位瓶颈阶段 */
+        private Map<String, PipelineStats.StageSnapshot> stageStats;
 
         /** 耗时（秒） */
         private long durationSeconds;
 
         /** 错误日志文件路径 */
         private String errorLogPath;
+
+        /** 是否被取消，取消的迁移可以通过 /resume 从检查点继续 */
+        private boolean cancelled;
+
+        /** 取消时各分区已提交的最后一条源记录ID，key为分区序号 */
+        private Map<Integer, Integer> resumePositions;
     }
 }
@@ -0,0 +1,174 @@
+package com.example.datamigration.service;
+
+import com.example.datamigration.config.MigrationProperties;
+import com.example.datamigration.service.batch.AdaptiveBatchSizer;
+import com.example.datamigration.service.batch.BatchSizeSnapshot;
+import com.example.datamigration.service.errorlog.ErrorLogEntry;
+import com.example.datamigration.service.errorlog.ErrorLogWriter;
+import com.example.datamigration.service.execution.RunControl;
+import com.example.datamigration.service.failure.FailedIdStore;
+import com.example.datamigration.service.metrics.MigrationMetrics;
+import com.example.datamigration.service.metrics.MigrationProgress;
+import com.example.datamigration.service.pipeline.PipelineStats;
+import com.example.datamigration.service.sink.SinkMode;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单次迁移运行的上下文
+ * 汇总所有工作线程的统计信息，各字段均可被多个工作线程并发更新
+ */
+@Getter
+public class MigrationContext implements MigrationMetrics.ProgressSource {
+
+    /** 迁移任务名 */
+    private final String jobName;
+
+    /** 迁移运行ID，检查点按此ID记录 */
+    private final String runId;
+
+    /** 开始时间 */
+    private final long startTime = System.currentTimeMillis();
+
+    /** 错误日志 */
+    private final ErrorLogWriter errorLog;
+
+    /** 预估总记录数，仅用于打印进度 */
+    private final long estimatedTotal;
+
+    /** 已提交批次包含的源记录数 */
+    private final AtomicLong totalCount = new AtomicLong(0);
+
+    /** 读取阶段已读出的源记录数，领先于 totalCount */
+    private final AtomicLong readCount = new AtomicLong(0);
+
+    /** 已提交的子表行数（测试用例迁移中为步骤数） */
+    private final AtomicLong stepCount = new AtomicLong(0);
+
+    /** 成功迁移数 */
+    private final AtomicLong successCount = new AtomicLong(0);
+
+    /** 失败数 */
+    private final AtomicLong failedCount = new AtomicLong(0);
+
+    /** 失败的ID */
+    private final FailedIdStore failedIds;
+
+    /** 流水线各阶段耗时统计 */
+    private final PipelineStats pipelineStats = new PipelineStats();
+
+    /** 目标表写入方式 */
+    private final SinkMode sinkMode;
+
+    /** 每个事务包含的批次数 */
+    private final int commitEveryBatches;
+
+    /** 本次迁移的批量大小配置 */
+    private final MigrationProperties.Batch batchConfig;
+
+    /** 各分区的批量大小控制器 */
+    private final Map<Integer, AdaptiveBatchSizer> batchSizers = new ConcurrentSkipListMap<>();
+
+    /** 暂停、恢复和取消控制 */
+    private final RunControl control = new RunControl();
+
+    /** 各分区已提交的最后一条源记录ID，即从检查点继续时的起点，key为分区序号 */
+    private final Map<Integer, Integer> resumePositions = new ConcurrentSkipListMap<>();
+
+    public MigrationContext(String jobName, String runId, ErrorLogWriter errorLog, FailedIdStore failedIds,
+                            long estimatedTotal, SinkMode sinkMode, int commitEveryBatches,
+                            MigrationProperties.Batch batchConfig) {
+        this.jobName = jobName;
+        this.runId = runId;
+        this.batchConfig = batchConfig;
+        this.failedIds = failedIds;
+        this.commitEveryBatches = commitEveryBatches;
+        this.errorLog = errorLog;
+        this.estimatedTotal = estimatedTotal;
+        this.sinkMode = sinkMode;
+    }
+
+    /**
+     * 记录一条失败的源记录
+     *
+     * @param sourceId 源记录ID
+     */
+    public void recordFailure(int sourceId) {
+        failedCount.incrementAndGet();
+        failedIds.add(sourceId);
+    }
+
+    /**
+     * 为分区创建批量大小控制器
+     *
+     * @param partitionNo 分区序号
+     * @return 控制器
+     */
+    public AdaptiveBatchSizer newBatchSizer(int partitionNo) {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(batchConfig);
+        batchSizers.put(partitionNo, sizer);
+        return sizer;
+    }
+
+    /**
+     * @return 各分区的批量大小统计，按分区序号排列
+     */
+    public List<BatchSizeSnapshot> batchSizeSnapshots() {
+        List<BatchSizeSnapshot> snapshots = new ArrayList<>(batchSizers.size());
+        batchSizers.forEach((partitionNo, sizer) -> snapshots.add(sizer.snapshot(partitionNo)));
+        return snapshots;
+    }
+
+    /**
+     * 写入一条与单条记录无关的错误日志
+     *
+     * @param message 错误信息
+     */
+    public void logError(String message) {
+        errorLog.append(ErrorLogEntry.message(message));
+    }
+
+    /**
+     * 生成实时进度快照
+     *
+     * @return 当前进度
+     */
+    @Override
+    public MigrationProgress progress() {
+        double elapsed = Math.max(System.currentTimeMillis() - startTime, 1) / 1000.0;
+        long written = successCount.get();
+        long processed = written + failedCount.get();
+
+        MigrationProgress progress = new MigrationProgress();
+        progress.setJobName(jobName);
+        progress.setRunId(runId);
+        progress.setElapsedSeconds(elapsed);
+        progress.setEstimatedTotal(estimatedTotal);
+        progress.setRowsRead(readCount.get());
+        progress.setRowsWritten(written);
+        progress.setRowsFailed(failedCount.get());
+        progress.setStepsWritten(stepCount.get());
+        progress.setRowsReadPerSecond(readCount.get() / elapsed);
+        progress.setRowsWrittenPerSecond(written / elapsed);
+        progress.setStepsWrittenPerSecond(stepCount.get() / elapsed);
+        progress.setPercentage(estimatedTotal > 0 ? Math.min(100.0, processed * 100.0 / estimatedTotal) : 0);
+        if (processed > 0) {
+            long remaining = Math.max(estimatedTotal - processed, 0);
+            progress.setEtaSeconds(Math.round(remaining / (processed / elapsed)));
+        }
+        progress.setQueueDepths(pipelineStats.queueDepths());
+        Map<Integer, Integer> batchSizes = new LinkedHashMap<>();
+        batchSizers.forEach((partitionNo, sizer) -> batchSizes.put(partitionNo, sizer.nextSize()));
+        progress.setBatchSizes(batchSizes);
+        progress.setStageStats(pipelineStats.snapshot());
+        progress.setState(control.state());
+        progress.setResumePositions(new LinkedHashMap<>(resumePositions));
+        return progress;
+    }
+}
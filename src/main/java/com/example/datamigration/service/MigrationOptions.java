@@ -0,0 +1,40 @@
+package com.example.datamigration.service;
+
+import com.example.datamigration.service.reader.ReaderMode;
+import com.example.datamigration.service.sink.SinkMode;
+import lombok.Data;
+
+/**
+ * 单次迁移的运行参数
+ * 未设置的参数使用 migration 配置中的默认值
+ */
+@Data
+public class MigrationOptions {
+
+    /** 并行工作线程数 */
+    private int workers = 1;
+
+    /** 目标表写入方式，为null时使用配置的默认值（继续迁移时沿用原写入方式） */
+    private SinkMode sinkMode;
+
+    /** 源表读取方式，为null时使用配置的默认值 */
+    private ReaderMode readerMode;
+
+    /** 每批记录数（自适应时为初始值），为null时使用配置的默认值 */
+    private Integer batchSize;
+
+    /** 是否自适应调整批量大小，为null时使用配置的默认值 */
+    private Boolean adaptiveBatch;
+
+    /** 每个事务包含的批次数，为null时使用配置的默认值 */
+    private Integer commitEveryBatches;
+
+    /** 只迁移主键大于该值的源记录，为null时迁移全表；继续迁移时忽略 */
+    private Integer startAfterId;
+
+    /** 只迁移主键不大于该值的源记录，为null时不设上界；继续迁移时忽略 */
+    private Integer endId;
+
+    /** 是否从最近一次未完成迁移的检查点继续，继续时分区数沿用原迁移 */
+    private boolean resume;
+}
@@ -0,0 +1,182 @@
+package com.example.datamigration.service.batch;
+
+import com.example.datamigration.config.MigrationProperties;
+import com.example.datamigration.entity.TestCaseStep;
+import com.example.datamigration.service.transform.MigrationRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个分区的批量大小控制器（AIMD：加性增、乘性减）
+ *
+ * 每个批次写入后根据耗时调整下一批的大小：低于目标耗时时增加 additiveStep 条，
+ * 超过目标耗时时乘以 decreaseFactor。同时按已观察到的每条记录的平均字节数，
+ * 把批次限制在 maxPacketBytes 以内，避免步骤很多的用例拼出超过 max_allowed_packet 的SQL。
+ *
+ * 读取阶段领先写入阶段若干批，调整在已排队的批次之后才生效。
+ * nextSize() 由读取线程调用，onBatchWritten() 由写入线程调用
+ */
+public class AdaptiveBatchSizer {
+
+    /** 调整历史最多保留的条数 */
+    private static final int MAX_HISTORY = 100;
+
+    /** 每条记录平均字节数的指数平滑系数 */
+    private static final double BYTES_SMOOTHING = 0.3;
+
+    /** 估算SQL长度时每行的固定开销（括号、逗号、引号、外键等） */
+    private static final int ROW_OVERHEAD_BYTES = 32;
+
+    private final boolean adaptive;
+
+    private final int minSize;
+
+    private final int maxSize;
+
+    private final int additiveStep;
+
+    private final double decreaseFactor;
+
+    private final long targetLatencyNanos;
+
+    private final long maxPacketBytes;
+
+    private volatile int size;
+
+    private double bytesPerRow;
+
+    private long batches;
+
+    private long totalRows;
+
+    private int smallest;
+
+    private int largest;
+
+    private final List<Integer> history = new ArrayList<>();
+
+    /**
+     * @param config 批量配置
+     */
+    public AdaptiveBatchSizer(MigrationProperties.Batch config) {
+        if (config.getSize() < 1 || config.getMinSize() < 1 || config.getMinSize() > config.getMaxSize()) {
+            throw new IllegalArgumentException(String.format("批量大小配置不合法: size=%d, min=%d, max=%d",
+                                                             config.getSize(), config.getMinSize(), config.getMaxSize()));
+        }
+        this.adaptive = config.isAdaptive();
+        this.minSize = config.getMinSize();
+        this.maxSize = config.getMaxSize();
+        this.additiveStep = config.getAdditiveStep();
+        this.decreaseFactor = config.getDecreaseFactor();
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(config.getTargetLatencyMillis());
+        this.maxPacketBytes = config.getMaxPacketBytes();
+        this.size = adaptive ? Math.max(minSize, Math.min(maxSize, config.getSize())) : config.getSize();
+        this.smallest = size;
+        this.largest = size;
+        this.history.add(size);
+    }
+
+    /**
+     * @return 下一批读取的记录数
+     */
+    public int nextSize() {
+        return size;
+    }
+
+    /**
+     * 一个批次写入完成后反馈耗时，调整后续批次的大小
+     *
+     * @param rows 批次的源记录数
+     * @param payloadBytes 批次写入的估算字节数，见 {@link #payloadBytes(List)}
+     * @param latencyNanos 写入（含检查点，分组提交时不一定含提交）耗时
+     */
+    public synchronized void onBatchWritten(int rows, long payloadBytes, long latencyNanos) {
+        if (rows <= 0) {
+            return;
+        }
+        batches++;
+        totalRows += rows;
+        smallest = Math.min(smallest, rows);
+        largest = Math.max(largest, rows);
+        if (!adaptive) {
+            return;
+        }
+
+        double rowBytes = (double) payloadBytes / rows;
+        bytesPerRow = bytesPerRow == 0 ? rowBytes : bytesPerRow + BYTES_SMOOTHING * (rowBytes - bytesPerRow);
+
+        int next = latencyNanos > targetLatencyNanos
+                ? Math.max(minSize, (int) (size * decreaseFactor))
+                : Math.min(maxSize, size + additiveStep);
+
+        // SQL包大小上限优先于最小批量
+        if (bytesPerRow > 0) {
+            next = (int) Math.max(1, Math.min(next, (long) (maxPacketBytes / bytesPerRow)));
+        }
+
+        if (next != size) {
+            size = next;
+            if (history.size() < MAX_HISTORY) {
+                history.add(next);
+            }
+        }
+    }
+
+    /**
+     * 生成统计快照
+     *
+     * @param partitionNo 分区序号
+     * @return 批量大小统计
+     */
+    public synchronized BatchSizeSnapshot snapshot(int partitionNo) {
+        BatchSizeSnapshot snapshot = new BatchSizeSnapshot();
+        snapshot.setPartitionNo(partitionNo);
+        snapshot.setAdaptive(adaptive);
+        snapshot.setBatches(batches);
+        snapshot.setCurrentSize(size);
+        snapshot.setMinSize(smallest);
+        snapshot.setMaxSize(largest);
+        snapshot.setAvgSize(batches > 0 ? (double) totalRows / batches : 0);
+        snapshot.setAvgRowBytes(bytesPerRow);
+        snapshot.setHistory(new ArrayList<>(history));
+        return snapshot;
+    }
+
+    /**
+     * 估算一批记录写入时的SQL字节数，test_case_pool 与 test_case_step 两条语句合计
+     *
+     * @param records 转换完成的记录
+     * @return 估算字节数
+     */
+    public static long payloadBytes(List<MigrationRecord> records) {
+        long bytes = 0;
+        for (MigrationRecord record : records) {
+            bytes += ROW_OVERHEAD_BYTES + utf8Length(record.getPool().getTitle());
+            for (TestCaseStep step : record.getSteps()) {
+                bytes += ROW_OVERHEAD_BYTES + utf8Length(step.getName()) + utf8Length(step.getResult());
+            }
+        }
+        return bytes;
+    }
+
+    private static int utf8Length(String value) {
+        if (value == null) {
+            return 4;
+        }
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800 || Character.isSurrogate(c)) {
+                // 代理对的两个char合计4字节
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.datamigration.service.batch;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 单个分区的批量大小统计
+ */
+@Data
+public class BatchSizeSnapshot {
+
+    /** 分区序号 */
+    private int partitionNo;
+
+    /** 是否自适应调整 */
+    private boolean adaptive;
+
+    /** 已写入的批次数 */
+    private long batches;
+
+    /** 当前（下一批）批量大小 */
+    private int currentSize;
+
+    /** 实际写入的最小批次 */
+    private int minSize;
+
+    /** 实际写入的最大批次 */
+    private int maxSize;
+
+    /** 平均批次大小 */
+    private double avgSize;
+
+    /** 每条记录（含步骤）的平均估算字节数 */
+    private double avgRowBytes;
+
+    /** 批量大小的调整过程，从初始值开始，每次变化记录一次，最多100条 */
+    private List<Integer> history;
+}
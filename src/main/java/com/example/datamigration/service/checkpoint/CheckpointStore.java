@@ -0,0 +1,180 @@
+package com.example.datamigration.service.checkpoint;
+
+import com.example.datamigration.service.reader.IdRange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 迁移检查点存储
+ *
+ * 检查点保存在目标库的 migration_checkpoint 表中，每次迁移的每个分区一行，按迁移任务名区分。
+ * save() 使用调用线程当前的事务，与同一批次的目标表写入一起提交，
+ * 因此检查点位置之前的记录一定已经提交，位置之后的记录一定没有提交，
+ * 进程中途退出后从检查点继续不会产生重复数据
+ */
+@Slf4j
+@Component
+public class CheckpointStore {
+
+    /**
+     * 引入多任务之前创建的检查点都属于 test_case_info 的迁移
+     */
+    private static final String LEGACY_JOB_NAME = "test-case";
+
+    private static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS migration_checkpoint (" +
+        "  run_id         VARCHAR(64) NOT NULL," +
+        "  job_name       VARCHAR(64) NOT NULL DEFAULT '" + LEGACY_JOB_NAME + "'," +
+        "  partition_no   INT         NOT NULL," +
+        "  start_after_id INT         NOT NULL," +
+        "  end_id         INT         NULL," +
+        "  last_id        INT         NOT NULL," +
+        "  finished       TINYINT     NOT NULL DEFAULT 0," +
+        "  sink_mode      VARCHAR(32) NOT NULL," +
+        "  updated_at     TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP," +
+        "  PRIMARY KEY (run_id, partition_no)" +
+        ")";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile boolean tableReady;
+
+    /**
+     * 登记一次新的迁移及其分区
+     *
+     * @param runId 迁移运行ID
+     * @param jobName 迁移任务名
+     * @param ranges 分区
+     * @param sinkMode 写入方式
+     */
+    public void createRun(String runId, String jobName, List<IdRange> ranges, String sinkMode) {
+        ensureTable();
+        for (IdRange range : ranges) {
+            jdbcTemplate.update(
+                "INSERT INTO migration_checkpoint " +
+                "(run_id, job_name, partition_no, start_after_id, end_id, last_id, finished, sink_mode) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 0, ?)",
+                runId, jobName, range.getIndex(), range.getStartAfterId(), range.getEndId(), range.getStartAfterId(),
+                sinkMode);
+        }
+    }
+
+    /**
+     * 推进分区检查点
+     * 必须在写入该批次的同一事务中调用
+     *
+     * @param runId 迁移运行ID
+     * @param partitionNo 分区序号
+     * @param lastId 本批已提交的最后一条源记录ID
+     */
+    public void save(String runId, int partitionNo, int lastId) {
+        int updated = jdbcTemplate.update(
+            "UPDATE migration_checkpoint SET last_id = ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE run_id = ? AND partition_no = ?",
+            lastId, runId, partitionNo);
+        if (updated != 1) {
+            throw new IllegalStateException(String.format("检查点不存在: run=%s, partition=%d", runId, partitionNo));
+        }
+    }
+
+    /**
+     * 标记分区迁移完成
+     *
+     * @param runId 迁移运行ID
+     * @param partitionNo 分区序号
+     */
+    public void finish(String runId, int partitionNo) {
+        jdbcTemplate.update(
+            "UPDATE migration_checkpoint SET finished = 1, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE run_id = ? AND partition_no = ?",
+            runId, partitionNo);
+    }
+
+    /**
+     * 查找某个迁移任务最近一次未完成的迁移
+     *
+     * @param jobName 迁移任务名
+     * @return 该次迁移所有分区的检查点，按分区序号排列；没有未完成的迁移时返回空列表
+     */
+    public List<PartitionCheckpoint> findLatestUnfinishedRun(String jobName) {
+        ensureTable();
+        List<String> runIds = jdbcTemplate.queryForList(
+            "SELECT run_id FROM migration_checkpoint WHERE job_name = ? AND finished = 0 ORDER BY run_id DESC LIMIT 1",
+            String.class, jobName);
+        if (runIds.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(
+            "SELECT run_id, partition_no, start_after_id, end_id, last_id, finished, sink_mode " +
+            "FROM migration_checkpoint WHERE run_id = ? ORDER BY partition_no",
+            new BeanPropertyRowMapper<>(PartitionCheckpoint.class), runIds.get(0));
+    }
+
+    /**
+     * 查找某个迁移任务最近一次全部分区都已完成的迁移
+     *
+     * @param jobName 迁移任务名
+     * @return 迁移运行ID，没有时为null
+     */
+    public String findLatestFinishedRunId(String jobName) {
+        ensureTable();
+        List<String> runIds = jdbcTemplate.queryForList(
+            "SELECT run_id FROM migration_checkpoint WHERE job_name = ? " +
+            "GROUP BY run_id HAVING MIN(finished) = 1 ORDER BY run_id DESC LIMIT 1",
+            String.class, jobName);
+        return runIds.isEmpty() ? null : runIds.get(0);
+    }
+
+    /**
+     * @param runId 迁移运行ID
+     * @return 该次迁移是否已登记且全部分区都已完成
+     */
+    public boolean isFinished(String runId) {
+        ensureTable();
+        Integer unfinished = jdbcTemplate.queryForObject(
+            "SELECT SUM(1 - finished) FROM migration_checkpoint WHERE run_id = ?", Integer.class, runId);
+        return unfinished != null && unfinished == 0;
+    }
+
+    /**
+     * 该次迁移已提交的最大源记录ID
+     * 全部分区完成后即为迁移覆盖到的最大ID（最后一个分区不设上界）
+     *
+     * @param runId 迁移运行ID
+     * @return 最大ID，迁移未登记时为null
+     */
+    public Integer findMaxLastId(String runId) {
+        ensureTable();
+        return jdbcTemplate.queryForObject(
+            "SELECT MAX(last_id) FROM migration_checkpoint WHERE run_id = ?", Integer.class, runId);
+    }
+
+    private void ensureTable() {
+        if (!tableReady) {
+            jdbcTemplate.execute(CREATE_TABLE_SQL);
+            addJobNameColumnIfMissing();
+            tableReady = true;
+        }
+    }
+
+    /**
+     * 旧版本创建的检查点表没有 job_name 列，补上后原有检查点归属 test-case 任务
+     */
+    private void addJobNameColumnIfMissing() {
+        try {
+            jdbcTemplate.queryForList("SELECT job_name FROM migration_checkpoint WHERE 1 = 0");
+        } catch (BadSqlGrammarException e) {
+            log.info("检查点表缺少 job_name 列，自动添加");
+            jdbcTemplate.execute("ALTER TABLE migration_checkpoint ADD COLUMN job_name VARCHAR(64) NOT NULL DEFAULT '"
+                                 + LEGACY_JOB_NAME + "'");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.datamigration.service.checkpoint;
+
+import com.example.datamigration.service.reader.IdRange;
+import lombok.Data;
+
+/**
+ * 分区检查点
+ * 记录某次迁移中一个分区已提交的最后一条源记录ID
+ */
+@Data
+public class PartitionCheckpoint {
+
+    /** 迁移运行ID */
+    private String runId;
+
+    /** 分区序号 */
+    private int partitionNo;
+
+    /** 分区起点（不包含） */
+    private int startAfterId;
+
+    /** 分区终点（包含），为null表示不设上界 */
+    private Integer endId;
+
+    /** 已提交的最后一条源记录ID */
+    private int lastId;
+
+    /** 分区是否已迁移完成 */
+    private boolean finished;
+
+    /** 写入方式 */
+    private String sinkMode;
+
+    /**
+     * 该分区剩余待迁移的区间
+     *
+     * @return 从已提交位置之后到分区终点的区间
+     */
+    public IdRange remainingRange() {
+        return new IdRange(partitionNo, lastId, endId);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.datamigration.service.errorlog;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一条错误日志
+ * sourceId 为null时表示与单条记录无关的错误（批次、分区或整个迁移）
+ */
+@Value
+public class ErrorLogEntry {
+
+    /** 发生时间 */
+    LocalDateTime time;
+
+    /** 失败的源记录ID */
+    Integer sourceId;
+
+    /** 失败的源记录标题 */
+    String title;
+
+    /** 错误信息 */
+    String message;
+
+    /**
+     * 单条记录迁移失败
+     */
+    public static ErrorLogEntry record(Integer sourceId, String title, String message) {
+        return new ErrorLogEntry(LocalDateTime.now(), sourceId, title, message);
+    }
+
+    /**
+     * 与单条记录无关的错误
+     */
+    public static ErrorLogEntry message(String message) {
+        return new ErrorLogEntry(LocalDateTime.now(), null, null, message);
+    }
+}
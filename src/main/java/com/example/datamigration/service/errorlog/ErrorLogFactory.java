@@ -0,0 +1,59 @@
+package com.example.datamigration.service.errorlog;
+
+import com.example.datamigration.config.MigrationProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * 按配置为每次迁移创建错误日志文件
+ */
+@Slf4j
+@Component
+public class ErrorLogFactory {
+
+    /**
+     * 按运行ID命名的日志文件无法创建时使用的固定文件
+     */
+    private static final String FALLBACK_FILE = "migration_error_log";
+
+    @Autowired
+    private MigrationProperties migrationProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 创建本次迁移的错误日志
+     * 文件名为 migration_error_运行ID.log（文本格式）或 .jsonl（JSON格式），
+     * 从检查点继续的迁移沿用原运行ID，追加到同一个文件
+     *
+     * @param runId 迁移运行ID
+     * @return 已启动的日志写入器，迁移结束时需要关闭
+     */
+    public ErrorLogWriter open(String runId) {
+        MigrationProperties.ErrorLog config = migrationProperties.getErrorLog();
+        ErrorLogFormat format = config.getFormat();
+
+        try {
+            return open(Path.of("migration_error_" + runId + format.getFileSuffix()), runId, config);
+        } catch (IOException e) {
+            log.error("创建错误日志文件失败", e);
+        }
+        try {
+            return open(Path.of(FALLBACK_FILE + format.getFileSuffix()), runId, config);
+        } catch (IOException e) {
+            throw new UncheckedIOException("创建错误日志文件失败", e);
+        }
+    }
+
+    private ErrorLogWriter open(Path path, String runId, MigrationProperties.ErrorLog config) throws IOException {
+        return ErrorLogWriter.open(path, config.getFormat(), runId, objectMapper,
+                                   config.getBufferBytes(), config.getFlushIntervalMillis());
+    }
+}
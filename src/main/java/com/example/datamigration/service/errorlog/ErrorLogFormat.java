@@ -0,0 +1,48 @@
+package com.example.datamigration.service.errorlog;
+
+import java.util.Locale;
+
+/**
+ * 错误日志格式
+ */
+public enum ErrorLogFormat {
+
+    /**
+     * 文本格式，每行 [时间] 信息，便于人工查看
+     */
+    TEXT(".log"),
+
+    /**
+     * JSON Lines 格式，每行一个JSON对象，失败记录带 sourceId 字段，便于工具重新加载失败ID
+     */
+    JSON(".jsonl");
+
+    private final String fileSuffix;
+
+    ErrorLogFormat(String fileSuffix) {
+        this.fileSuffix = fileSuffix;
+    }
+
+    public String getFileSuffix() {
+        return fileSuffix;
+    }
+
+    /**
+     * 解析日志格式，忽略大小写，jsonl 等同于 json
+     *
+     * @param value 格式名称
+     * @return 日志格式
+     * @throws IllegalArgumentException 名称不合法
+     */
+    public static ErrorLogFormat from(String value) {
+        String name = value.trim().toUpperCase(Locale.ROOT);
+        if ("JSONL".equals(name)) {
+            return JSON;
+        }
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支持的错误日志格式: " + value);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.datamigration.service.errorlog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步错误日志写入器，一次迁移使用一个实例
+ *
+ * 工作线程调用 append() 只把日志放入无锁队列，不做任何IO；
+ * 后台线程从队列取出日志编码后写入缓冲区，缓冲区达到 bufferBytes 或距上次写出超过 flushInterval 时
+ * 通过 FileChannel 一次写出。close() 会写出剩余日志并刷盘，迁移结束时必须调用
+ */
+@Slf4j
+public class ErrorLogWriter implements AutoCloseable {
+
+    private static final DateTimeFormatter TEXT_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Path path;
+
+    private final ErrorLogFormat format;
+
+    private final String runId;
+
+    private final ObjectMapper objectMapper;
+
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer;
+
+    private final long flushIntervalNanos;
+
+    private final Queue<ErrorLogEntry> queue = new ConcurrentLinkedQueue<>();
+
+    private final Thread flusher;
+
+    /** 后台线程已处理的日志条数，关闭后即为写入文件的总条数 */
+    private final AtomicLong written = new AtomicLong(0);
+
+    private volatile boolean closed;
+
+    private long lastFlushNanos = System.nanoTime();
+
+    private ErrorLogWriter(Path path, ErrorLogFormat format, String runId, ObjectMapper objectMapper,
+                           FileChannel channel, int bufferBytes, long flushIntervalMillis) {
+        this.path = path;
+        this.format = format;
+        this.runId = runId;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferBytes);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.flusher = new Thread(this::drainLoop, "migration-error-log");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * 创建日志文件并启动后台写入线程
+     *
+     * @param path 日志文件路径，已存在时追加
+     * @param format 日志格式
+     * @param runId 迁移运行ID，写入每条JSON日志
+     * @param objectMapper JSON序列化
+     * @param bufferBytes 写缓冲区大小，缓冲区写满时立即写出
+     * @param flushIntervalMillis 缓冲区未满时的最长写出间隔
+     * @return 日志写入器
+     * @throws IOException 文件无法创建或写入
+     */
+    public static ErrorLogWriter open(Path path, ErrorLogFormat format, String runId, ObjectMapper objectMapper,
+                                      int bufferBytes, long flushIntervalMillis) throws IOException {
+        if (bufferBytes < 1 || flushIntervalMillis < 1) {
+            throw new IllegalArgumentException("错误日志缓冲区大小和写出间隔必须大于0");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                               StandardOpenOption.APPEND);
+        ErrorLogWriter writer = new ErrorLogWriter(path, format, runId, objectMapper, channel,
+                                                   bufferBytes, flushIntervalMillis);
+        if (format == ErrorLogFormat.TEXT) {
+            writer.writeFully(ByteBuffer.wrap(("数据迁移错误日志\n" +
+                                               "迁移运行ID: " + runId + "\n" +
+                                               "开始时间: " + LocalDateTime.now() + "\n" +
+                                               "===========================================\n\n")
+                                                  .getBytes(StandardCharsets.UTF_8)));
+        }
+        writer.flusher.start();
+        return writer;
+    }
+
+    /**
+     * 追加一条日志，不阻塞调用线程
+     *
+     * @param entry 日志
+     */
+    public void append(ErrorLogEntry entry) {
+        if (closed) {
+            log.warn("错误日志已关闭，丢弃: {}", entry.getMessage());
+            return;
+        }
+        queue.offer(entry);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public ErrorLogFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * @return 后台线程已处理的日志条数
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * 写出队列中剩余的日志并刷盘，等待后台线程退出
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            log.error("关闭错误日志文件失败: {}", path, e);
+        }
+    }
+
+    private void drainLoop() {
+        while (true) {
+            ErrorLogEntry entry = queue.poll();
+            if (entry != null) {
+                buffer(encode(entry));
+                written.incrementAndGet();
+                if (System.nanoTime() - lastFlushNanos >= flushIntervalNanos) {
+                    flushBuffer();
+                }
+                continue;
+            }
+
+            // 队列已空：关闭时写出剩余内容后退出，否则等到写出间隔再检查
+            if (closed) {
+                flushBuffer();
+                return;
+            }
+            long waitNanos = flushIntervalNanos - (System.nanoTime() - lastFlushNanos);
+            if (waitNanos <= 0) {
+                flushBuffer();
+                waitNanos = flushIntervalNanos;
+            }
+            LockSupport.parkNanos(this, waitNanos);
+        }
+    }
+
+    private void buffer(byte[] bytes) {
+        if (bytes.length > buffer.remaining()) {
+            flushBuffer();
+        }
+        if (bytes.length > buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(bytes));
+            return;
+        }
+        buffer.put(bytes);
+    }
+
+    private void flushBuffer() {
+        lastFlushNanos = System.nanoTime();
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) {
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            log.error("写入错误日志失败: {}", path, e);
+        }
+    }
+
+    private byte[] encode(ErrorLogEntry entry) {
+        if (format == ErrorLogFormat.JSON) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("time", entry.getTime().toString());
+            json.put("runId", runId);
+            json.put("sourceId", entry.getSourceId());
+            json.put("title", entry.getTitle());
+            json.put("message", entry.getMessage());
+            try {
+                byte[] line = objectMapper.writeValueAsBytes(json);
+                byte[] result = new byte[line.length + 1];
+                System.arraycopy(line, 0, result, 0, line.length);
+                result[line.length] = '\n';
+                return result;
+            } catch (JsonProcessingException e) {
+                log.error("序列化错误日志失败: {}", entry.getMessage(), e);
+                return new byte[0];
+            }
+        }
+
+        String message = entry.getSourceId() == null
+                ? entry.getMessage()
+                : String.format("ID=%d 迁移失败: %s, title=%s", entry.getSourceId(), entry.getMessage(), entry.getTitle());
+        return String.format("[%s] %s\n", entry.getTime().format(TEXT_TIME), message).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.datamigration.service.execution;
+
+import com.example.datamigration.config.MigrationProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据库访问许可，限制同时访问数据库的读取查询和写入事务数量不超过连接池大小
+ *
+ * 虚拟线程可以创建很多，但连接只有 maximum-pool-size 个，多出的线程在这里排队，
+ * 而不是在连接池里排队直到 connection-timeout 后失败。全局共享，同时运行的多个迁移共用同一组许可。
+ * 等待时间与连接池的 connection-timeout 一致，超时抛出异常，不会无限等待
+ */
+@Slf4j
+@Component
+public class DbPermits {
+
+    private static final long DEFAULT_TIMEOUT_MILLIS = 30_000;
+
+    private static final int DEFAULT_PERMITS = 10;
+
+    private final Semaphore semaphore;
+
+    private final int total;
+
+    private final long timeoutMillis;
+
+    public DbPermits(MigrationProperties migrationProperties, DataSource dataSource) {
+        HikariDataSource hikari = dataSource instanceof HikariDataSource h ? h : null;
+        int configured = migrationProperties.getExecution().getDbPermits();
+        if (configured > 0) {
+            total = configured;
+        } else {
+            total = hikari != null ? hikari.getMaximumPoolSize() : DEFAULT_PERMITS;
+        }
+        timeoutMillis = hikari != null ? hikari.getConnectionTimeout() : DEFAULT_TIMEOUT_MILLIS;
+        semaphore = new Semaphore(total, true);
+        log.info("数据库访问许可数: {}，等待超时: {}ms", total, timeoutMillis);
+    }
+
+    /**
+     * 获取一个许可，使用完后必须调用 release()
+     *
+     * @throws IllegalStateException 等待超时或被中断
+     */
+    public void acquire() {
+        try {
+            if (!semaphore.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException(String.format(
+                    "等待数据库访问许可超时（%dms），%d 个许可均被占用", timeoutMillis, total));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待数据库访问许可被中断", e);
+        }
+    }
+
+    /**
+     * 归还一个许可
+     */
+    public void release() {
+        semaphore.release();
+    }
+
+    /**
+     * @return 许可总数
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return 当前可用的许可数
+     */
+    public int available() {
+        return semaphore.availablePermits();
+    }
+}
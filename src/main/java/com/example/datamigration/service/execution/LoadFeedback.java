@@ -0,0 +1,143 @@
+package com.example.datamigration.service.execution;
+
+import com.example.datamigration.config.MigrationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSetMetaData;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按数据库负载调整吞吐预算
+ *
+ * 定时执行 migration.throttle.probe-sql（如 Threads_running、复制延迟），负载值超过阈值时把速率减半，
+ * 不低于 min-factor；负载恢复后每次回升 recover-step，直到恢复配置的上限（加性增、乘性减）。
+ * 没有设置记录数上限时，第一次降速以前一个探测间隔内的实际速率为基准。
+ * 迁移空闲且没有降速时不执行探测
+ */
+@Slf4j
+@Component
+public class LoadFeedback {
+
+    @Autowired
+    private ThroughputBudget throughputBudget;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MigrationProperties migrationProperties;
+
+    private double factor = 1.0;
+
+    private long baselineRowsPerSecond;
+
+    private long lastRows;
+
+    private long lastNanos = System.nanoTime();
+
+    /**
+     * 最近一次探测得到的负载值，探测结果为NULL时为null
+     */
+    private volatile Double lastValue;
+
+    private volatile LocalDateTime lastProbeTime;
+
+    private volatile String lastError;
+
+    @Scheduled(fixedDelayString = "${migration.throttle.probe-interval-ms:5000}",
+               initialDelayString = "${migration.throttle.probe-interval-ms:5000}")
+    public void runScheduled() {
+        if (isEnabled()) {
+            probe();
+        }
+    }
+
+    /**
+     * 执行一次负载探测并调整速率比例
+     */
+    public synchronized void probe() {
+        MigrationProperties.Throttle config = migrationProperties.getThrottle();
+        long rows = throughputBudget.getAcquiredRows();
+        long now = System.nanoTime();
+        long observed = now > lastNanos ? (rows - lastRows) * TimeUnit.SECONDS.toNanos(1) / (now - lastNanos) : 0;
+        boolean idle = rows == lastRows;
+        lastRows = rows;
+        lastNanos = now;
+        if (idle && factor >= 1.0) {
+            return;
+        }
+
+        Double value;
+        try {
+            value = jdbcTemplate.query(config.getProbeSql(), rs -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                ResultSetMetaData meta = rs.getMetaData();
+                String text = config.getProbeColumn() != null
+                        ? rs.getString(config.getProbeColumn()) : rs.getString(meta.getColumnCount());
+                return text == null ? null : Double.valueOf(text.trim());
+            });
+        } catch (Exception e) {
+            // 探测失败时保持当前速率，不因为探测SQL写错把迁移降到最低速
+            log.warn("负载探测失败，保持当前速率: {}", e.getMessage());
+            lastError = e.getMessage();
+            return;
+        }
+        lastValue = value;
+        lastProbeTime = LocalDateTime.now();
+        lastError = null;
+
+        if (value == null || value > config.getProbeThreshold()) {
+            if (factor >= 1.0 && throughputBudget.getRowsPerSecond() <= 0) {
+                baselineRowsPerSecond = observed;
+            }
+            factor = Math.max(config.getMinFactor(), factor / 2);
+            log.warn("数据库负载 {} 超过阈值 {}，迁移速率降至 {}%", value, config.getProbeThreshold(),
+                     Math.round(factor * 100));
+        } else if (factor < 1.0) {
+            factor = Math.min(1.0, factor + config.getRecoverStep());
+            if (factor >= 1.0) {
+                baselineRowsPerSecond = 0;
+                log.info("数据库负载 {} 已恢复，迁移速率恢复到上限", value);
+            } else {
+                log.info("数据库负载 {} 低于阈值，迁移速率回升至 {}%", value, Math.round(factor * 100));
+            }
+        }
+        throughputBudget.setLoadFactor(factor, baselineRowsPerSecond);
+    }
+
+    /**
+     * @return 是否配置了负载探测
+     */
+    public boolean isEnabled() {
+        String sql = migrationProperties.getThrottle().getProbeSql();
+        return sql != null && !sql.isBlank();
+    }
+
+    /**
+     * @return 最近一次探测得到的负载值，结果为NULL或尚未探测时为null
+     */
+    public Double getLastValue() {
+        return lastValue;
+    }
+
+    /**
+     * @return 最近一次成功探测的时间
+     */
+    public LocalDateTime getLastProbeTime() {
+        return lastProbeTime;
+    }
+
+    /**
+     * @return 最近一次探测失败的原因，成功后清空
+     */
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.datamigration.service.execution;
+
+import com.example.datamigration.config.MigrationProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 迁移专用的线程和线程池
+ *
+ * 迁移任务运行数小时且大部分时间阻塞在JDBC上，不使用 ForkJoinPool.commonPool()，
+ * 避免与并行流等其他异步任务互相占用线程。
+ * 线程类型由 migration.execution.threads 决定，平台线程和虚拟线程的命名规则相同
+ */
+@Slf4j
+@Component
+public class MigrationExecutors {
+
+    private final ThreadMode mode;
+
+    /**
+     * 控制器提交的迁移任务
+     */
+    private final ExecutorService taskExecutor;
+
+    public MigrationExecutors(MigrationProperties migrationProperties) {
+        this.mode = migrationProperties.getExecution().getThreads();
+        this.taskExecutor = mode == ThreadMode.VIRTUAL
+                ? Executors.newThreadPerTaskExecutor(threadBuilder("migration-task-").factory())
+                : Executors.newCachedThreadPool(threadBuilder("migration-task-").factory());
+        log.info("迁移线程类型: {}", mode);
+    }
+
+    /**
+     * @return 线程类型
+     */
+    public ThreadMode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return 执行迁移任务的线程池，应用关闭时停止
+     */
+    public ExecutorService taskExecutor() {
+        return taskExecutor;
+    }
+
+    /**
+     * 创建一次迁移的分区工作线程池，由调用方负责关闭
+     *
+     * @param partitions 分区数
+     * @return 平台线程模式下为固定大小线程池，虚拟线程模式下每个分区一个虚拟线程
+     */
+    public ExecutorService newWorkerExecutor(int partitions) {
+        if (mode == ThreadMode.VIRTUAL) {
+            return Executors.newThreadPerTaskExecutor(threadBuilder("migration-worker-").factory());
+        }
+        return Executors.newFixedThreadPool(partitions, threadBuilder("migration-worker-").factory());
+    }
+
+    /**
+     * 流水线读取、转换阶段的线程
+     *
+     * @return 线程构造器，线程名由流水线设置
+     */
+    public Thread.Builder stageThreads() {
+        return mode == ThreadMode.VIRTUAL ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+    }
+
+    private Thread.Builder threadBuilder(String prefix) {
+        return mode == ThreadMode.VIRTUAL
+                ? Thread.ofVirtual().name(prefix, 0)
+                : Thread.ofPlatform().name(prefix, 0).daemon(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        taskExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.datamigration.service.execution;
+
+/**
+ * 一次迁移的暂停、恢复和取消控制
+ *
+ * 控制是协作式的：读取阶段在每批读取之前检查，需要停止时不再读取，
+ * 流水线中已经读出的批次照常转换、写入并提交，分区排空后在 awaitResume() 等待恢复或退出。
+ * 暂停期间分区不持有事务和数据库连接
+ */
+public class RunControl {
+
+    private boolean paused;
+
+    private boolean cancelled;
+
+    /**
+     * 尚未结束的分区数
+     */
+    private int livePartitions;
+
+    /**
+     * 已排空、正在等待恢复的分区数
+     */
+    private int waitingPartitions;
+
+    /**
+     * 请求暂停
+     *
+     * @throws IllegalStateException 已经暂停或已取消
+     */
+    public synchronized void pause() {
+        if (cancelled) {
+            throw new IllegalStateException("迁移已取消");
+        }
+        if (paused) {
+            throw new IllegalStateException("迁移已经暂停");
+        }
+        paused = true;
+    }
+
+    /**
+     * 恢复暂停的迁移
+     *
+     * @throws IllegalStateException 没有暂停或已取消
+     */
+    public synchronized void resume() {
+        if (cancelled) {
+            throw new IllegalStateException("迁移已取消");
+        }
+        if (!paused) {
+            throw new IllegalStateException("迁移没有暂停");
+        }
+        paused = false;
+        notifyAll();
+    }
+
+    /**
+     * 请求取消，暂停中的分区随即退出
+     *
+     * @throws IllegalStateException 已取消
+     */
+    public synchronized void cancel() {
+        if (cancelled) {
+            throw new IllegalStateException("迁移已经在取消中");
+        }
+        cancelled = true;
+        notifyAll();
+    }
+
+    /**
+     * @return 读取阶段是否应该停止读取
+     */
+    public synchronized boolean shouldStop() {
+        return paused || cancelled;
+    }
+
+    /**
+     * @return 是否已请求取消
+     */
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 已排空的分区等待恢复
+     *
+     * @return 恢复时返回true，已取消时返回false
+     * @throws InterruptedException 等待期间线程被中断
+     */
+    public synchronized boolean awaitResume() throws InterruptedException {
+        waitingPartitions++;
+        try {
+            while (paused && !cancelled) {
+                wait();
+            }
+            return !cancelled;
+        } finally {
+            waitingPartitions--;
+        }
+    }
+
+    /**
+     * 分区开始迁移时调用
+     */
+    public synchronized void partitionStarted() {
+        livePartitions++;
+    }
+
+    /**
+     * 分区完成、出错或取消退出时调用
+     */
+    public synchronized void partitionEnded() {
+        livePartitions--;
+    }
+
+    /**
+     * @return 当前的控制状态
+     */
+    public synchronized RunState state() {
+        if (cancelled) {
+            return RunState.CANCELLING;
+        }
+        if (paused) {
+            return waitingPartitions >= livePartitions ? RunState.PAUSED : RunState.PAUSING;
+        }
+        return RunState.RUNNING;
+    }
+}
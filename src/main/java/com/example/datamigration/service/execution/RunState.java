@@ -0,0 +1,27 @@
+package com.example.datamigration.service.execution;
+
+/**
+ * 正在运行的迁移的控制状态
+ */
+public enum RunState {
+
+    /**
+     * 正常迁移
+     */
+    RUNNING,
+
+    /**
+     * 已请求暂停，还有分区在提交读出的批次
+     */
+    PAUSING,
+
+    /**
+     * 所有未完成的分区都已提交读出的批次并停止读取，等待恢复
+     */
+    PAUSED,
+
+    /**
+     * 已请求取消，各分区提交读出的批次后退出
+     */
+    CANCELLING
+}
@@ -0,0 +1,18 @@
+package com.example.datamigration.service.execution;
+
+/**
+ * 迁移任务、分区工作线程和流水线阶段使用的线程类型
+ */
+public enum ThreadMode {
+
+    /**
+     * 平台线程，每个分区占用一个固定线程
+     */
+    PLATFORM,
+
+    /**
+     * 虚拟线程（Java 21），阻塞在JDBC调用上时不占用平台线程，
+     * 并发访问数据库的数量由 DbPermits 限制为连接池大小
+     */
+    VIRTUAL
+}
@@ -0,0 +1,177 @@
+package com.example.datamigration.service.execution;
+
+import com.example.datamigration.config.MigrationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 全局吞吐预算，所有同时运行的迁移任务共享同一个每秒读取记录数和字节数上限
+ *
+ * 按令牌桶计算：记录数和字节数各一个桶，容量为1秒的额度，空闲后可以先读出不超过1秒额度的数据。
+ * 读取阶段每读出一批就从两个桶中预约，额度不足时阻塞到两个桶都够用的时间，
+ * 读取被限速后流水线队列写满，转换和写入随之放慢。不限制时 acquire() 直接返回。
+ *
+ * 上限可以在运行期间调整，LoadFeedback 根据数据库负载再按比例降低实际速率
+ */
+@Slf4j
+@Component
+public class ThroughputBudget {
+
+    /**
+     * 桶容量，即允许的突发时长
+     */
+    private static final long BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private long rowsPerSecond;
+
+    private long bytesPerSecond;
+
+    /**
+     * 负载反馈给出的速率比例，1表示不降速
+     */
+    private double loadFactor = 1.0;
+
+    /**
+     * 未设置记录数上限时负载反馈按降速前的实际速率给出的基准，0表示没有
+     */
+    private long feedbackRowsPerSecond;
+
+    /**
+     * 两个桶各自的理论到达时间（System.nanoTime），比当前时间晚多少就表示桶中欠了多少额度
+     */
+    private long rowsTheoreticalNanos = System.nanoTime();
+
+    private long bytesTheoreticalNanos = System.nanoTime();
+
+    /**
+     * 累计预约的记录数，负载反馈据此估算实际速率
+     */
+    private long acquiredRows;
+
+    public ThroughputBudget(MigrationProperties migrationProperties) {
+        this.rowsPerSecond = Math.max(0, migrationProperties.getExecution().getRowsPerSecond());
+        this.bytesPerSecond = Math.max(0, migrationProperties.getExecution().getBytesPerSecond());
+        if (rowsPerSecond > 0 || bytesPerSecond > 0) {
+            log.info("迁移吞吐上限: {} 行/秒，{} 字节/秒", rowsPerSecond, bytesPerSecond);
+        }
+    }
+
+    /**
+     * 为一批记录预约吞吐，超出预算时阻塞到预约的时间
+     *
+     * @param rows 本批记录数
+     * @param bytes 本批记录的估算字节数，未限制字节数时可以传0
+     */
+    public void acquire(int rows, long bytes) {
+        if (rows <= 0) {
+            return;
+        }
+        long waitUntil;
+        synchronized (this) {
+            acquiredRows += rows;
+            long now = System.nanoTime();
+            waitUntil = now;
+            double rowsRate = effectiveRowsPerSecond();
+            if (rowsRate > 0) {
+                rowsTheoreticalNanos = Math.max(rowsTheoreticalNanos, now) + costNanos(rows, rowsRate);
+                waitUntil = Math.max(waitUntil, rowsTheoreticalNanos - BURST_NANOS);
+            }
+            double bytesRate = effectiveBytesPerSecond();
+            if (bytesRate > 0 && bytes > 0) {
+                bytesTheoreticalNanos = Math.max(bytesTheoreticalNanos, now) + costNanos(bytes, bytesRate);
+                waitUntil = Math.max(waitUntil, bytesTheoreticalNanos - BURST_NANOS);
+            }
+        }
+        long remaining;
+        while ((remaining = waitUntil - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    private static long costNanos(long amount, double perSecond) {
+        return (long) (amount * (TimeUnit.SECONDS.toNanos(1) / perSecond));
+    }
+
+    /**
+     * 调整上限，立即对之后的预约生效
+     *
+     * @param rows 每秒记录数上限，为null时不修改，不大于0表示不限制
+     * @param bytes 每秒字节数上限，为null时不修改，不大于0表示不限制
+     */
+    public synchronized void setLimits(Long rows, Long bytes) {
+        if (rows != null) {
+            rowsPerSecond = Math.max(0, rows);
+        }
+        if (bytes != null) {
+            bytesPerSecond = Math.max(0, bytes);
+        }
+        log.info("迁移吞吐上限调整为: {} 行/秒，{} 字节/秒", rowsPerSecond, bytesPerSecond);
+    }
+
+    /**
+     * 设置负载反馈的降速比例
+     *
+     * @param factor 速率比例，(0, 1]
+     * @param baselineRowsPerSecond 未设置记录数上限时按该速率降速，0表示没有基准
+     */
+    synchronized void setLoadFactor(double factor, long baselineRowsPerSecond) {
+        this.loadFactor = factor;
+        this.feedbackRowsPerSecond = baselineRowsPerSecond;
+    }
+
+    /**
+     * @return 实际生效的每秒记录数上限，0表示不限制
+     */
+    public synchronized double effectiveRowsPerSecond() {
+        long base = rowsPerSecond > 0 ? rowsPerSecond : feedbackRowsPerSecond;
+        return base > 0 ? base * loadFactor : 0;
+    }
+
+    /**
+     * @return 实际生效的每秒字节数上限，0表示不限制
+     */
+    public synchronized double effectiveBytesPerSecond() {
+        return bytesPerSecond > 0 ? bytesPerSecond * loadFactor : 0;
+    }
+
+    /**
+     * @return 是否限制字节数，不限制时读取阶段不必估算批次字节数
+     */
+    public synchronized boolean limitsBytes() {
+        return bytesPerSecond > 0;
+    }
+
+    /**
+     * @return 每秒记录数上限，不大于0表示不限制
+     */
+    public synchronized long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    /**
+     * @return 每秒字节数上限，不大于0表示不限制
+     */
+    public synchronized long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * @return 负载反馈给出的速率比例
+     */
+    public synchronized double getLoadFactor() {
+        return loadFactor;
+    }
+
+    /**
+     * @return 累计预约的记录数
+     */
+    synchronized long getAcquiredRows() {
+        return acquiredRows;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.datamigration.service.failure;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 失败源记录ID的存储，一次迁移使用一个实例
+ *
+ * ID按记录顺序存放在原始 int 数组中，不装箱；内存中的ID超过 memoryLimit 条时，
+ * 整块追加写入临时文件（每个ID 4字节）并清空数组，内存占用不随失败数增长。
+ * 分页读取时按记录顺序的偏移量定位，偏移量落在文件中的部分从文件读取。
+ *
+ * 所有方法线程安全；失败记录相对成功记录很少，直接使用对象锁
+ */
+@Slf4j
+public class FailedIdStore implements AutoCloseable {
+
+    private final int memoryLimit;
+
+    private int[] memory;
+
+    private int memoryCount;
+
+    /** 已写入文件的ID数 */
+    private long spilledCount;
+
+    /** 溢出文件，第一次溢出时创建 */
+    private Path spillFile;
+
+    private FileChannel spillChannel;
+
+    private boolean closed;
+
+    /**
+     * @param memoryLimit 内存中最多保存的ID数，超过时写入临时文件
+     */
+    public FailedIdStore(int memoryLimit) {
+        if (memoryLimit < 1) {
+            throw new IllegalArgumentException("失败ID内存上限必须大于0: " + memoryLimit);
+        }
+        this.memoryLimit = memoryLimit;
+        this.memory = new int[Math.min(memoryLimit, 1024)];
+    }
+
+    /**
+     * 记录一个失败的源记录ID
+     *
+     * @param sourceId 源记录ID
+     */
+    public synchronized void add(int sourceId) {
+        if (closed) {
+            return;
+        }
+        if (memoryCount == memory.length) {
+            if (memoryCount >= memoryLimit) {
+                spill();
+            } else {
+                memory = Arrays.copyOf(memory, Math.min(memoryLimit, memory.length * 2));
+            }
+        }
+        memory[memoryCount++] = sourceId;
+    }
+
+    /**
+     * @return 已记录的失败ID总数
+     */
+    public synchronized long size() {
+        return spilledCount + memoryCount;
+    }
+
+    /**
+     * @return 是否已有ID写入临时文件
+     */
+    public synchronized boolean isSpilled() {
+        return spilledCount > 0;
+    }
+
+    /**
+     * 按记录顺序分页读取
+     *
+     * @param cursor 起始偏移量，首页传0
+     * @param limit 每页最多返回的ID数
+     * @return 一页失败ID
+     */
+    public synchronized FailurePage page(long cursor, int limit) {
+        if (cursor < 0 || limit < 1) {
+            throw new IllegalArgumentException("cursor 不能小于0，limit 必须大于0");
+        }
+        if (closed) {
+            throw new IllegalStateException("失败ID存储已关闭");
+        }
+
+        long total = spilledCount + memoryCount;
+        long end = Math.min(total, cursor + limit);
+        int[] ids = new int[(int) Math.max(0, end - cursor)];
+        int filled = 0;
+
+        // 1. 偏移量在文件中的部分
+        if (cursor < spilledCount) {
+            int fromFile = (int) (Math.min(end, spilledCount) - cursor);
+            readSpilled(cursor, ids, fromFile);
+            filled = fromFile;
+        }
+
+        // 2. 偏移量在内存中的部分
+        if (filled < ids.length) {
+            int memoryFrom = (int) (cursor + filled - spilledCount);
+            System.arraycopy(memory, memoryFrom, ids, filled, ids.length - filled);
+        }
+
+        return new FailurePage(ids, cursor, end < total ? end : null, total);
+    }
+
+    /**
+     * 删除临时文件，关闭后不能再读取
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        memory = new int[0];
+        memoryCount = 0;
+        if (spillChannel != null) {
+            try {
+                spillChannel.close();
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                log.warn("删除失败ID临时文件失败: {}", spillFile, e);
+            }
+        }
+    }
+
+    private void spill() {
+        try {
+            if (spillChannel == null) {
+                spillFile = Files.createTempFile("migration-failed-ids-", ".bin");
+                spillFile.toFile().deleteOnExit();
+                spillChannel = FileChannel.open(spillFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                log.info("失败记录超过 {} 条，写入临时文件 {}", memoryLimit, spillFile);
+            }
+
+            ByteBuffer bytes = ByteBuffer.allocate(memoryCount * Integer.BYTES);
+            bytes.asIntBuffer().put(memory, 0, memoryCount);
+            long position = spilledCount * Integer.BYTES;
+            while (bytes.hasRemaining()) {
+                position += spillChannel.write(bytes, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入失败ID临时文件失败", e);
+        }
+        spilledCount += memoryCount;
+        memoryCount = 0;
+    }
+
+    private void readSpilled(long cursor, int[] target, int count) {
+        ByteBuffer bytes = ByteBuffer.allocate(count * Integer.BYTES);
+        long position = cursor * Integer.BYTES;
+        try {
+            while (bytes.hasRemaining()) {
+                int read = spillChannel.read(bytes, position);
+                if (read < 0) {
+                    throw new IOException("失败ID临时文件被截断: " + spillFile);
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取失败ID临时文件失败", e);
+        }
+        bytes.flip();
+        IntBuffer ints = bytes.asIntBuffer();
+        ints.get(target, 0, count);
+    }
+}
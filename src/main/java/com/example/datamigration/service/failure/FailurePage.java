@@ -0,0 +1,22 @@
+package com.example.datamigration.service.failure;
+
+import lombok.Value;
+
+/**
+ * 一页失败源记录ID
+ */
+@Value
+public class FailurePage {
+
+    /** 本页ID，按记录顺序排列 */
+    int[] ids;
+
+    /** 本页起始偏移量 */
+    long cursor;
+
+    /** 下一页的起始偏移量，已经是最后一页时为null */
+    Long nextCursor;
+
+    /** 失败ID总数 */
+    long total;
+}
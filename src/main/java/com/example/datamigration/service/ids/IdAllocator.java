@@ -0,0 +1,140 @@
+package com.example.datamigration.service.ids;
+
+import com.example.datamigration.config.MigrationProperties;
+import com.example.datamigration.service.execution.DbPermits;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 目标表主键预分配器（hi-lo）
+ *
+ * 每张表在 migration_id_block 表中有一行，记录下一个未分配的主键。
+ * 需要主键时先从本进程已预留的块中取，块用完后在独立事务中锁住该行、把 next_id 推进 blockSize，
+ * 多个进程同时迁移也不会分到重复的主键。预留的起点不小于目标表当前的 MAX(id)+1，
+ * 自增写入的数据不会与预留的主键冲突。
+ * 预留块的事务独立提交，迁移事务回滚或进程退出时未用完的主键直接作废，只留下空洞
+ */
+@Slf4j
+@Component
+public class IdAllocator {
+
+    private static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS migration_id_block (" +
+        "  name    VARCHAR(64) NOT NULL," +
+        "  next_id BIGINT      NOT NULL," +
+        "  PRIMARY KEY (name)" +
+        ")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DbPermits dbPermits;
+
+    private final TransactionTemplate requiresNew;
+
+    private final int blockSize;
+
+    /**
+     * 本进程当前持有的块，key为表名
+     */
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    private volatile boolean tableReady;
+
+    public IdAllocator(JdbcTemplate jdbcTemplate, DbPermits dbPermits, PlatformTransactionManager transactionManager,
+                       MigrationProperties migrationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dbPermits = dbPermits;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = migrationProperties.getIds().getBlockSize();
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("主键预留块大小必须大于0: " + blockSize);
+        }
+    }
+
+    /**
+     * 分配一个主键
+     *
+     * @param table 目标表名，表的主键列必须为 id
+     * @return 未被使用过的主键
+     * @throws IllegalStateException 预留失败或主键超出INT范围
+     */
+    public int next(String table) {
+        Block block = blocks.computeIfAbsent(table, key -> new Block());
+        synchronized (block) {
+            if (block.next >= block.limit) {
+                long start = reserve(table, blockSize);
+                block.next = start;
+                block.limit = start + blockSize;
+            }
+            return Math.toIntExact(block.next++);
+        }
+    }
+
+    /**
+     * 在独立事务中预留一段连续的主键
+     *
+     * @param table 目标表名
+     * @param count 主键数量
+     * @return 预留的第一个主键，预留范围为 [start, start + count)
+     */
+    long reserve(String table, int count) {
+        ensureTable();
+        dbPermits.acquire();
+        try {
+            Long start;
+            try {
+                start = requiresNew.execute(status -> reserveLocked(table, count));
+            } catch (DuplicateKeyException e) {
+                // 其他进程同时插入了该表的第一行，重试时按已存在的行推进
+                start = requiresNew.execute(status -> reserveLocked(table, count));
+            }
+            if (start + count - 1 > Integer.MAX_VALUE) {
+                throw new IllegalStateException(String.format("%s 的主键超出INT范围，无法继续预留", table));
+            }
+            log.debug("预留 {} 的主键 [{}, {})", table, start, start + count);
+            return start;
+        } finally {
+            dbPermits.release();
+        }
+    }
+
+    private long reserveLocked(String table, int count) {
+        List<Long> current = jdbcTemplate.queryForList(
+            "SELECT next_id FROM migration_id_block WHERE name = ? FOR UPDATE", Long.class, table);
+        Long floor = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+        if (current.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO migration_id_block (name, next_id) VALUES (?, ?)", table, floor + count);
+            return floor;
+        }
+        long start = Math.max(current.get(0), floor);
+        jdbcTemplate.update("UPDATE migration_id_block SET next_id = ? WHERE name = ?", start + count, table);
+        return start;
+    }
+
+    private void ensureTable() {
+        if (!tableReady) {
+            jdbcTemplate.execute(CREATE_TABLE_SQL);
+            tableReady = true;
+        }
+    }
+
+    /**
+     * 本进程持有的一段主键 [next, limit)
+     */
+    private static class Block {
+
+        private long next;
+
+        private long limit;
+    }
+}
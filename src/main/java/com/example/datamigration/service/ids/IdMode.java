@@ -0,0 +1,19 @@
+package com.example.datamigration.service.ids;
+
+/**
+ * 目标表父记录主键的来源
+ */
+public enum IdMode {
+
+    /**
+     * 由数据库自增生成，写入后通过 useGeneratedKeys / getGeneratedKeys 回填，
+     * 依赖驱动按插入顺序返回主键，子表要等父表写入返回后才能填外键
+     */
+    GENERATED,
+
+    /**
+     * 从 migration_id_block 表按块预留主键（hi-lo），转换阶段就分配父记录主键并填好子表外键，
+     * 写入时显式指定主键，不需要回填
+     */
+    PREALLOCATED
+}
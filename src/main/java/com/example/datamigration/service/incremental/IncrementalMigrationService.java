@@ -0,0 +1,233 @@
+package com.example.datamigration.service.incremental;
+
+import com.example.datamigration.config.MigrationProperties;
+import com.example.datamigration.service.DataMigrationService;
+import com.example.datamigration.service.MigrationOptions;
+import com.example.datamigration.service.checkpoint.CheckpointStore;
+import com.example.datamigration.service.job.MigrationJobScheduler;
+import com.example.datamigration.service.job.TestCaseMigrationJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * test_case_info 的增量迁移
+ *
+ * 按主键高水位只迁移上次之后新增的记录：新增部分作为一次普通迁移执行，起点为高水位，
+ * 全部分区完成后把高水位推进到本次迁移的最大ID。上次迁移（全量或增量）未完成时先从检查点继续它，
+ * 不会重复写入已提交的记录。
+ *
+ * 配置了更新时间列时，先重新迁移主键不大于高水位、更新时间晚于上次基准的记录，
+ * 每条记录先删除原来的 pool 和 step 再写入。变更时间基准取迁移开始前的数据库时间，
+ * 迁移期间被修改的记录下一次会再迁移一遍，不会遗漏。
+ *
+ * 首次增量迁移没有高水位时，以最近一次完成的全量迁移为起点，变更时间基准取该次迁移的开始时间
+ */
+@Slf4j
+@Service
+public class IncrementalMigrationService {
+
+    private static final DateTimeFormatter RUN_ID_TIME = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+
+    @Autowired
+    private DataMigrationService dataMigrationService;
+
+    @Autowired
+    private MigrationJobScheduler migrationJobScheduler;
+
+    @Autowired
+    private TestCaseMigrationJob testCaseMigrationJob;
+
+    @Autowired
+    private CheckpointStore checkpointStore;
+
+    @Autowired
+    private WatermarkStore watermarkStore;
+
+    @Autowired
+    private MigrationProperties migrationProperties;
+
+    /**
+     * 增量迁移运行状态标识
+     */
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * 最近一次增量迁移结果
+     */
+    private volatile IncrementalResult lastResult;
+
+    /**
+     * 最近一次增量迁移失败的原因
+     */
+    private volatile String lastError;
+
+    /**
+     * 按 migration.incremental.cron 定时执行增量迁移，上一次尚未结束或有其他迁移在运行时跳过本次
+     */
+    @Scheduled(cron = "${migration.incremental.cron:-}")
+    public void runScheduled() {
+        try {
+            runDelta();
+        } catch (IllegalStateException e) {
+            log.info("跳过定时增量迁移: {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("定时增量迁移异常", e);
+        }
+    }
+
+    /**
+     * 执行一次增量迁移
+     *
+     * @return 迁移结果
+     * @throws IllegalStateException 增量迁移或 test-case 迁移正在运行
+     */
+    public IncrementalResult runDelta() {
+        if (migrationJobScheduler.isRunning(TestCaseMigrationJob.NAME)) {
+            throw new IllegalStateException("迁移任务 " + TestCaseMigrationJob.NAME + " 正在运行");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("增量迁移正在运行");
+        }
+        try {
+            IncrementalResult result = migrate();
+            lastResult = result;
+            lastError = null;
+            return result;
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            throw e;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private IncrementalResult migrate() {
+        long begin = System.currentTimeMillis();
+        String jobName = TestCaseMigrationJob.NAME;
+        String updatedAtColumn = migrationProperties.getIncremental().getUpdatedAtColumn();
+        Watermark previous = watermarkStore.find(jobName).orElseGet(() -> initialWatermark(jobName));
+        LocalDateTime startedAt = watermarkStore.currentTime();
+        log.info("开始增量迁移，高水位 lastId={}，变更时间基准 {}", previous.getLastId(), previous.getLastUpdatedAt());
+
+        IncrementalResult result = new IncrementalResult();
+        result.setPrevious(previous);
+
+        // 1. 重新迁移已迁移范围内被修改的记录
+        LocalDateTime lastUpdatedAt = previous.getLastUpdatedAt();
+        if (updatedAtColumn != null) {
+            if (previous.getLastId() > 0 && previous.getLastUpdatedAt() != null) {
+                DataMigrationService.MigrationResult changes = dataMigrationService.executeMigration(
+                        testCaseMigrationJob.changedSince(previous.getLastUpdatedAt(), previous.getLastId()),
+                        newOptions());
+                result.setChanges(changes);
+                if (completed(changes)) {
+                    lastUpdatedAt = startedAt;
+                } else {
+                    log.warn("变更记录未全部迁移，变更时间基准保持不变，下次增量迁移重新处理");
+                }
+            } else {
+                lastUpdatedAt = startedAt;
+            }
+        }
+
+        // 2. 迁移新增的记录，上次迁移未完成时先继续它
+        MigrationOptions options = newOptions();
+        if (dataMigrationService.hasResumableRun(jobName)) {
+            options.setResume(true);
+            result.setResumed(true);
+        } else {
+            options.setStartAfterId(previous.getLastId());
+        }
+        DataMigrationService.MigrationResult inserts = dataMigrationService.executeMigration(testCaseMigrationJob,
+                                                                                            options);
+        result.setInserts(inserts);
+        int lastId = previous.getLastId();
+        if (inserts.getPartitionCount() > 0) {
+            if (completed(inserts)) {
+                lastId = Math.max(lastId, checkpointStore.findMaxLastId(inserts.getRunId()));
+            } else {
+                log.warn("新增记录未全部迁移，高水位保持不变，下次增量迁移从检查点继续");
+            }
+        }
+
+        Watermark current = new Watermark(jobName, lastId, lastUpdatedAt);
+        watermarkStore.save(current);
+        result.setCurrent(current);
+        result.setDurationMillis(System.currentTimeMillis() - begin);
+        log.info("增量迁移完成，高水位 lastId={}，变更时间基准 {}", current.getLastId(), current.getLastUpdatedAt());
+        return result;
+    }
+
+    /**
+     * 没有高水位时以最近一次完成的迁移为起点，都没有时从头迁移
+     */
+    private Watermark initialWatermark(String jobName) {
+        String runId = checkpointStore.findLatestFinishedRunId(jobName);
+        if (runId == null) {
+            return new Watermark(jobName, 0, null);
+        }
+        Integer lastId = checkpointStore.findMaxLastId(runId);
+        log.info("首次增量迁移，以迁移 {} 为起点", runId);
+        return new Watermark(jobName, lastId == null ? 0 : lastId, runStartTime(runId));
+    }
+
+    /**
+     * 运行ID以开始时间开头（yyyyMMdd_HHmmss_SSS），解析失败时返回null
+     */
+    private static LocalDateTime runStartTime(String runId) {
+        try {
+            return LocalDateTime.parse(runId.substring(0, Math.min(runId.length(), 19)), RUN_ID_TIME);
+        } catch (DateTimeParseException e) {
+            log.warn("无法从运行ID {} 解析开始时间，本次不重新迁移变更的记录", runId);
+            return null;
+        }
+    }
+
+    /**
+     * @return 迁移已登记且全部分区都已完成；没有需要迁移的记录时也视为完成
+     */
+    private boolean completed(DataMigrationService.MigrationResult result) {
+        return result.getPartitionCount() == 0 || checkpointStore.isFinished(result.getRunId());
+    }
+
+    private MigrationOptions newOptions() {
+        MigrationOptions options = new MigrationOptions();
+        options.setWorkers(migrationProperties.getIncremental().getWorkers());
+        return options;
+    }
+
+    /**
+     * @return 是否正在执行增量迁移
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * @return 当前高水位，尚未执行过增量迁移时为null
+     */
+    public Watermark getWatermark() {
+        return watermarkStore.find(TestCaseMigrationJob.NAME).orElse(null);
+    }
+
+    /**
+     * @return 最近一次增量迁移结果
+     */
+    public IncrementalResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * @return 最近一次增量迁移失败的原因
+     */
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.datamigration.service.incremental;
+
+import com.example.datamigration.service.DataMigrationService;
+import lombok.Data;
+
+/**
+ * 一次增量迁移的结果
+ */
+@Data
+public class IncrementalResult {
+
+    /** 迁移前的高水位 */
+    private Watermark previous;
+
+    /** 迁移后的高水位，某一部分未完成时对应的位置不推进 */
+    private Watermark current;
+
+    /** 重新迁移变更记录的结果，未配置更新时间列或尚无变更时间基准时为null */
+    private DataMigrationService.MigrationResult changes;
+
+    /** 迁移新增记录（或继续上次未完成的迁移）的结果 */
+    private DataMigrationService.MigrationResult inserts;
+
+    /** 是否继续了上次未完成的迁移 */
+    private boolean resumed;
+
+    /** 耗时（毫秒） */
+    private long durationMillis;
+}
@@ -0,0 +1,173 @@
+package com.example.datamigration.service.incremental;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 源记录与目标记录的对应关系
+ *
+ * 保存在目标库的 migration_source_map 表中，每个迁移任务的每条源记录一行，记录写入的目标表主键和写入内容的哈希。
+ * save() 使用调用线程当前的事务，与目标表写入一起提交；
+ * 增量迁移重新迁移变更的源记录时据此找到并删除原来写入的目标记录，
+ * upsert 写入方式据此判断记录是否已迁移、内容是否变化
+ */
+@Slf4j
+@Component
+public class SourceMapStore {
+
+    private static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS migration_source_map (" +
+        "  job_name  VARCHAR(64) NOT NULL," +
+        "  source_id INT         NOT NULL," +
+        "  target_id INT         NOT NULL," +
+        "  row_hash  BIGINT      NULL," +
+        "  PRIMARY KEY (job_name, source_id)" +
+        ")";
+
+    /**
+     * 按源记录ID查询时每条SQL最多包含的ID数
+     */
+    private static final int MAX_IN_LIST = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean tableReady;
+
+    public SourceMapStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 建表，DDL会隐式提交事务，必须在迁移事务之外调用
+     */
+    public void ensureTable() {
+        if (!tableReady) {
+            jdbcTemplate.execute(CREATE_TABLE_SQL);
+            addRowHashColumnIfMissing();
+            tableReady = true;
+        }
+    }
+
+    /**
+     * 引入 upsert 写入方式之前创建的对应关系表没有 row_hash 列，补上后原有记录按内容已变化处理
+     */
+    private void addRowHashColumnIfMissing() {
+        try {
+            jdbcTemplate.queryForList("SELECT row_hash FROM migration_source_map WHERE 1 = 0");
+        } catch (BadSqlGrammarException e) {
+            log.info("对应关系表缺少 row_hash 列，自动添加");
+            jdbcTemplate.execute("ALTER TABLE migration_source_map ADD COLUMN row_hash BIGINT NULL");
+        }
+    }
+
+    /**
+     * 记录一批源记录对应的目标主键，已存在的对应关系被覆盖
+     * 必须在写入目标记录的同一事务中调用
+     *
+     * @param jobName 迁移任务名
+     * @param targets 对应关系，key为源记录ID
+     */
+    public void save(String jobName, Map<Integer, Target> targets) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(targets.size());
+        targets.forEach((sourceId, target) ->
+                args.add(new Object[]{jobName, sourceId, target.getTargetId(), target.getRowHash()}));
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO migration_source_map (job_name, source_id, target_id, row_hash) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE target_id = VALUES(target_id), row_hash = VALUES(row_hash)",
+            args);
+    }
+
+    /**
+     * 查询源记录已写入的目标记录
+     *
+     * @param jobName 迁移任务名
+     * @param sourceIds 源记录ID
+     * @return 对应关系，key为源记录ID；没有对应关系的源记录不在结果中
+     */
+    public Map<Integer, Target> findTargets(String jobName, Collection<Integer> sourceIds) {
+        Map<Integer, Target> targets = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(sourceIds);
+        for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IN_LIST, ids.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(jobName);
+            args.addAll(chunk);
+            jdbcTemplate.query(
+                "SELECT source_id, target_id, row_hash FROM migration_source_map " +
+                "WHERE job_name = ? AND source_id IN (" + placeholders + ")",
+                rs -> {
+                    long rowHash = rs.getLong("row_hash");
+                    targets.put(rs.getInt("source_id"),
+                                new Target(rs.getInt("target_id"), rs.wasNull() ? null : rowHash));
+                },
+                args.toArray());
+        }
+        return targets;
+    }
+
+    /**
+     * @param jobName 迁移任务名
+     * @return 该任务记录的对应关系数
+     */
+    public long count(String jobName) {
+        ensureTable();
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM migration_source_map WHERE job_name = ?",
+                                           Long.class, jobName);
+    }
+
+    /**
+     * @param jobName 迁移任务名
+     * @return 该任务对应关系中最小的源记录ID，没有对应关系时为null
+     */
+    public Integer minSourceId(String jobName) {
+        ensureTable();
+        return jdbcTemplate.queryForObject("SELECT MIN(source_id) FROM migration_source_map WHERE job_name = ?",
+                                           Integer.class, jobName);
+    }
+
+    /**
+     * 查询源记录ID在区间 (startAfterId, endId] 内的对应关系
+     *
+     * @param jobName 迁移任务名
+     * @param startAfterId 区间起点（不包含）
+     * @param endId 区间终点（包含），为null表示不设上界
+     * @return 目标表主键，key为源记录ID
+     */
+    public Map<Integer, Integer> findTargetIds(String jobName, int startAfterId, Integer endId) {
+        Map<Integer, Integer> targets = new HashMap<>();
+        String sql = "SELECT source_id, target_id FROM migration_source_map WHERE job_name = ? AND source_id > ?" +
+                     (endId == null ? "" : " AND source_id <= ?");
+        Object[] args = endId == null ? new Object[]{jobName, startAfterId} : new Object[]{jobName, startAfterId, endId};
+        jdbcTemplate.query(sql, rs -> {
+            targets.put(rs.getInt("source_id"), rs.getInt("target_id"));
+        }, args);
+        return targets;
+    }
+
+    /**
+     * 一条源记录写入的目标记录
+     */
+    @Value
+    public static class Target {
+
+        /** 目标表主键 */
+        int targetId;
+
+        /** 写入内容的哈希，内容相同时重新迁移可以跳过；未记录时为null */
+        Long rowHash;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.datamigration.service.incremental;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * 增量迁移的高水位
+ */
+@Value
+public class Watermark {
+
+    /** 迁移任务名 */
+    String jobName;
+
+    /** 已迁移的最大源记录ID，之后的增量只迁移主键大于它的记录 */
+    int lastId;
+
+    /** 变更时间基准，更新时间晚于它的已迁移记录会被重新迁移；未配置更新时间列时为null */
+    LocalDateTime lastUpdatedAt;
+}
@@ -0,0 +1,88 @@
+package com.example.datamigration.service.incremental;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 增量迁移高水位存储
+ *
+ * 保存在目标库的 migration_watermark 表中，每个迁移任务一行，每次增量迁移成功后更新
+ */
+@Component
+public class WatermarkStore {
+
+    private static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS migration_watermark (" +
+        "  job_name        VARCHAR(64) NOT NULL," +
+        "  last_id         INT         NOT NULL," +
+        "  last_updated_at TIMESTAMP   NULL," +
+        "  updated_at      TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP," +
+        "  PRIMARY KEY (job_name)" +
+        ")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean tableReady;
+
+    public WatermarkStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param jobName 迁移任务名
+     * @return 该任务的高水位，尚未执行过增量迁移时为空
+     */
+    public Optional<Watermark> find(String jobName) {
+        ensureTable();
+        List<Watermark> found = jdbcTemplate.query(
+            "SELECT last_id, last_updated_at FROM migration_watermark WHERE job_name = ?",
+            (rs, rowNum) -> {
+                Timestamp lastUpdatedAt = rs.getTimestamp("last_updated_at");
+                return new Watermark(jobName, rs.getInt("last_id"),
+                                     lastUpdatedAt == null ? null : lastUpdatedAt.toLocalDateTime());
+            },
+            jobName);
+        return found.stream().findFirst();
+    }
+
+    /**
+     * 保存高水位
+     *
+     * @param watermark 新的高水位
+     */
+    public void save(Watermark watermark) {
+        ensureTable();
+        Timestamp lastUpdatedAt = watermark.getLastUpdatedAt() == null
+                ? null : Timestamp.valueOf(watermark.getLastUpdatedAt());
+        int updated = jdbcTemplate.update(
+            "UPDATE migration_watermark SET last_id = ?, last_updated_at = ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE job_name = ?",
+            watermark.getLastId(), lastUpdatedAt, watermark.getJobName());
+        if (updated == 0) {
+            jdbcTemplate.update(
+                "INSERT INTO migration_watermark (job_name, last_id, last_updated_at) VALUES (?, ?, ?)",
+                watermark.getJobName(), watermark.getLastId(), lastUpdatedAt);
+        }
+    }
+
+    /**
+     * 数据库当前时间，作为下一次增量的变更时间基准，避免应用服务器与数据库时钟不一致
+     *
+     * @return 数据库当前时间
+     */
+    public LocalDateTime currentTime() {
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", Timestamp.class).toLocalDateTime();
+    }
+
+    private void ensureTable() {
+        if (!tableReady) {
+            jdbcTemplate.execute(CREATE_TABLE_SQL);
+            tableReady = true;
+        }
+    }
+}
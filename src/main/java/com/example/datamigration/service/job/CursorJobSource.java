@@ -0,0 +1,29 @@
+package com.example.datamigration.service.job;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.SqlSession;
+
+/**
+ * 支持流式读取的源表
+ * 除分页查询外还能在一次有序扫描中逐行返回记录，用于 cursor 读取方式
+ *
+ * @param <S> 源记录类型
+ */
+public interface CursorJobSource<S> extends JobSource<S> {
+
+    /**
+     * 打开主键区间 (startAfterId, endId] 内按ID升序的流式查询
+     *
+     * @param session 读取器独占的会话，游标在会话关闭前有效
+     * @param startAfterId 从该ID之后开始读取（不包含该ID）
+     * @param endId 读取到该ID为止（包含该ID），为null表示不设上界
+     * @return 游标
+     */
+    Cursor<S> openCursor(SqlSession session, int startAfterId, Integer endId);
+
+    /**
+     * 流式读取按字节数截断批次，必须能估算记录大小
+     */
+    @Override
+    long sizeOf(S row);
+}
@@ -0,0 +1,18 @@
+package com.example.datamigration.service.job;
+
+/**
+ * 转换完成、等待写入的记录
+ * 写入失败时按源记录ID登记失败，并写入错误日志
+ */
+public interface JobRecord {
+
+    /**
+     * @return 源记录ID
+     */
+    int getSourceId();
+
+    /**
+     * @return 源记录的简要说明（如标题），写入错误日志
+     */
+    String getSourceLabel();
+}
@@ -0,0 +1,40 @@
+package com.example.datamigration.service.job;
+
+import java.util.List;
+
+/**
+ * 一张目标表的批量写入器
+ * 在调用线程当前的事务中写入一批记录中属于本表的行。需要回填主键的父表在写入后回填，
+ * 子表依赖的父表主键由 {@link KeyPropagation} 在写入本表之前设置。
+ * 失败的批次会被拆分重试，写入前应清除上一次尝试回填的主键
+ *
+ * @param <T> 待写入的记录类型
+ */
+public interface JobSink<T> {
+
+    /**
+     * @return 目标表名
+     */
+    String table();
+
+    /**
+     * @param record 待写入的记录
+     * @return 该记录在本表中对应的行数
+     */
+    int rowCount(T record);
+
+    /**
+     * 批量写入
+     *
+     * @param records 待写入的记录
+     * @return 写入的行数，应等于各记录 rowCount 之和
+     */
+    int write(List<T> records);
+
+    /**
+     * @return 写入耗时指标 migration.batch.latency 的 phase 标签
+     */
+    default String phase() {
+        return table() + "_insert";
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.datamigration.service.job;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一个迁移任务的目标表写入顺序
+ * 按声明顺序在同一个事务中写入，子表写入前先执行声明的主键传递
+ *
+ * <pre>
+ * JobSinks.of(poolSink)
+ *         .then(stepSink, record -&gt; record.getSteps().forEach(s -&gt; s.setCaseId(record.getPool().getId())));
+ * </pre>
+ *
+ * @param <T> 待写入的记录类型
+ */
+public final class JobSinks<T> {
+
+    private final List<Step<T>> steps = new ArrayList<>();
+
+    private JobSinks() {
+    }
+
+    /**
+     * @param first 第一张（父）表
+     * @return 写入顺序
+     */
+    public static <T> JobSinks<T> of(JobSink<T> first) {
+        JobSinks<T> sinks = new JobSinks<>();
+        sinks.steps.add(new Step<>(first, null));
+        return sinks;
+    }
+
+    /**
+     * 追加一张子表
+     *
+     * @param sink 子表
+     * @param keys 写入子表前从已写入的父表传递主键，不需要时传null
+     * @return 写入顺序
+     */
+    public JobSinks<T> then(JobSink<T> sink, KeyPropagation<T> keys) {
+        steps.add(new Step<>(sink, keys));
+        return this;
+    }
+
+    /**
+     * @return 按写入顺序排列的目标表
+     */
+    public List<Step<T>> steps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * 第一张表之后各表的行数之和，即子表行数
+     *
+     * @param record 记录
+     * @return 子表行数
+     */
+    public int childRowCount(T record) {
+        int rows = 0;
+        for (int i = 1; i < steps.size(); i++) {
+            rows += steps.get(i).getSink().rowCount(record);
+        }
+        return rows;
+    }
+
+    /**
+     * 一张目标表及写入前的主键传递
+     */
+    @Value
+    public static class Step<T> {
+        /** 目标表 */
+        JobSink<T> sink;
+
+        /** 写入前的主键传递，第一张表为null */
+        KeyPropagation<T> keys;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.datamigration.service.job;
+
+import java.util.List;
+
+/**
+ * 迁移任务的源表
+ * 源表需要有整数主键，按主键切分分区并按主键游标分页读取
+ *
+ * @param <S> 源记录类型
+ */
+public interface JobSource<S> {
+
+    /**
+     * @return 最小主键，表为空时返回null
+     */
+    Integer minId();
+
+    /**
+     * @return 最大主键，表为空时返回null
+     */
+    Integer maxId();
+
+    /**
+     * @return 预估总记录数，仅用于进度
+     */
+    long estimateCount();
+
+    /**
+     * 读取主键区间 (lastId, endId] 内的下一页
+     *
+     * @param lastId 上一页最后一条记录的ID
+     * @param endId 区间终点（包含），为null表示不设上界
+     * @param limit 每页数量
+     * @return 按主键升序排列的记录
+     */
+    List<S> readAfter(int lastId, Integer endId, int limit);
+
+    /**
+     * @param row 源记录
+     * @return 源记录主键
+     */
+    int idOf(S row);
+
+    /**
+     * @param row 源记录
+     * @return 源记录的简要说明，写入错误日志
+     */
+    String labelOf(S row);
+
+    /**
+     * 估算一条源记录的字节数，用于按字节数截断批次和限制每秒读取的字节数
+     *
+     * @param row 源记录
+     * @return 估算字节数，0表示无法估算，不计入字节数限制
+     */
+    default long sizeOf(S row) {
+        return 0;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.datamigration.service.job;
+
+/**
+ * 父表写入后，把父表生成的主键传给子表的行（如 test_case_pool.id → test_case_step.case_id）
+ *
+ * @param <T> 待写入的记录类型
+ */
+@FunctionalInterface
+public interface KeyPropagation<T> {
+
+    /**
+     * @param record 父表已写入的记录
+     * @throws IllegalStateException 父表主键缺失
+     */
+    void propagate(T record);
+}
@@ -0,0 +1,53 @@
+package com.example.datamigration.service.job;
+
+import com.example.datamigration.service.sink.SinkMode;
+
+import java.util.List;
+
+/**
+ * 一张源表的迁移任务：源表读取 → 逐行转换 → 按顺序写入一张或多张目标表
+ *
+ * 分区、流水线、分组提交、二分定位失败记录、检查点和指标由 DataMigrationService 统一处理，
+ * 新增一张表的迁移只需要实现本接口并注册为Bean
+ *
+ * @param <S> 源记录类型
+ * @param <T> 待写入的记录类型
+ */
+public interface MigrationJob<S, T extends JobRecord> {
+
+    /**
+     * 未提供估算方法时每条记录按此字节数估算SQL大小
+     */
+    long DEFAULT_RECORD_BYTES = 256;
+
+    /**
+     * @return 任务名，全局唯一，用于检查点、错误日志文件名和接口参数
+     */
+    String name();
+
+    /**
+     * @return 源表
+     */
+    JobSource<S> source();
+
+    /**
+     * @return 逐行转换器
+     */
+    RowTransformer<S, T> transformer();
+
+    /**
+     * @param mode 写入方式，不区分写入方式的任务可以忽略
+     * @return 目标表写入顺序
+     */
+    JobSinks<T> sinks(SinkMode mode);
+
+    /**
+     * 估算一批记录写入时的SQL字节数，用于把自适应批量大小限制在 max_allowed_packet 以内
+     *
+     * @param records 待写入的记录
+     * @return 估算字节数
+     */
+    default long payloadBytes(List<T> records) {
+        return records.size() * DEFAULT_RECORD_BYTES;
+    }
+}
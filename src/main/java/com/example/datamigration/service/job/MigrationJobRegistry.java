@@ -0,0 +1,49 @@
+package com.example.datamigration.service.job;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 已注册的迁移任务，按任务名查找
+ * 所有实现了 MigrationJob 的Bean都会自动注册
+ */
+@Component
+public class MigrationJobRegistry {
+
+    private final Map<String, MigrationJob<?, ?>> jobs = new TreeMap<>();
+
+    public MigrationJobRegistry(List<MigrationJob<?, ?>> jobs) {
+        for (MigrationJob<?, ?> job : jobs) {
+            MigrationJob<?, ?> previous = this.jobs.put(job.name(), job);
+            if (previous != null) {
+                throw new IllegalStateException(String.format("迁移任务名重复: %s（%s 与 %s）", job.name(),
+                        previous.getClass().getSimpleName(), job.getClass().getSimpleName()));
+            }
+        }
+    }
+
+    /**
+     * @param name 任务名
+     * @return 迁移任务
+     * @throws IllegalArgumentException 任务未注册
+     */
+    public MigrationJob<?, ?> get(String name) {
+        MigrationJob<?, ?> job = jobs.get(name);
+        if (job == null) {
+            throw new IllegalArgumentException("未注册的迁移任务: " + name + "，可选值: " + jobs.keySet());
+        }
+        return job;
+    }
+
+    /**
+     * @return 所有迁移任务，按任务名排列
+     */
+    public Collection<MigrationJob<?, ?>> all() {
+        return Collections.unmodifiableCollection(jobs.values());
+    }
+}
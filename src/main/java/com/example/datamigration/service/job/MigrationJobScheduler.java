@@ -0,0 +1,118 @@
+package com.example.datamigration.service.job;
+
+import com.example.datamigration.service.DataMigrationService;
+import com.example.datamigration.service.MigrationOptions;
+import com.example.datamigration.service.execution.MigrationExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 迁移任务调度器，在迁移专用线程上异步启动一个或多个任务
+ *
+ * 多个任务同时运行时各自切分分区、各自记录检查点和错误日志，
+ * 共用 DbPermits 的数据库访问许可和 ThroughputBudget 的吞吐预算，总负载不随任务数增加
+ */
+@Slf4j
+@Component
+public class MigrationJobScheduler {
+
+    @Autowired
+    private MigrationJobRegistry migrationJobRegistry;
+
+    @Autowired
+    private DataMigrationService dataMigrationService;
+
+    @Autowired
+    private MigrationExecutors migrationExecutors;
+
+    /**
+     * 已启动尚未结束的任务，key为任务名
+     */
+    private final Map<String, CompletableFuture<DataMigrationService.MigrationResult>> running =
+            new ConcurrentHashMap<>();
+
+    /**
+     * 各任务最近一次的迁移结果，key为任务名
+     */
+    private final Map<String, DataMigrationService.MigrationResult> lastResults = new ConcurrentHashMap<>();
+
+    /**
+     * 同时启动多个迁移任务，所有任务使用相同的运行参数
+     * 任一任务未注册或正在运行时都不启动
+     *
+     * @param names 任务名
+     * @param options 运行参数
+     * @return 各任务的执行结果，key为任务名
+     * @throws IllegalArgumentException 任务未注册或重复指定
+     * @throws IllegalStateException 任务正在运行
+     */
+    public synchronized Map<String, CompletableFuture<DataMigrationService.MigrationResult>> start(
+            List<String> names, MigrationOptions options) {
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("至少指定一个迁移任务");
+        }
+        List<MigrationJob<?, ?>> jobs = new ArrayList<>(names.size());
+        for (String name : names) {
+            MigrationJob<?, ?> job = migrationJobRegistry.get(name);
+            if (jobs.contains(job)) {
+                throw new IllegalArgumentException("迁移任务重复指定: " + name);
+            }
+            if (isRunning(name)) {
+                throw new IllegalStateException("迁移任务 " + name + " 正在运行中，请勿重复启动");
+            }
+            jobs.add(job);
+        }
+
+        Map<String, CompletableFuture<DataMigrationService.MigrationResult>> futures = new LinkedHashMap<>();
+        for (MigrationJob<?, ?> job : jobs) {
+            futures.put(job.name(), launch(job, options));
+        }
+        return futures;
+    }
+
+    private CompletableFuture<DataMigrationService.MigrationResult> launch(MigrationJob<?, ?> job,
+                                                                            MigrationOptions options) {
+        String name = job.name();
+        CompletableFuture<DataMigrationService.MigrationResult> future = new CompletableFuture<>();
+        running.put(name, future);
+        migrationExecutors.taskExecutor().execute(() -> {
+            try {
+                log.info("开始执行迁移任务 {}，工作线程数: {}, 继续迁移: {}", name, options.getWorkers(), options.isResume());
+                DataMigrationService.MigrationResult result = dataMigrationService.executeMigration(job, options);
+                lastResults.put(name, result);
+                log.info("迁移任务 {} 完成", name);
+                running.remove(name);
+                future.complete(result);
+            } catch (Exception e) {
+                log.error("迁移任务 {} 执行异常", name, e);
+                running.remove(name);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @param name 任务名
+     * @return 该任务是否已启动且尚未结束
+     */
+    public boolean isRunning(String name) {
+        return running.containsKey(name) || dataMigrationService.isRunning(name);
+    }
+
+    /**
+     * @param name 任务名
+     * @return 该任务最近一次的迁移结果，尚未执行过时为null
+     */
+    public DataMigrationService.MigrationResult getLastResult(String name) {
+        return lastResults.get(name);
+    }
+}
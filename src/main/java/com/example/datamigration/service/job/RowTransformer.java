@@ -0,0 +1,18 @@
+package com.example.datamigration.service.job;
+
+/**
+ * 把一条源记录转换为待写入的记录，不访问数据库
+ *
+ * @param <S> 源记录类型
+ * @param <T> 待写入的记录类型
+ */
+@FunctionalInterface
+public interface RowTransformer<S, T extends JobRecord> {
+
+    /**
+     * @param row 源记录
+     * @return 待写入的记录
+     * @throws Exception 转换失败，只影响该条记录
+     */
+    T transform(S row) throws Exception;
+}
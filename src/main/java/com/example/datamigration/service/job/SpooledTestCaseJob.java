@@ -0,0 +1,55 @@
+package com.example.datamigration.service.job;
+
+import com.example.datamigration.entity.TestCaseInfo;
+import com.example.datamigration.service.sink.SinkMode;
+import com.example.datamigration.service.spool.SpoolService;
+import com.example.datamigration.service.transform.MigrationRecord;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 从快照文件加载 test_case_pool + test_case_step
+ *
+ * 与 test-case 任务的转换和写入完全相同，只是源表换成 SpoolService 抽取的快照，
+ * 检查点按本任务名单独记录，加载可以重复执行而不访问 test_case_info
+ */
+@Component
+public class SpooledTestCaseJob implements MigrationJob<TestCaseInfo, MigrationRecord> {
+
+    public static final String NAME = "test-case-spool";
+
+    private final TestCaseMigrationJob testCaseMigrationJob;
+
+    private final SpoolService spoolService;
+
+    public SpooledTestCaseJob(TestCaseMigrationJob testCaseMigrationJob, SpoolService spoolService) {
+        this.testCaseMigrationJob = testCaseMigrationJob;
+        this.spoolService = spoolService;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public JobSource<TestCaseInfo> source() {
+        return spoolService.current();
+    }
+
+    @Override
+    public RowTransformer<TestCaseInfo, MigrationRecord> transformer() {
+        return testCaseMigrationJob.transformer();
+    }
+
+    @Override
+    public JobSinks<MigrationRecord> sinks(SinkMode mode) {
+        return testCaseMigrationJob.sinks(mode);
+    }
+
+    @Override
+    public long payloadBytes(List<MigrationRecord> records) {
+        return testCaseMigrationJob.payloadBytes(records);
+    }
+}
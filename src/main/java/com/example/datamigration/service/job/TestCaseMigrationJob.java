@@ -0,0 +1,437 @@
+package com.example.datamigration.service.job;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.datamigration.config.MigrationProperties;
+import com.example.datamigration.entity.TestCaseInfo;
+import com.example.datamigration.entity.TestCasePool;
+import com.example.datamigration.entity.TestCaseStep;
+import com.example.datamigration.mapper.TestCaseInfoMapper;
+import com.example.datamigration.mapper.TestCasePoolMapper;
+import com.example.datamigration.mapper.TestCaseStepMapper;
+import com.example.datamigration.service.batch.AdaptiveBatchSizer;
+import com.example.datamigration.service.ids.IdAllocator;
+import com.example.datamigration.service.ids.IdMode;
+import com.example.datamigration.service.incremental.SourceMapStore;
+import com.example.datamigration.service.metrics.MigrationPhase;
+import com.example.datamigration.service.reader.ChangedTestCaseInfoSource;
+import com.example.datamigration.service.reader.TestCaseInfoSource;
+import com.example.datamigration.service.sink.CaseSink;
+import com.example.datamigration.service.sink.CaseSinks;
+import com.example.datamigration.service.sink.SinkMode;
+import com.example.datamigration.service.sink.UpsertCaseSink;
+import com.example.datamigration.service.transform.ContentHash;
+import com.example.datamigration.service.transform.MigrationRecord;
+import com.example.datamigration.service.transform.TestCaseTransformer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * test_case_info → test_case_pool + test_case_step
+ *
+ * generated 模式下先写 test_case_pool 并回填主键，再把主键传给每条步骤的 caseId，最后写 test_case_step；
+ * preallocated 模式下转换阶段就从 IdAllocator 分配 test_case_pool 主键并填好步骤的 caseId，
+ * 两张表的写入互不依赖，不需要回填主键。
+ *
+ * 配置了 migration.incremental.updated-at-column 时，写入 test_case_pool 的同时在 migration_source_map
+ * 中记录源记录对应的 test_case_pool 主键，增量迁移重新迁移变更的记录时先据此删除原来的 pool 和 step。
+ * upsert 写入方式总是记录对应关系，已迁移的记录按原主键覆盖，内容未变化的记录跳过
+ */
+@Slf4j
+@Component
+public class TestCaseMigrationJob implements MigrationJob<TestCaseInfo, MigrationRecord> {
+
+    /** 任务名，/start、/resume 等接口不指定任务时迁移的就是这张表 */
+    public static final String NAME = "test-case";
+
+    /** 重新迁移变更记录的任务名，由增量迁移按需创建，不注册到任务列表 */
+    public static final String CHANGES_NAME = "test-case-changes";
+
+    private final TestCaseInfoMapper testCaseInfoMapper;
+
+    private final TestCaseInfoSource source;
+
+    private final TestCaseTransformer testCaseTransformer;
+
+    private final CaseSinks caseSinks;
+
+    private final IdAllocator idAllocator;
+
+    private final IdMode idMode;
+
+    private final SourceMapStore sourceMapStore;
+
+    private final TestCasePoolMapper testCasePoolMapper;
+
+    private final TestCaseStepMapper testCaseStepMapper;
+
+    private final UpsertCaseSink upsertCaseSink;
+
+    /**
+     * 更新时间列名，为null时不记录源记录与目标记录的对应关系
+     */
+    private final String updatedAtColumn;
+
+    public TestCaseMigrationJob(TestCaseInfoMapper testCaseInfoMapper, TestCaseTransformer testCaseTransformer,
+                                CaseSinks caseSinks, IdAllocator idAllocator, SourceMapStore sourceMapStore,
+                                TestCasePoolMapper testCasePoolMapper, TestCaseStepMapper testCaseStepMapper,
+                                UpsertCaseSink upsertCaseSink, MigrationProperties migrationProperties) {
+        this.testCaseInfoMapper = testCaseInfoMapper;
+        this.source = new TestCaseInfoSource(testCaseInfoMapper);
+        this.testCaseTransformer = testCaseTransformer;
+        this.caseSinks = caseSinks;
+        this.idAllocator = idAllocator;
+        this.idMode = migrationProperties.getIds().getMode();
+        this.sourceMapStore = sourceMapStore;
+        this.testCasePoolMapper = testCasePoolMapper;
+        this.testCaseStepMapper = testCaseStepMapper;
+        this.upsertCaseSink = upsertCaseSink;
+        this.updatedAtColumn = migrationProperties.getIncremental().getUpdatedAtColumn();
+        log.info("test_case_pool 主键来源: {}", idMode);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public JobSource<TestCaseInfo> source() {
+        return source;
+    }
+
+    @Override
+    public RowTransformer<TestCaseInfo, MigrationRecord> transformer() {
+        if (idMode == IdMode.PREALLOCATED) {
+            return info -> assignPoolId(testCaseTransformer.transform(info));
+        }
+        return testCaseTransformer::transform;
+    }
+
+    @Override
+    public JobSinks<MigrationRecord> sinks(SinkMode mode) {
+        return sinks(mode, false);
+    }
+
+    /**
+     * @param mode 写入方式
+     * @param replace 写入前是否先删除源记录原来对应的 pool 和 step，upsert 写入方式总是按对应关系覆盖
+     */
+    private JobSinks<MigrationRecord> sinks(SinkMode mode, boolean replace) {
+        if (mode == SinkMode.LOAD_DATA && idMode != IdMode.PREALLOCATED) {
+            throw new IllegalArgumentException("load-data 写入方式需要 migration.ids.mode=preallocated");
+        }
+        if (mode == SinkMode.UPSERT) {
+            sourceMapStore.ensureTable();
+            return JobSinks.of(new UpsertPoolSink())
+                    .then(new StepSink(upsertCaseSink), TestCaseMigrationJob::propagatePoolId);
+        }
+        if (updatedAtColumn != null) {
+            sourceMapStore.ensureTable();
+        }
+        CaseSink sink = caseSinks.get(mode);
+        if (idMode == IdMode.PREALLOCATED) {
+            return JobSinks.of(new PoolSink(sink, true, replace))
+                    .then(new StepSink(sink), null);
+        }
+        return JobSinks.of(new PoolSink(sink, false, replace))
+                .then(new StepSink(sink), TestCaseMigrationJob::propagatePoolId);
+    }
+
+    /**
+     * 重新迁移已迁移过、之后又被修改的记录
+     * 每条记录写入前先删除它原来对应的 test_case_pool 和 test_case_step，再按新内容写入
+     *
+     * @param since 变更时间基准，更新时间晚于它的记录视为已修改
+     * @param upToId 只处理主键不大于它的记录，即已迁移的范围
+     * @return 迁移任务，只用于本次增量迁移
+     * @throws IllegalStateException 未配置更新时间列
+     */
+    public MigrationJob<TestCaseInfo, MigrationRecord> changedSince(LocalDateTime since, int upToId) {
+        if (updatedAtColumn == null) {
+            throw new IllegalStateException("未配置 migration.incremental.updated-at-column，无法识别变更的记录");
+        }
+        ChangedTestCaseInfoSource changed = new ChangedTestCaseInfoSource(testCaseInfoMapper, updatedAtColumn,
+                                                                          since, upToId);
+        return new MigrationJob<>() {
+            @Override
+            public String name() {
+                return CHANGES_NAME;
+            }
+
+            @Override
+            public JobSource<TestCaseInfo> source() {
+                return changed;
+            }
+
+            @Override
+            public RowTransformer<TestCaseInfo, MigrationRecord> transformer() {
+                return TestCaseMigrationJob.this.transformer();
+            }
+
+            @Override
+            public JobSinks<MigrationRecord> sinks(SinkMode mode) {
+                return TestCaseMigrationJob.this.sinks(mode, true);
+            }
+
+            @Override
+            public long payloadBytes(List<MigrationRecord> records) {
+                return TestCaseMigrationJob.this.payloadBytes(records);
+            }
+        };
+    }
+
+    @Override
+    public long payloadBytes(List<MigrationRecord> records) {
+        return AdaptiveBatchSizer.payloadBytes(records);
+    }
+
+    /**
+     * 分配 test_case_pool 主键并填入每条步骤的 caseId
+     * 写入失败回滚后重试时沿用同一个主键
+     */
+    private MigrationRecord assignPoolId(MigrationRecord record) {
+        int poolId = idAllocator.next("test_case_pool");
+        record.getPool().setId(poolId);
+        for (TestCaseStep step : record.getSteps()) {
+            step.setCaseId(poolId);
+        }
+        return record;
+    }
+
+    private static void propagatePoolId(MigrationRecord record) {
+        Integer poolId = record.getPool().getId();
+        if (poolId == null) {
+            throw new IllegalStateException(String.format(
+                "获取test_case_pool的ID失败，原记录ID=%d", record.getSourceId()));
+        }
+        for (TestCaseStep step : record.getSteps()) {
+            step.setCaseId(poolId);
+        }
+    }
+
+    /**
+     * test_case_pool，主键已预分配时按原主键写入，否则写入后回填主键
+     * 需要记录对应关系时在同一事务中写入 migration_source_map
+     */
+    private class PoolSink implements JobSink<MigrationRecord> {
+
+        private final CaseSink sink;
+
+        private final boolean preallocated;
+
+        private final boolean replace;
+
+        private PoolSink(CaseSink sink, boolean preallocated, boolean replace) {
+            this.sink = sink;
+            this.preallocated = preallocated;
+            this.replace = replace;
+        }
+
+        @Override
+        public String table() {
+            return "test_case_pool";
+        }
+
+        @Override
+        public String phase() {
+            return MigrationPhase.POOL_INSERT.getTag();
+        }
+
+        @Override
+        public int rowCount(MigrationRecord record) {
+            return 1;
+        }
+
+        @Override
+        public int write(List<MigrationRecord> records) {
+            List<TestCasePool> poolList = new ArrayList<>(records.size());
+            for (MigrationRecord record : records) {
+                if (!preallocated) {
+                    // 清除上一次（已回滚的）尝试回填的主键
+                    record.getPool().setId(null);
+                }
+                poolList.add(record.getPool());
+            }
+            if (replace) {
+                deletePrevious(records);
+            }
+            int inserted = preallocated ? sink.insertPoolsWithIds(poolList) : sink.insertPools(poolList);
+            if (updatedAtColumn != null) {
+                Map<Integer, SourceMapStore.Target> targets = new LinkedHashMap<>();
+                for (MigrationRecord record : records) {
+                    targets.put(record.getSourceId(),
+                                new SourceMapStore.Target(record.getPool().getId(), contentHash(record)));
+                }
+                sourceMapStore.save(NAME, targets);
+            }
+            return inserted;
+        }
+
+        /**
+         * 删除源记录原来对应的 test_case_pool 和 test_case_step
+         * 没有对应关系的记录（开启记录前迁移的、或上次迁移失败的）直接按新记录写入
+         */
+        private void deletePrevious(List<MigrationRecord> records) {
+            List<Integer> sourceIds = new ArrayList<>(records.size());
+            for (MigrationRecord record : records) {
+                sourceIds.add(record.getSourceId());
+            }
+            Map<Integer, SourceMapStore.Target> targets = sourceMapStore.findTargets(NAME, sourceIds);
+            if (targets.size() < records.size()) {
+                log.warn("{} 条变更记录没有找到原来写入的 test_case_pool，按新记录写入", records.size() - targets.size());
+            }
+            if (targets.isEmpty()) {
+                return;
+            }
+            List<Integer> poolIds = new ArrayList<>(targets.size());
+            for (SourceMapStore.Target target : targets.values()) {
+                poolIds.add(target.getTargetId());
+            }
+            testCaseStepMapper.delete(new QueryWrapper<TestCaseStep>().in("case_id", poolIds));
+            testCasePoolMapper.deleteByIds(poolIds);
+        }
+    }
+
+    /**
+     * upsert 写入方式的 test_case_pool
+     *
+     * 按 migration_source_map 把一批记录分为三类：内容哈希与上次写入相同的跳过；
+     * 已迁移但内容变化的按原主键覆盖 pool，并删除原来的步骤，由 StepSink 重新插入；
+     * 未迁移过的按新记录插入。三类记录的对应关系和内容哈希在同一事务中更新
+     */
+    private class UpsertPoolSink implements JobSink<MigrationRecord> {
+
+        @Override
+        public String table() {
+            return "test_case_pool";
+        }
+
+        @Override
+        public String phase() {
+            return MigrationPhase.POOL_INSERT.getTag();
+        }
+
+        @Override
+        public int rowCount(MigrationRecord record) {
+            return 1;
+        }
+
+        /**
+         * @return 写入或确认未变化的记录数
+         */
+        @Override
+        public int write(List<MigrationRecord> records) {
+            List<Integer> sourceIds = new ArrayList<>(records.size());
+            for (MigrationRecord record : records) {
+                sourceIds.add(record.getSourceId());
+            }
+            Map<Integer, SourceMapStore.Target> existing = sourceMapStore.findTargets(NAME, sourceIds);
+
+            List<TestCasePool> updates = new ArrayList<>();
+            List<TestCasePool> inserts = new ArrayList<>();
+            List<MigrationRecord> changed = new ArrayList<>();
+            Map<Integer, Long> hashes = new LinkedHashMap<>();
+            for (MigrationRecord record : records) {
+                long hash = contentHash(record);
+                SourceMapStore.Target target = existing.get(record.getSourceId());
+                record.setUnchanged(target != null && target.getRowHash() != null && target.getRowHash() == hash);
+                if (record.isUnchanged()) {
+                    record.getPool().setId(target.getTargetId());
+                    continue;
+                }
+                if (target != null) {
+                    record.getPool().setId(target.getTargetId());
+                    updates.add(record.getPool());
+                } else {
+                    if (idMode != IdMode.PREALLOCATED) {
+                        // 清除上一次（已回滚的）尝试回填的主键
+                        record.getPool().setId(null);
+                    }
+                    inserts.add(record.getPool());
+                }
+                changed.add(record);
+                hashes.put(record.getSourceId(), hash);
+            }
+
+            if (!updates.isEmpty()) {
+                List<Integer> poolIds = new ArrayList<>(updates.size());
+                for (TestCasePool pool : updates) {
+                    poolIds.add(pool.getId());
+                }
+                upsertCaseSink.upsertPools(updates);
+                upsertCaseSink.deleteSteps(poolIds);
+            }
+            if (!inserts.isEmpty()) {
+                int inserted = idMode == IdMode.PREALLOCATED
+                        ? upsertCaseSink.insertPoolsWithIds(inserts) : upsertCaseSink.insertPools(inserts);
+                if (inserted != inserts.size()) {
+                    throw new IllegalStateException(String.format(
+                        "批量插入test_case_pool失败，期望插入%d条，实际插入%d条", inserts.size(), inserted));
+                }
+            }
+
+            Map<Integer, SourceMapStore.Target> targets = new LinkedHashMap<>();
+            for (MigrationRecord record : changed) {
+                targets.put(record.getSourceId(), new SourceMapStore.Target(record.getPool().getId(),
+                                                                           hashes.get(record.getSourceId())));
+            }
+            sourceMapStore.save(NAME, targets);
+            log.debug("upsert test_case_pool：插入 {} 条，覆盖 {} 条，未变化 {} 条",
+                      inserts.size(), updates.size(), records.size() - changed.size());
+            return records.size();
+        }
+    }
+
+    private static long contentHash(MigrationRecord record) {
+        return ContentHash.of(record.getPool(), record.getSteps());
+    }
+
+    /**
+     * test_case_step，caseId 已由 assignPoolId 或 propagatePoolId 填充
+     * upsert 写入方式下跳过内容未变化的记录
+     */
+    private static class StepSink implements JobSink<MigrationRecord> {
+
+        private final CaseSink sink;
+
+        private StepSink(CaseSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public String table() {
+            return "test_case_step";
+        }
+
+        @Override
+        public String phase() {
+            return MigrationPhase.STEP_INSERT.getTag();
+        }
+
+        @Override
+        public int rowCount(MigrationRecord record) {
+            return record.isUnchanged() ? 0 : record.getSteps().size();
+        }
+
+        @Override
+        public int write(List<MigrationRecord> records) {
+            List<TestCaseStep> stepList = new ArrayList<>();
+            for (MigrationRecord record : records) {
+                if (record.isUnchanged()) {
+                    continue;
+                }
+                for (TestCaseStep step : record.getSteps()) {
+                    step.setId(null);
+                    stepList.add(step);
+                }
+            }
+            return sink.insertSteps(stepList);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.datamigration.service.metrics;
+
+import com.example.datamigration.service.pipeline.PipelineStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 迁移指标，注册到 Micrometer，通过 /actuator/metrics 查看
+ *
+ * 计数器和各阶段耗时分布跨多次迁移累计；吞吐、队列深度和预计剩余时间是当前正在运行的迁移的瞬时值，
+ * 多个迁移任务同时运行时取各任务之和（预计剩余时间取最大值），没有运行中的迁移时为0。
+ * 写入阶段按目标表区分，phase 标签由各任务的写入器提供（如 pool_insert、step_insert）
+ */
+@Component
+public class MigrationMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Timer> phaseTimers = new ConcurrentHashMap<>();
+
+    private final Counter rowsRead;
+
+    private final Counter rowsWritten;
+
+    private final Counter rowsFailed;
+
+    private final Counter stepsWritten;
+
+    /**
+     * 运行中迁移的进度来源
+     */
+    private final Set<ProgressSource> running = ConcurrentHashMap.newKeySet();
+
+    public MigrationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (MigrationPhase phase : MigrationPhase.values()) {
+            phaseTimer(phase.getTag());
+        }
+
+        rowsRead = Counter.builder("migration.rows.read").description("已读取的源记录数").register(registry);
+        rowsWritten = Counter.builder("migration.rows.written").description("已提交的成功记录数").register(registry);
+        rowsFailed = Counter.builder("migration.rows.failed").description("失败记录数").register(registry);
+        stepsWritten = Counter.builder("migration.steps.written").description("已提交的步骤数").register(registry);
+
+        gauge(registry, "migration.throughput", "rows_read", "当前迁移每秒读取的源记录数",
+              MigrationProgress::getRowsReadPerSecond);
+        gauge(registry, "migration.throughput", "rows_written", "当前迁移每秒提交的成功记录数",
+              MigrationProgress::getRowsWrittenPerSecond);
+        gauge(registry, "migration.throughput", "steps_written", "当前迁移每秒提交的步骤数",
+              MigrationProgress::getStepsWrittenPerSecond);
+        Gauge.builder("migration.eta", this, MigrationMetrics::maxEtaSeconds)
+                .description("当前迁移预计剩余时间")
+                .baseUnit("seconds")
+                .register(registry);
+        for (String queue : new String[]{PipelineStats.READ_QUEUE, PipelineStats.WRITE_QUEUE}) {
+            Gauge.builder("migration.queue.depth", this, m -> m.value(p -> p.getQueueDepths().get(queue)))
+                    .description("阶段之间排队中的批次数")
+                    .tag("queue", queue.toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 开始一次迁移时绑定其进度来源
+     */
+    public void bind(ProgressSource source) {
+        running.add(source);
+    }
+
+    /**
+     * 迁移结束后解除绑定
+     */
+    public void unbind(ProgressSource source) {
+        running.remove(source);
+    }
+
+    /**
+     * 记录一个批次在某个阶段的耗时
+     *
+     * @param phase 阶段
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(MigrationPhase phase, long nanos) {
+        record(phase.getTag(), nanos);
+    }
+
+    /**
+     * 记录一个批次在某个阶段的耗时
+     *
+     * @param phase phase 标签，如某张目标表的写入
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(String phase, long nanos) {
+        phaseTimer(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 累加读取阶段读出的源记录数
+     */
+    public void rowsRead(int count) {
+        rowsRead.increment(count);
+    }
+
+    /**
+     * 累加一个已提交批次的成功、失败记录数和子表行数（步骤数）
+     */
+    public void committed(int rows, int failed, int steps) {
+        rowsWritten.increment(rows);
+        rowsFailed.increment(failed);
+        stepsWritten.increment(steps);
+    }
+
+    private void gauge(MeterRegistry registry, String name, String kind, String description,
+                       Function<MigrationProgress, Number> value) {
+        Gauge.builder(name, this, m -> m.value(value))
+                .description(description)
+                .tag("kind", kind)
+                .baseUnit("per_second")
+                .register(registry);
+    }
+
+    private Timer phaseTimer(String phase) {
+        return phaseTimers.computeIfAbsent(phase, tag -> Timer.builder("migration.batch.latency")
+                .description("每批数据在各阶段的耗时")
+                .tag("phase", tag)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private double value(Function<MigrationProgress, Number> value) {
+        double sum = 0;
+        for (ProgressSource source : running) {
+            Number number = value.apply(source.progress());
+            sum += number == null ? 0 : number.doubleValue();
+        }
+        return sum;
+    }
+
+    private double maxEtaSeconds() {
+        double max = 0;
+        for (ProgressSource source : running) {
+            Long eta = source.progress().getEtaSeconds();
+            max = Math.max(max, eta == null ? 0 : eta);
+        }
+        return max;
+    }
+
+    /**
+     * 可以生成实时进度的对象，即运行中的迁移上下文
+     */
+    public interface ProgressSource {
+        MigrationProgress progress();
+    }
+}
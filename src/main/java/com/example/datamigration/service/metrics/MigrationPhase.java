@@ -0,0 +1,32 @@
+package com.example.datamigration.service.metrics;
+
+/**
+ * 批次处理的各个阶段，分别统计耗时分布
+ */
+public enum MigrationPhase {
+
+    /** 读取一批源数据 */
+    READ("read"),
+
+    /** 转换一批源数据（测试用例迁移中为解析step JSON并构建目标对象） */
+    PARSE("parse"),
+
+    /** 批量插入 test_case_pool */
+    POOL_INSERT("pool_insert"),
+
+    /** 批量插入 test_case_step */
+    STEP_INSERT("step_insert");
+
+    private final String tag;
+
+    MigrationPhase(String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * @return 指标标签值
+     */
+    public String getTag() {
+        return tag;
+    }
+}
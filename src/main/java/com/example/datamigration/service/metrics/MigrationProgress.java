@@ -0,0 +1,69 @@
+package com.example.datamigration.service.metrics;
+
+import com.example.datamigration.service.execution.RunState;
+import com.example.datamigration.service.pipeline.PipelineStats;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 正在运行的迁移的实时进度
+ * 速率按本次迁移开始以来的平均值计算
+ */
+@Data
+public class MigrationProgress {
+
+    /** 迁移任务名 */
+    private String jobName;
+
+    /** 迁移运行ID */
+    private String runId;
+
+    /** 已运行时间（秒） */
+    private double elapsedSeconds;
+
+    /** 预估总记录数 */
+    private long estimatedTotal;
+
+    /** 已读取的源记录数 */
+    private long rowsRead;
+
+    /** 已提交的成功记录数 */
+    private long rowsWritten;
+
+    /** 失败记录数 */
+    private long rowsFailed;
+
+    /** 已提交的子表行数（测试用例迁移中为步骤数） */
+    private long stepsWritten;
+
+    /** 每秒读取的源记录数 */
+    private double rowsReadPerSecond;
+
+    /** 每秒提交的成功记录数 */
+    private double rowsWrittenPerSecond;
+
+    /** 每秒提交的步骤数 */
+    private double stepsWrittenPerSecond;
+
+    /** 完成百分比（成功 + 失败）/ 预估总数 */
+    private double percentage;
+
+    /** 预计剩余时间（秒），尚无提交时为null */
+    private Long etaSeconds;
+
+    /** 阶段之间排队中的批次数，所有分区累加 */
+    private Map<String, Integer> queueDepths;
+
+    /** 各分区当前的批量大小 */
+    private Map<Integer, Integer> batchSizes;
+
+    /** 流水线各阶段忙碌/空闲耗时 */
+    private Map<String, PipelineStats.StageSnapshot> stageStats;
+
+    /** 控制状态：运行、暂停中、已暂停或取消中 */
+    private RunState state;
+
+    /** 各分区已提交的最后一条源记录ID，暂停或取消后从这里继续，key为分区序号 */
+    private Map<Integer, Integer> resumePositions;
+}
@@ -0,0 +1,194 @@
+package com.example.datamigration.service.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 读取 → 转换 → 写入 三阶段迁移流水线
+ *
+ * 读取和转换阶段各自运行在独立线程上，写入阶段运行在调用 run() 的线程上，
+ * 因此写入使用的数据库连接和事务始终绑定在调用线程。
+ * 阶段之间通过有界队列连接：写入当前批次的同时可以读取和解析后续批次，
+ * 下游处理不过来时队列写满，上游阻塞等待，内存中的批次数保持有界。
+ *
+ * 任一阶段失败时，中断其上游阶段，并向下游发送结束标记，已经产出的批次仍会被下游处理完，
+ * run() 在所有阶段结束后抛出首个失败
+ *
+ * @param <S> 源记录类型
+ * @param <T> 转换后的批次类型
+ */
+@Slf4j
+public class MigrationPipeline<S, T> {
+
+    private final String name;
+
+    private final int queueCapacity;
+
+    private final PipelineStats stats;
+
+    private final Thread.Builder stageThreads;
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * @param name 流水线名称，用作阶段线程名前缀
+     * @param queueCapacity 阶段之间的队列容量（单位：批）
+     * @param stats 阶段耗时统计
+     */
+    public MigrationPipeline(String name, int queueCapacity, PipelineStats stats) {
+        this(name, queueCapacity, stats, Thread.ofPlatform().daemon(true));
+    }
+
+    /**
+     * @param name 流水线名称，用作阶段线程名前缀
+     * @param queueCapacity 阶段之间的队列容量（单位：批）
+     * @param stats 阶段耗时统计
+     * @param stageThreads 读取、转换阶段的线程构造器（平台线程或虚拟线程）
+     */
+    public MigrationPipeline(String name, int queueCapacity, PipelineStats stats, Thread.Builder stageThreads) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("队列容量必须大于0: " + queueCapacity);
+        }
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.stats = stats;
+        this.stageThreads = stageThreads;
+    }
+
+    /**
+     * 运行流水线直到源数据读完
+     *
+     * @param source 读取下一批源数据，返回空列表表示读完
+     * @param transformer 把一批源数据转换为待写入的批次
+     * @param sink 写入一个批次
+     * @throws Exception 任一阶段失败时抛出首个失败
+     */
+    public void run(Supplier<List<S>> source,
+                    Function<List<S>, T> transformer,
+                    Consumer<T> sink) throws Exception {
+        BlockingQueue<Optional<List<S>>> readQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Optional<T>> writeQueue = new ArrayBlockingQueue<>(queueCapacity);
+        stats.registerQueues(readQueue, writeQueue);
+        try {
+            runStages(source, transformer, sink, readQueue, writeQueue);
+        } finally {
+            stats.unregisterQueues(readQueue, writeQueue);
+        }
+    }
+
+    private void runStages(Supplier<List<S>> source,
+                           Function<List<S>, T> transformer,
+                           Consumer<T> sink,
+                           BlockingQueue<Optional<List<S>>> readQueue,
+                           BlockingQueue<Optional<T>> writeQueue) throws Exception {
+
+        Thread readThread = startStage(name + "-reader", () -> {
+            try {
+                while (failure.get() == null) {
+                    long begin = System.nanoTime();
+                    List<S> batch = source.get();
+                    long read = System.nanoTime();
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    stats.addBusy(PipelineStage.READ, read - begin);
+
+                    readQueue.put(Optional.of(batch));
+                    stats.addIdle(PipelineStage.READ, System.nanoTime() - read);
+                }
+            } catch (InterruptedException e) {
+                // 下游已失败，直接退出
+                return;
+            } catch (Throwable t) {
+                fail(t);
+            }
+            putEnd(readQueue);
+        });
+
+        Thread transformThread = startStage(name + "-transformer", () -> {
+            try {
+                while (true) {
+                    long begin = System.nanoTime();
+                    Optional<List<S>> item = readQueue.take();
+                    long taken = System.nanoTime();
+                    stats.addIdle(PipelineStage.TRANSFORM, taken - begin);
+                    if (item.isEmpty()) {
+                        break;
+                    }
+
+                    T transformed = transformer.apply(item.get());
+                    long done = System.nanoTime();
+                    stats.addBusy(PipelineStage.TRANSFORM, done - taken);
+
+                    writeQueue.put(Optional.of(transformed));
+                    stats.addIdle(PipelineStage.TRANSFORM, System.nanoTime() - done);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Throwable t) {
+                fail(t);
+                readThread.interrupt();
+            }
+            putEnd(writeQueue);
+        });
+
+        try {
+            while (true) {
+                long begin = System.nanoTime();
+                Optional<T> item = writeQueue.take();
+                long taken = System.nanoTime();
+                stats.addIdle(PipelineStage.WRITE, taken - begin);
+                if (item.isEmpty()) {
+                    break;
+                }
+
+                sink.accept(item.get());
+                stats.addBusy(PipelineStage.WRITE, System.nanoTime() - taken);
+            }
+        } catch (Throwable t) {
+            fail(t);
+            readThread.interrupt();
+            transformThread.interrupt();
+        }
+
+        readThread.join();
+        transformThread.join();
+
+        Throwable cause = failure.get();
+        if (cause instanceof Exception e) {
+            throw e;
+        }
+        if (cause != null) {
+            throw new IllegalStateException("流水线 " + name + " 执行失败", cause);
+        }
+    }
+
+    private Thread startStage(String threadName, Runnable body) {
+        return stageThreads.name(threadName).start(body);
+    }
+
+    private void fail(Throwable t) {
+        if (failure.compareAndSet(null, t)) {
+            log.error("流水线 {} 阶段 {} 失败", name, Thread.currentThread().getName(), t);
+        }
+    }
+
+    /**
+     * 向下游发送结束标记
+     */
+    private <E> void putEnd(BlockingQueue<Optional<E>> queue) {
+        try {
+            queue.put(Optional.empty());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
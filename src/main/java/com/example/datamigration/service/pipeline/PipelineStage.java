@@ -0,0 +1,16 @@
+package com.example.datamigration.service.pipeline;
+
+/**
+ * 迁移流水线的阶段
+ */
+public enum PipelineStage {
+
+    /** 从源表读取 */
+    READ,
+
+    /** 解析JSON并构建目标对象 */
+    TRANSFORM,
+
+    /** 写入目标表 */
+    WRITE
+}
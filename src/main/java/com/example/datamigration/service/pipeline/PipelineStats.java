@@ -0,0 +1,126 @@
+package com.example.datamigration.service.pipeline;
+
+import lombok.Data;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 流水线各阶段的忙碌/空闲耗时统计
+ *
+ * 忙碌时间是阶段实际处理批次的时间，空闲时间是阶段等待上游数据或等待下游队列腾出空间的时间。
+ * 忙碌占比最高的阶段就是整条流水线的瓶颈。同一次迁移的所有分区共享一个实例。
+ * 运行中的流水线把阶段之间的队列登记在这里，用于查看当前队列深度
+ */
+public class PipelineStats {
+
+    /** 读取→转换队列 */
+    public static final String READ_QUEUE = "READ_TRANSFORM";
+
+    /** 转换→写入队列 */
+    public static final String WRITE_QUEUE = "TRANSFORM_WRITE";
+
+    private final Map<PipelineStage, Counter> counters = new EnumMap<>(PipelineStage.class);
+
+    private final Set<Collection<?>> readQueues = ConcurrentHashMap.newKeySet();
+
+    private final Set<Collection<?>> writeQueues = ConcurrentHashMap.newKeySet();
+
+    public PipelineStats() {
+        for (PipelineStage stage : PipelineStage.values()) {
+            counters.put(stage, new Counter());
+        }
+    }
+
+    /**
+     * 累加一次批次处理耗时
+     */
+    public void addBusy(PipelineStage stage, long nanos) {
+        Counter counter = counters.get(stage);
+        counter.busyNanos.add(nanos);
+        counter.batches.increment();
+    }
+
+    /**
+     * 累加一次等待耗时
+     */
+    public void addIdle(PipelineStage stage, long nanos) {
+        counters.get(stage).idleNanos.add(nanos);
+    }
+
+    /**
+     * 登记一条运行中流水线的两个队列
+     */
+    void registerQueues(Collection<?> readQueue, Collection<?> writeQueue) {
+        readQueues.add(readQueue);
+        writeQueues.add(writeQueue);
+    }
+
+    /**
+     * 流水线结束后注销其队列
+     */
+    void unregisterQueues(Collection<?> readQueue, Collection<?> writeQueue) {
+        readQueues.remove(readQueue);
+        writeQueues.remove(writeQueue);
+    }
+
+    /**
+     * 当前排队中的批次数，所有运行中的分区累加
+     *
+     * @return 队列名 → 排队批次数（含结束标记）
+     */
+    public Map<String, Integer> queueDepths() {
+        Map<String, Integer> depths = new LinkedHashMap<>();
+        depths.put(READ_QUEUE, readQueues.stream().mapToInt(Collection::size).sum());
+        depths.put(WRITE_QUEUE, writeQueues.stream().mapToInt(Collection::size).sum());
+        return depths;
+    }
+
+    /**
+     * 生成当前统计快照
+     *
+     * @return 阶段名 → 统计数据，按流水线顺序排列
+     */
+    public Map<String, StageSnapshot> snapshot() {
+        Map<String, StageSnapshot> snapshot = new LinkedHashMap<>();
+        counters.forEach((stage, counter) -> {
+            StageSnapshot s = new StageSnapshot();
+            s.setBatches(counter.batches.sum());
+            s.setBusyMillis(counter.busyNanos.sum() / 1_000_000);
+            s.setIdleMillis(counter.idleNanos.sum() / 1_000_000);
+            long total = s.getBusyMillis() + s.getIdleMillis();
+            s.setBusyRatio(total > 0 ? (double) s.getBusyMillis() / total : 0);
+            snapshot.put(stage.name(), s);
+        });
+        return snapshot;
+    }
+
+    private static class Counter {
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAdder idleNanos = new LongAdder();
+    }
+
+    /**
+     * 单个阶段的统计快照
+     */
+    @Data
+    public static class StageSnapshot {
+        /** 处理的批次数 */
+        private long batches;
+
+        /** 忙碌耗时（毫秒，所有分区累加） */
+        private long busyMillis;
+
+        /** 空闲等待耗时（毫秒，所有分区累加） */
+        private long idleMillis;
+
+        /** 忙碌占比 */
+        private double busyRatio;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.datamigration.service.reader;
+
+import com.example.datamigration.entity.TestCaseInfo;
+import com.example.datamigration.mapper.TestCaseInfoMapper;
+import com.example.datamigration.service.job.JobSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 源表 test_case_info 中已迁移过、之后又被修改的记录
+ * 即主键不大于 upToId 且更新时间列晚于 since 的记录，用于增量迁移
+ */
+public class ChangedTestCaseInfoSource implements JobSource<TestCaseInfo> {
+
+    /**
+     * 更新时间列名直接拼入SQL，只允许普通标识符
+     */
+    private static final Pattern COLUMN_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final TestCaseInfoMapper testCaseInfoMapper;
+
+    private final String column;
+
+    private final LocalDateTime since;
+
+    private final int upToId;
+
+    /**
+     * @param testCaseInfoMapper Mapper
+     * @param column 更新时间列名
+     * @param since 变更时间基准（不包含）
+     * @param upToId 主键上界（包含），即上一次增量迁移的高水位
+     * @throws IllegalArgumentException 列名不合法
+     */
+    public ChangedTestCaseInfoSource(TestCaseInfoMapper testCaseInfoMapper, String column, LocalDateTime since,
+                                     int upToId) {
+        if (column == null || !COLUMN_NAME.matcher(column).matches()) {
+            throw new IllegalArgumentException("更新时间列名不合法: " + column);
+        }
+        this.testCaseInfoMapper = testCaseInfoMapper;
+        this.column = column;
+        this.since = since;
+        this.upToId = upToId;
+    }
+
+    @Override
+    public Integer minId() {
+        return testCaseInfoMapper.selectChangedMinId(column, since, upToId);
+    }
+
+    @Override
+    public Integer maxId() {
+        return testCaseInfoMapper.selectChangedMaxId(column, since, upToId);
+    }
+
+    @Override
+    public long estimateCount() {
+        return testCaseInfoMapper.selectChangedCount(column, since, upToId);
+    }
+
+    /**
+     * 最后一个分区不设上界，这里统一截断到 upToId，之后的记录由新增部分的迁移处理
+     */
+    @Override
+    public List<TestCaseInfo> readAfter(int lastId, Integer endId, int limit) {
+        int end = endId == null ? upToId : Math.min(endId, upToId);
+        return testCaseInfoMapper.selectChangedAfterId(column, since, lastId, end, limit);
+    }
+
+    @Override
+    public long sizeOf(TestCaseInfo row) {
+        return TestCaseInfoSource.estimateSize(row);
+    }
+
+    @Override
+    public int idOf(TestCaseInfo row) {
+        return row.getId();
+    }
+
+    @Override
+    public String labelOf(TestCaseInfo row) {
+        return row.getTitle();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.datamigration.service.reader;
+
+import com.example.datamigration.service.execution.DbPermits;
+import com.example.datamigration.service.job.CursorJobSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 基于 MyBatis Cursor 的流式读取器
+ *
+ * 整个分区只执行一次 WHERE id > startAfterId AND id <= endId ORDER BY id 查询，
+ * 驱动按 fetchSize 逐段取回结果（MySQL需要在连接串中开启 useCursorFetch=true，否则会一次读入全部结果），
+ * 每次 nextBatch 从游标中取出最多 batchSize 条、累计不超过 maxBatchBytes 字节的记录，
+ * 单条记录再大，内存中也只保留当前批次和队列中的批次。
+ *
+ * 读取器第一次读取时打开独立的 SqlSession 并获取一个数据库访问许可，直到读完或 close() 才归还。
+ * 查询在一个语句内完成，只能看到查询开始时已提交的数据，迁移期间新插入的记录不会被读到
+ *
+ * @param <S> 源记录类型
+ */
+@Slf4j
+public class CursorSourceReader<S> implements SourceReader<S> {
+
+    private final SqlSessionFactory sqlSessionFactory;
+
+    private final DbPermits dbPermits;
+
+    private final CursorJobSource<S> source;
+
+    private final Integer endId;
+
+    private final long maxBatchBytes;
+
+    private int lastId;
+
+    private SqlSession session;
+
+    private Cursor<S> cursor;
+
+    private Iterator<S> rows;
+
+    private boolean exhausted;
+
+    /**
+     * @param sqlSessionFactory 会话工厂，读取器自行管理会话，不参与Spring事务
+     * @param dbPermits 数据库访问许可
+     * @param source 源表
+     * @param range 主键区间
+     * @param maxBatchBytes 每批记录的估算字节数上限，不大于0表示只按条数限制
+     */
+    public CursorSourceReader(SqlSessionFactory sqlSessionFactory, DbPermits dbPermits, CursorJobSource<S> source,
+                              IdRange range, long maxBatchBytes) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.dbPermits = dbPermits;
+        this.source = source;
+        this.lastId = range.getStartAfterId();
+        this.endId = range.getEndId();
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    @Override
+    public List<S> nextBatch(int batchSize) {
+        if (exhausted) {
+            return Collections.emptyList();
+        }
+        if (rows == null) {
+            open();
+        }
+
+        List<S> batch = new ArrayList<>(Math.min(batchSize, 1024));
+        long bytes = 0;
+        while (batch.size() < batchSize && (maxBatchBytes <= 0 || bytes < maxBatchBytes) && rows.hasNext()) {
+            S row = rows.next();
+            batch.add(row);
+            bytes += source.sizeOf(row);
+        }
+
+        if (batch.isEmpty()) {
+            exhausted = true;
+            close();
+            return Collections.emptyList();
+        }
+        lastId = source.idOf(batch.get(batch.size() - 1));
+        return batch;
+    }
+
+    @Override
+    public int getLastId() {
+        return lastId;
+    }
+
+    @Override
+    public boolean holdsConnection() {
+        return true;
+    }
+
+    /**
+     * 关闭游标和会话并归还许可，可以重复调用
+     */
+    @Override
+    public void close() {
+        if (session == null) {
+            return;
+        }
+        try {
+            cursor.close();
+        } catch (IOException e) {
+            log.warn("关闭游标失败: {}", e.getMessage());
+        } finally {
+            session.close();
+            session = null;
+            dbPermits.release();
+        }
+    }
+
+    private void open() {
+        dbPermits.acquire();
+        try {
+            session = sqlSessionFactory.openSession();
+            cursor = source.openCursor(session, lastId, endId);
+            rows = cursor.iterator();
+        } catch (RuntimeException e) {
+            if (session != null) {
+                session.close();
+                session = null;
+            }
+            dbPermits.release();
+            throw e;
+        }
+    }
+}
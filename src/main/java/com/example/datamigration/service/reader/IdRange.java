@@ -0,0 +1,59 @@
+package com.example.datamigration.service.reader;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 源表主键区间 (startAfterId, endId]
+ * 用于把源表的主键空间切分给多个工作线程
+ */
+@Value
+public class IdRange {
+
+    /** 分区序号，从0开始 */
+    int index;
+
+    /** 区间起点（不包含） */
+    int startAfterId;
+
+    /** 区间终点（包含），为null表示不设上界 */
+    Integer endId;
+
+    /**
+     * 按最小/最大主键把ID空间均匀切分为若干区间
+     * 第一个区间从minId开始，最后一个区间不设上界，迁移期间新插入的记录也能被读到
+     *
+     * @param minId 最小主键
+     * @param maxId 最大主键
+     * @param partitions 期望的分区数
+     * @return 按ID升序排列的区间，区间数不超过ID跨度
+     */
+    public static List<IdRange> split(int minId, int maxId, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("分区数必须大于0: " + partitions);
+        }
+        if (maxId < minId) {
+            throw new IllegalArgumentException(String.format("最大ID(%d)小于最小ID(%d)", maxId, minId));
+        }
+
+        long span = (long) maxId - minId + 1;
+        int count = (int) Math.min(partitions, span);
+        List<IdRange> ranges = new ArrayList<>(count);
+
+        long start = (long) minId - 1;
+        for (int i = 0; i < count; i++) {
+            long end = (long) minId - 1 + span * (i + 1) / count;
+            Integer endId = (i == count - 1) ? null : (int) end;
+            ranges.add(new IdRange(i, (int) start, endId));
+            start = end;
+        }
+        return ranges;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d(%d, %s]", index, startAfterId, endId == null ? "+∞" : endId);
+    }
+}
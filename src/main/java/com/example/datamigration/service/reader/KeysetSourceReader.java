@@ -0,0 +1,92 @@
+package com.example.datamigration.service.reader;
+
+import com.example.datamigration.service.job.JobSource;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 基于主键游标（keyset/seek）的分页读取器
+ *
+ * 每页使用 WHERE id > lastId ORDER BY id LIMIT n 定位，MySQL可以直接在主键索引上seek，
+ * 每一页的代价与页码无关；迁移期间新插入的记录也会在后续页中被读到，
+ * 因此不依赖预先统计的总数来决定批次数，读到空页即结束
+ *
+ * 指定区间终点时只读取 (startAfterId, endId] 内的记录，用于分区并行迁移
+ *
+ * @param <S> 源记录类型
+ */
+public class KeysetSourceReader<S> implements SourceReader<S> {
+
+    private final JobSource<S> source;
+
+    /**
+     * 区间终点（包含），为null表示不设上界
+     */
+    private final Integer endId;
+
+    /**
+     * 已读取的最后一条记录的ID
+     */
+    private int lastId;
+
+    /**
+     * 数据是否已读完
+     */
+    private boolean exhausted;
+
+    public KeysetSourceReader(JobSource<S> source) {
+        this(source, 0);
+    }
+
+    /**
+     * @param source 源表
+     * @param startAfterId 从该ID之后开始读取（不包含该ID）
+     */
+    public KeysetSourceReader(JobSource<S> source, int startAfterId) {
+        this(source, startAfterId, null);
+    }
+
+    /**
+     * @param source 源表
+     * @param startAfterId 从该ID之后开始读取（不包含该ID）
+     * @param endId 读取到该ID为止（包含该ID），为null表示不设上界
+     */
+    public KeysetSourceReader(JobSource<S> source, int startAfterId, Integer endId) {
+        this.source = source;
+        this.lastId = startAfterId;
+        this.endId = endId;
+    }
+
+    /**
+     * 读取指定主键区间
+     *
+     * @param source 源表
+     * @param range 主键区间
+     * @return 读取器
+     */
+    public static <S> KeysetSourceReader<S> forRange(JobSource<S> source, IdRange range) {
+        return new KeysetSourceReader<>(source, range.getStartAfterId(), range.getEndId());
+    }
+
+    @Override
+    public List<S> nextBatch(int batchSize) {
+        if (exhausted) {
+            return Collections.emptyList();
+        }
+
+        List<S> batch = source.readAfter(lastId, endId, batchSize);
+        if (batch == null || batch.isEmpty()) {
+            exhausted = true;
+            return Collections.emptyList();
+        }
+
+        lastId = source.idOf(batch.get(batch.size() - 1));
+        return batch;
+    }
+
+    @Override
+    public int getLastId() {
+        return lastId;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.datamigration.service.reader;
+
+import java.util.Locale;
+
+/**
+ * 源表读取方式
+ */
+public enum ReaderMode {
+
+    /**
+     * 主键游标分页，每批一次 WHERE id > lastId ORDER BY id LIMIT n 查询，查询之间不占用连接
+     */
+    KEYSET,
+
+    /**
+     * 每个分区一次有序扫描，通过 MyBatis Cursor 逐行流式读取，
+     * 分区迁移期间独占一个连接，内存中只保留当前批次
+     */
+    CURSOR;
+
+    /**
+     * 解析读取方式，忽略大小写
+     *
+     * @param value 读取方式名称
+     * @return 读取方式
+     * @throws IllegalArgumentException 名称不合法
+     */
+    public static ReaderMode from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支持的读取方式: " + value);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.datamigration.service.reader;
+
+import java.util.List;
+
+/**
+ * 源数据读取器
+ * 按批次顺序读取源表中待迁移的记录
+ *
+ * @param <S> 源记录类型
+ */
+public interface SourceReader<S> extends AutoCloseable {
+
+    /**
+     * 读取下一批数据
+     *
+     * @param batchSize 本批最多读取的记录数
+     * @return 按ID升序排列的记录，返回空列表表示数据已读完
+     */
+    List<S> nextBatch(int batchSize);
+
+    /**
+     * 当前读取位置
+     *
+     * @return 已读取的最后一条记录的ID，尚未读取时为起始位置
+     */
+    int getLastId();
+
+    /**
+     * 是否在读取期间一直占用数据库连接
+     * 占用连接的读取器自行持有数据库访问许可，调用方读取时不再单独获取
+     *
+     * @return 流式读取器返回true
+     */
+    default boolean holdsConnection() {
+        return false;
+    }
+
+    /**
+     * 释放读取器占用的资源，分页读取器没有需要释放的资源
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.datamigration.service.reader;
+
+import com.example.datamigration.entity.TestCaseInfo;
+import com.example.datamigration.mapper.TestCaseInfoMapper;
+import com.example.datamigration.service.job.CursorJobSource;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.SqlSession;
+
+import java.util.List;
+
+/**
+ * 源表 test_case_info
+ */
+public class TestCaseInfoSource implements CursorJobSource<TestCaseInfo> {
+
+    private final TestCaseInfoMapper testCaseInfoMapper;
+
+    public TestCaseInfoSource(TestCaseInfoMapper testCaseInfoMapper) {
+        this.testCaseInfoMapper = testCaseInfoMapper;
+    }
+
+    @Override
+    public Integer minId() {
+        return testCaseInfoMapper.selectMinId();
+    }
+
+    @Override
+    public Integer maxId() {
+        return testCaseInfoMapper.selectMaxId();
+    }
+
+    @Override
+    public long estimateCount() {
+        return testCaseInfoMapper.selectTotalCount();
+    }
+
+    @Override
+    public List<TestCaseInfo> readAfter(int lastId, Integer endId, int limit) {
+        return endId == null
+                ? testCaseInfoMapper.selectAfterId(lastId, limit)
+                : testCaseInfoMapper.selectRangeAfterId(lastId, endId, limit);
+    }
+
+    @Override
+    public Cursor<TestCaseInfo> openCursor(SqlSession session, int startAfterId, Integer endId) {
+        TestCaseInfoMapper mapper = session.getMapper(TestCaseInfoMapper.class);
+        return endId == null ? mapper.cursorAfterId(startAfterId) : mapper.cursorRangeAfterId(startAfterId, endId);
+    }
+
+    @Override
+    public long sizeOf(TestCaseInfo row) {
+        return estimateSize(row);
+    }
+
+    /**
+     * 按字符数估算，step 是主要部分，足以判断批次是否过大
+     */
+    static long estimateSize(TestCaseInfo row) {
+        long size = 64;
+        if (row.getTitle() != null) {
+            size += 2L * row.getTitle().length();
+        }
+        if (row.getStep() != null) {
+            size += 2L * row.getStep().length();
+        }
+        return size;
+    }
+
+    @Override
+    public int idOf(TestCaseInfo row) {
+        return row.getId();
+    }
+
+    @Override
+    public String labelOf(TestCaseInfo row) {
+        return row.getTitle();
+    }
+}
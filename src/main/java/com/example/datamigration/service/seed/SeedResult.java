@@ -0,0 +1,25 @@
+package com.example.datamigration.service.seed;
+
+import lombok.Data;
+
+/**
+ * 合成数据写入结果
+ */
+@Data
+public class SeedResult {
+
+    /** 写入的记录数 */
+    private long rows;
+
+    /** 其中step为非法JSON的记录数 */
+    private long malformedRows;
+
+    /** 写入后源表的最大主键 */
+    private Integer maxId;
+
+    /** 耗时（毫秒） */
+    private long durationMillis;
+
+    /** 每秒写入记录数 */
+    private double rowsPerSecond;
+}
@@ -0,0 +1,81 @@
+package com.example.datamigration.service.seed;
+
+import com.example.datamigration.entity.TestCaseInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 向源表 test_case_info 批量写入合成数据，用于压测和端到端吞吐测试
+ *
+ * 仅在 seed profile 下启用，避免生产环境误写源表。
+ * 按块生成、按块写入，内存占用与总行数无关，主键由数据库自增生成
+ */
+@Slf4j
+@Service
+@Profile("seed")
+public class SeedService {
+
+    private static final String INSERT_SQL = "INSERT INTO test_case_info (title, step, suit, case_id) VALUES (?, ?, ?, ?)";
+
+    /** 每次 executeBatch 的记录数 */
+    private static final int CHUNK_SIZE = 5000;
+
+    /** 每写入多少条输出一次进度日志 */
+    private static final int LOG_EVERY = 1_000_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 写入合成数据
+     *
+     * @param rows 记录数
+     * @param spec 生成参数
+     * @return 写入结果
+     */
+    public SeedResult seed(long rows, SyntheticCaseSpec spec) {
+        if (rows < 1) {
+            throw new IllegalArgumentException("rows 必须大于0");
+        }
+        SyntheticCaseGenerator generator = new SyntheticCaseGenerator(spec);
+        long start = System.currentTimeMillis();
+        log.info("开始写入合成数据，记录数: {}, 步骤数: [{}, {}], 非法JSON比例: {}",
+                 rows, spec.getMinSteps(), spec.getMaxSteps(), spec.getMalformedRate());
+
+        List<Object[]> chunk = new ArrayList<>(CHUNK_SIZE);
+        long written = 0;
+        while (written < rows) {
+            int size = (int) Math.min(CHUNK_SIZE, rows - written);
+            chunk.clear();
+            for (int i = 0; i < size; i++) {
+                TestCaseInfo info = generator.next(null);
+                chunk.add(new Object[]{info.getTitle(), info.getStep(), info.getSuit(), info.getCaseId()});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, chunk,
+                                     new int[]{Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.INTEGER});
+            long before = written;
+            written += size;
+            if (before / LOG_EVERY != written / LOG_EVERY) {
+                log.info("合成数据写入进度: {}/{}", written, rows);
+            }
+        }
+
+        long duration = Math.max(1, System.currentTimeMillis() - start);
+        SeedResult result = new SeedResult();
+        result.setRows(written);
+        result.setMalformedRows(generator.getMalformedCount());
+        result.setMaxId(jdbcTemplate.queryForObject("SELECT MAX(id) FROM test_case_info", Integer.class));
+        result.setDurationMillis(duration);
+        result.setRowsPerSecond(written * 1000.0 / duration);
+        log.info("合成数据写入完成，记录数: {}, 非法JSON: {}, 耗时: {}ms",
+                 written, result.getMalformedRows(), duration);
+        return result;
+    }
+}
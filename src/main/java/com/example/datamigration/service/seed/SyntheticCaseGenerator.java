@@ -0,0 +1,135 @@
+package com.example.datamigration.service.seed;
+
+import com.example.datamigration.entity.TestCaseInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 合成 test_case_info 数据生成器，用于基准测试和压测
+ *
+ * 步骤数在 [minSteps, maxSteps] 之间偏向较小值分布（大部分用例步骤少，少数用例步骤很多），
+ * 步骤字段混合ASCII和中文字符，按 malformedRate 的比例生成非法JSON（截断、非数组、单引号）。
+ * 相同参数和种子生成的数据完全相同。非线程安全
+ */
+public class SyntheticCaseGenerator {
+
+    private static final String ASCII = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ";
+
+    private static final String CJK = "打开页面点击按钮输入用户名密码登录成功失败校验结果返回列表数据";
+
+    private static final String[] RESULTS = {"success", "fail", "skip"};
+
+    private final SyntheticCaseSpec spec;
+
+    private final SplittableRandom random;
+
+    /** 已生成的非法JSON记录数 */
+    private long malformedCount;
+
+    public SyntheticCaseGenerator(SyntheticCaseSpec spec) {
+        if (spec.getMinSteps() < 0 || spec.getMinSteps() > spec.getMaxSteps() || spec.getPayloadChars() < 1
+                || spec.getMalformedRate() < 0 || spec.getMalformedRate() > 1) {
+            throw new IllegalArgumentException(String.format(
+                "合成数据参数不合法: steps=[%d, %d], payloadChars=%d, malformedRate=%s",
+                spec.getMinSteps(), spec.getMaxSteps(), spec.getPayloadChars(), spec.getMalformedRate()));
+        }
+        this.spec = spec;
+        this.random = new SplittableRandom(spec.getSeed());
+    }
+
+    /**
+     * 生成一条源记录
+     *
+     * @param id 主键，为null时由数据库生成
+     * @return 源记录
+     */
+    public TestCaseInfo next(Integer id) {
+        TestCaseInfo info = new TestCaseInfo();
+        info.setId(id);
+        info.setTitle("用例-" + (id != null ? id : random.nextInt(1_000_000)) + "-" + text(12));
+        info.setSuit(random.nextInt(1, 200));
+        info.setCaseId(random.nextInt(1, Integer.MAX_VALUE));
+        String stepJson = stepJson(stepCount());
+        if (spec.getMalformedRate() > 0 && random.nextDouble() < spec.getMalformedRate()) {
+            stepJson = malformed(stepJson);
+            malformedCount++;
+        }
+        info.setStep(stepJson);
+        return info;
+    }
+
+    /**
+     * 生成一批主键连续的源记录
+     *
+     * @param firstId 第一条记录的主键
+     * @param count 记录数
+     * @return 源记录
+     */
+    public List<TestCaseInfo> batch(int firstId, int count) {
+        List<TestCaseInfo> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(next(firstId + i));
+        }
+        return batch;
+    }
+
+    /**
+     * 生成step字段JSON
+     *
+     * @param steps 步骤数
+     * @return JSON数组字符串
+     */
+    public String stepJson(int steps) {
+        StringBuilder json = new StringBuilder(steps * (spec.getPayloadChars() * 2 + 32) + 2);
+        json.append('[');
+        for (int i = 0; i < steps; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"").append(i + 1).append(". ").append(text(spec.getPayloadChars()))
+                .append("\",\"result\":\"").append(RESULTS[random.nextInt(RESULTS.length)]).append(' ')
+                .append(text(spec.getPayloadChars())).append("\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * @return 已生成的非法JSON记录数
+     */
+    public long getMalformedCount() {
+        return malformedCount;
+    }
+
+    private String malformed(String validJson) {
+        switch (random.nextInt(3)) {
+            case 0:
+                // 截断，常见于源库字段长度不足
+                return validJson.substring(0, Math.max(1, validJson.length() / 2));
+            case 1:
+                return "{\"name\":\"" + text(8) + "\"}";
+            default:
+                return "[{'name':'" + text(8) + "'}]";
+        }
+    }
+
+    /**
+     * 步骤数偏向较小值：min + (max - min) * u²
+     */
+    private int stepCount() {
+        double u = random.nextDouble();
+        return spec.getMinSteps() + (int) Math.round((spec.getMaxSteps() - spec.getMinSteps()) * u * u);
+    }
+
+    private String text(int chars) {
+        StringBuilder text = new StringBuilder(chars);
+        for (int i = 0; i < chars; i++) {
+            // 约四分之一为中文字符
+            text.append(random.nextInt(4) == 0
+                    ? CJK.charAt(random.nextInt(CJK.length()))
+                    : ASCII.charAt(random.nextInt(ASCII.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.datamigration.service.seed;
+
+import lombok.Data;
+
+/**
+ * 合成测试数据的参数
+ */
+@Data
+public class SyntheticCaseSpec {
+
+    /** 每条用例最少的步骤数 */
+    private int minSteps = 1;
+
+    /** 每条用例最多的步骤数 */
+    private int maxSteps = 10;
+
+    /** 步骤 name/result 字段的字符数 */
+    private int payloadChars = 32;
+
+    /** step字段为非法JSON的记录比例，0-1 */
+    private double malformedRate = 0;
+
+    /** 随机种子，相同参数和种子生成相同的数据 */
+    private long seed = 42;
+}
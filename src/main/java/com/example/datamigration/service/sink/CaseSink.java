@@ -0,0 +1,42 @@
+package com.example.datamigration.service.sink;
+
+import com.example.datamigration.entity.TestCasePool;
+import com.example.datamigration.entity.TestCaseStep;
+
+import java.util.List;
+
+/**
+ * 目标表批量写入器
+ * 在调用线程当前的事务中写入 test_case_pool 和 test_case_step
+ */
+public interface CaseSink {
+
+    /**
+     * @return 写入方式
+     */
+    SinkMode mode();
+
+    /**
+     * 批量插入测试用例池记录，插入后回填每条记录的主键
+     *
+     * @param poolList 测试用例池列表
+     * @return 插入的记录数
+     */
+    int insertPools(List<TestCasePool> poolList);
+
+    /**
+     * 按已分配的主键批量插入测试用例池记录，不回填主键
+     *
+     * @param poolList 已设置主键的测试用例池列表
+     * @return 插入的记录数
+     */
+    int insertPoolsWithIds(List<TestCasePool> poolList);
+
+    /**
+     * 批量插入测试用例步骤记录
+     *
+     * @param stepList 测试用例步骤列表
+     * @return 插入的记录数
+     */
+    int insertSteps(List<TestCaseStep> stepList);
+}
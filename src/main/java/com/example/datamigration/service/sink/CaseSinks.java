@@ -0,0 +1,35 @@
+package com.example.datamigration.service.sink;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按写入方式查找已注册的写入器
+ */
+@Component
+public class CaseSinks {
+
+    private final Map<SinkMode, CaseSink> sinks = new EnumMap<>(SinkMode.class);
+
+    public CaseSinks(List<CaseSink> caseSinks) {
+        for (CaseSink sink : caseSinks) {
+            sinks.put(sink.mode(), sink);
+        }
+    }
+
+    /**
+     * @param mode 写入方式
+     * @return 对应的写入器
+     * @throws IllegalArgumentException 该写入方式没有可用的写入器
+     */
+    public CaseSink get(SinkMode mode) {
+        CaseSink sink = sinks.get(mode);
+        if (sink == null) {
+            throw new IllegalArgumentException("写入方式 " + mode + " 没有可用的写入器");
+        }
+        return sink;
+    }
+}
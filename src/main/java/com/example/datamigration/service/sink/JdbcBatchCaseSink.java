@@ -0,0 +1,122 @@
+package com.example.datamigration.service.sink;
+
+import com.example.datamigration.entity.TestCasePool;
+import com.example.datamigration.entity.TestCaseStep;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * 使用JDBC预编译语句 addBatch/executeBatch 的写入器
+ *
+ * SQL文本固定，不随批量大小变化，驱动和服务端都可以复用；
+ * 连接串开启 rewriteBatchedStatements=true 后，MySQL驱动会按 max_allowed_packet
+ * 自动把批次改写为若干条多行INSERT发送，不会因单条SQL过大而失败。
+ * 通过JdbcTemplate获取连接，与MyBatis一样参与当前线程的Spring事务
+ */
+@Component
+public class JdbcBatchCaseSink implements CaseSink {
+
+    private static final String INSERT_POOL_SQL = "INSERT INTO test_case_pool (title, menu_id) VALUES (?, ?)";
+
+    private static final String INSERT_POOL_WITH_ID_SQL = "INSERT INTO test_case_pool (id, title, menu_id) VALUES (?, ?, ?)";
+
+    private static final String INSERT_STEP_SQL = "INSERT INTO test_case_step (name, result, case_id) VALUES (?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public SinkMode mode() {
+        return SinkMode.JDBC_BATCH;
+    }
+
+    @Override
+    public int insertPools(List<TestCasePool> poolList) {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_POOL_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (TestCasePool pool : poolList) {
+                    ps.setString(1, pool.getTitle());
+                    setInteger(ps, 2, pool.getMenuId());
+                    ps.addBatch();
+                }
+                int inserted = sumUpdateCounts(ps.executeBatch());
+
+                // 按插入顺序回填主键
+                int index = 0;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next() && index < poolList.size()) {
+                        poolList.get(index++).setId(keys.getInt(1));
+                    }
+                }
+                if (index != poolList.size()) {
+                    throw new SQLException(String.format(
+                        "test_case_pool生成主键数量不符，期望%d个，实际%d个", poolList.size(), index));
+                }
+                return inserted;
+            }
+        });
+    }
+
+    @Override
+    public int insertPoolsWithIds(List<TestCasePool> poolList) {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_POOL_WITH_ID_SQL)) {
+                for (TestCasePool pool : poolList) {
+                    ps.setInt(1, pool.getId());
+                    ps.setString(2, pool.getTitle());
+                    setInteger(ps, 3, pool.getMenuId());
+                    ps.addBatch();
+                }
+                return sumUpdateCounts(ps.executeBatch());
+            }
+        });
+    }
+
+    @Override
+    public int insertSteps(List<TestCaseStep> stepList) {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_STEP_SQL)) {
+                for (TestCaseStep step : stepList) {
+                    ps.setString(1, step.getName());
+                    ps.setString(2, step.getResult());
+                    setInteger(ps, 3, step.getCaseId());
+                    ps.addBatch();
+                }
+                return sumUpdateCounts(ps.executeBatch());
+            }
+        });
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+
+    /**
+     * 汇总批量执行的影响行数
+     * 驱动改写批次后每条语句返回 SUCCESS_NO_INFO，按成功1行计算
+     */
+    private static int sumUpdateCounts(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            if (count == Statement.SUCCESS_NO_INFO) {
+                total++;
+            } else if (count > 0) {
+                total += count;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.datamigration.service.sink;
+
+import java.util.Locale;
+
+/**
+ * 目标表写入方式
+ */
+public enum SinkMode {
+
+    /**
+     * MyBatis XML foreach 拼接多行 INSERT ... VALUES (...),(...)
+     */
+    XML,
+
+    /**
+     * JDBC 预编译语句 addBatch/executeBatch
+     * 配合连接串 rewriteBatchedStatements=true 使用
+     */
+    JDBC_BATCH,
+
+    /**
+     * LOAD DATA LOCAL INFILE，把一批记录编码为TSV流交给服务端批量导入
+     * 需要 migration.ids.mode=preallocated，连接串开启 allowLoadLocalInfile=true
+     */
+    LOAD_DATA,
+
+    /**
+     * 按源记录ID幂等写入：通过 migration_source_map 找到已迁移的记录，
+     * test_case_pool 使用 INSERT ... ON DUPLICATE KEY UPDATE，步骤先删除再插入，内容未变化的记录直接跳过。
+     * 重复迁移同一段数据不会产生重复记录
+     */
+    UPSERT;
+
+    /**
+     * 解析写入方式，忽略大小写，支持 jdbc-batch / jdbc_batch、load-data / load_data 两种写法
+     *
+     * @param value 写入方式名称
+     * @return 写入方式
+     * @throws IllegalArgumentException 名称不合法
+     */
+    public static SinkMode from(String value) {
+        try {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支持的写入方式: " + value);
+        }
+    }
+}
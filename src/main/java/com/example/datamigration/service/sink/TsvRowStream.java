@@ -0,0 +1,109 @@
+package com.example.datamigration.service.sink;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 把一批记录按 LOAD DATA 默认格式编码为TSV的输入流
+ *
+ * 字段以制表符分隔、记录以换行结尾，NULL 写作 \N，字段中的反斜杠、制表符、换行、回车和 \0 用反斜杠转义。
+ * 读取时逐条记录编码，内存中只保留当前一条记录的字节，不生成临时文件，也不复制整批数据
+ *
+ * @param <T> 记录类型
+ */
+public class TsvRowStream<T> extends InputStream {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Iterator<T> rows;
+
+    private final Function<T, Object[]> columns;
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    private byte[] current = EMPTY;
+
+    private int position;
+
+    /**
+     * @param rows 记录
+     * @param columns 把一条记录拆成各列的值，顺序与 LOAD DATA 语句中的列清单一致
+     */
+    public TsvRowStream(List<T> rows, Function<T, Object[]> columns) {
+        this.rows = rows.iterator();
+        this.columns = columns;
+    }
+
+    @Override
+    public int read() {
+        if (!fill()) {
+            return -1;
+        }
+        return current[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int copied = 0;
+        while (copied < length && fill()) {
+            int n = Math.min(length - copied, current.length - position);
+            System.arraycopy(current, position, buffer, offset + copied, n);
+            position += n;
+            copied += n;
+        }
+        return copied == 0 ? -1 : copied;
+    }
+
+    /**
+     * 当前记录读完时编码下一条
+     *
+     * @return 还有未读的字节时返回true
+     */
+    private boolean fill() {
+        while (position >= current.length) {
+            if (!rows.hasNext()) {
+                return false;
+            }
+            current = encode(columns.apply(rows.next()));
+            position = 0;
+        }
+        return true;
+    }
+
+    private byte[] encode(Object[] values) {
+        line.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            appendValue(values[i]);
+        }
+        line.append('\n');
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            line.append("\\N");
+            return;
+        }
+        String text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\0' -> line.append("\\0");
+                default -> line.append(c);
+            }
+        }
+    }
+}
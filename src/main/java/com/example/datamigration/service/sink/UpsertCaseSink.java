@@ -0,0 +1,110 @@
+package com.example.datamigration.service.sink;
+
+import com.example.datamigration.entity.TestCasePool;
+import com.example.datamigration.entity.TestCaseStep;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 幂等写入器
+ *
+ * 新记录的插入委托给 JdbcBatchCaseSink，另外提供按主键覆盖 test_case_pool 和按用例删除步骤两个操作，
+ * 由迁移任务根据 migration_source_map 决定每条记录走哪一种写法
+ */
+@Component
+public class UpsertCaseSink implements CaseSink {
+
+    private static final String UPSERT_POOL_SQL =
+        "INSERT INTO test_case_pool (id, title, menu_id) VALUES (?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE title = VALUES(title), menu_id = VALUES(menu_id)";
+
+    /**
+     * 按用例删除步骤时每条SQL最多包含的用例ID数
+     */
+    private static final int MAX_IN_LIST = 1000;
+
+    @Autowired
+    private JdbcBatchCaseSink jdbcBatchCaseSink;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public SinkMode mode() {
+        return SinkMode.UPSERT;
+    }
+
+    @Override
+    public int insertPools(List<TestCasePool> poolList) {
+        return jdbcBatchCaseSink.insertPools(poolList);
+    }
+
+    @Override
+    public int insertPoolsWithIds(List<TestCasePool> poolList) {
+        return jdbcBatchCaseSink.insertPoolsWithIds(poolList);
+    }
+
+    @Override
+    public int insertSteps(List<TestCaseStep> stepList) {
+        return jdbcBatchCaseSink.insertSteps(stepList);
+    }
+
+    /**
+     * 按已分配的主键写入测试用例池记录，主键已存在时覆盖原记录，不存在时插入
+     *
+     * @param poolList 已设置主键的测试用例池列表
+     * @return 写入的记录数
+     */
+    public int upsertPools(List<TestCasePool> poolList) {
+        if (poolList.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(UPSERT_POOL_SQL)) {
+                for (TestCasePool pool : poolList) {
+                    ps.setInt(1, pool.getId());
+                    ps.setString(2, pool.getTitle());
+                    if (pool.getMenuId() == null) {
+                        ps.setNull(3, Types.INTEGER);
+                    } else {
+                        ps.setInt(3, pool.getMenuId());
+                    }
+                    ps.addBatch();
+                }
+                // ON DUPLICATE KEY UPDATE 的影响行数为 1（插入）、2（更新）或 0（内容相同），不能用来核对
+                ps.executeBatch();
+                return null;
+            }
+        });
+        return poolList.size();
+    }
+
+    /**
+     * 删除若干用例的全部步骤
+     * test_case_step.case_id 上需要有索引
+     *
+     * @param caseIds 用例ID
+     * @return 删除的步骤数
+     */
+    public int deleteSteps(Collection<Integer> caseIds) {
+        List<Integer> ids = new ArrayList<>(caseIds);
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IN_LIST, ids.size()));
+            deleted += jdbcTemplate.update(
+                "DELETE FROM test_case_step WHERE case_id IN (" +
+                String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+                chunk.toArray());
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.datamigration.service.sink;
+
+import com.example.datamigration.entity.TestCasePool;
+import com.example.datamigration.entity.TestCaseStep;
+import com.example.datamigration.mapper.TestCasePoolMapper;
+import com.example.datamigration.mapper.TestCaseStepMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 使用MyBatis XML foreach 拼接多行INSERT的写入器
+ * 一批数据只执行一条SQL，但SQL随批量大小变化，每批都要重新渲染和解析
+ */
+@Component
+public class XmlCaseSink implements CaseSink {
+
+    @Autowired
+    private TestCasePoolMapper testCasePoolMapper;
+
+    @Autowired
+    private TestCaseStepMapper testCaseStepMapper;
+
+    @Override
+    public SinkMode mode() {
+        return SinkMode.XML;
+    }
+
+    @Override
+    public int insertPools(List<TestCasePool> poolList) {
+        return testCasePoolMapper.batchInsert(poolList);
+    }
+
+    @Override
+    public int insertPoolsWithIds(List<TestCasePool> poolList) {
+        return testCasePoolMapper.batchInsertWithIds(poolList);
+    }
+
+    @Override
+    public int insertSteps(List<TestCaseStep> stepList) {
+        return testCaseStepMapper.batchInsert(stepList);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.datamigration.service.spool;
+
+import com.example.datamigration.entity.TestCaseInfo;
+import com.example.datamigration.service.job.JobSource;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 以内存映射方式只读打开的快照文件，作为迁移任务的源表
+ *
+ * 记录区按 windowBytes 切分为若干映射窗口，相邻窗口重叠一条最长记录的长度，
+ * 任何一条记录都完整地落在它起始位置所在的窗口里。只使用绝对位置读取，不修改缓冲区状态，
+ * 多个分区线程可以同时读取同一个实例。字符串直接从映射区解码，不经过中间的字节数组
+ */
+public class SpoolFile implements JobSource<TestCaseInfo> {
+
+    /**
+     * 单个映射窗口的大小，MappedByteBuffer 最大只能映射 2GB
+     */
+    static final long DEFAULT_WINDOW_BYTES = 1L << 30;
+
+    @Getter
+    private final Path path;
+
+    private final long count;
+
+    private final int minId;
+
+    private final int maxId;
+
+    /**
+     * 记录区的结束位置
+     */
+    private final long dataEnd;
+
+    private final int[] indexIds;
+
+    private final long[] indexOffsets;
+
+    private final long windowBytes;
+
+    private final MappedByteBuffer[] windows;
+
+    private SpoolFile(Path path, long windowBytes) throws IOException {
+        this.path = path;
+        this.windowBytes = windowBytes;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SpoolFormat.HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // 读满文件头
+            }
+            header.flip();
+            if (header.remaining() < SpoolFormat.HEADER_BYTES || header.getInt() != SpoolFormat.MAGIC) {
+                throw new IOException("不是有效的快照文件: " + path);
+            }
+            int version = header.getInt();
+            if (version != SpoolFormat.VERSION) {
+                throw new IOException(String.format("快照文件版本 %d 不受支持: %s", version, path));
+            }
+            this.count = header.getLong();
+            this.minId = header.getInt();
+            this.maxId = header.getInt();
+            int maxRecordBytes = header.getInt();
+            this.dataEnd = header.getLong();
+            int indexEntries = header.getInt();
+
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, dataEnd,
+                                           (long) indexEntries * SpoolFormat.INDEX_ENTRY_BYTES);
+            this.indexIds = new int[indexEntries];
+            this.indexOffsets = new long[indexEntries];
+            for (int i = 0; i < indexEntries; i++) {
+                indexIds[i] = index.getInt();
+                indexOffsets[i] = index.getLong();
+            }
+
+            int windowCount = (int) Math.max(1, (dataEnd - SpoolFormat.HEADER_BYTES + windowBytes - 1) / windowBytes);
+            this.windows = new MappedByteBuffer[windowCount];
+            for (int i = 0; i < windowCount; i++) {
+                long start = SpoolFormat.HEADER_BYTES + i * windowBytes;
+                long size = Math.min(windowBytes + maxRecordBytes, dataEnd - start);
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.max(size, 0));
+            }
+        }
+    }
+
+    /**
+     * 打开快照文件，映射在通道关闭后仍然有效
+     *
+     * @param path 快照文件
+     * @return 快照
+     * @throws IOException 文件不存在或格式不正确
+     */
+    public static SpoolFile open(Path path) throws IOException {
+        return new SpoolFile(path, DEFAULT_WINDOW_BYTES);
+    }
+
+    static SpoolFile open(Path path, long windowBytes) throws IOException {
+        return new SpoolFile(path, windowBytes);
+    }
+
+    @Override
+    public Integer minId() {
+        return count == 0 ? null : minId;
+    }
+
+    @Override
+    public Integer maxId() {
+        return count == 0 ? null : maxId;
+    }
+
+    @Override
+    public long estimateCount() {
+        return count;
+    }
+
+    /**
+     * @return 快照中的记录数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * 读取 id 大于 lastId 的下一批记录
+     * 先按稀疏索引定位到 lastId 之前最近的索引点，再顺序跳过不超过 lastId 的记录
+     */
+    @Override
+    public List<TestCaseInfo> readAfter(int lastId, Integer endId, int limit) {
+        List<TestCaseInfo> batch = new ArrayList<>(Math.min(limit, 1024));
+        if (count == 0 || limit <= 0) {
+            return batch;
+        }
+        long offset = seek(lastId);
+        while (offset < dataEnd && batch.size() < limit) {
+            ByteBuffer window = windows[(int) ((offset - SpoolFormat.HEADER_BYTES) / windowBytes)];
+            int local = (int) ((offset - SpoolFormat.HEADER_BYTES) % windowBytes);
+            int bodyLength = window.getInt(local);
+            int id = window.getInt(local + 4);
+            if (endId != null && id > endId) {
+                break;
+            }
+            if (id > lastId) {
+                batch.add(decode(window, local + 4, id));
+            }
+            offset += 4 + bodyLength;
+        }
+        return batch;
+    }
+
+    @Override
+    public int idOf(TestCaseInfo row) {
+        return row.getId();
+    }
+
+    @Override
+    public String labelOf(TestCaseInfo row) {
+        return row.getTitle();
+    }
+
+    /**
+     * @return 最后一个 id 不大于 lastId 的索引点的位置，lastId 小于第一条记录时为记录区起点
+     */
+    private long seek(int lastId) {
+        int found = Arrays.binarySearch(indexIds, lastId);
+        int entry = found >= 0 ? found : -found - 2;
+        return entry < 0 ? SpoolFormat.HEADER_BYTES : indexOffsets[entry];
+    }
+
+    private static TestCaseInfo decode(ByteBuffer window, int body, int id) {
+        int nullMask = window.get(body + 4);
+        int titleLength = window.getInt(body + SpoolFormat.FIXED_BODY_BYTES - 4);
+        int titleStart = body + SpoolFormat.FIXED_BODY_BYTES;
+        int stepLength = window.getInt(titleStart + titleLength);
+        int stepStart = titleStart + titleLength + 4;
+
+        TestCaseInfo info = new TestCaseInfo();
+        info.setId(id);
+        info.setSuit((nullMask & SpoolFormat.NULL_SUIT) != 0 ? null : window.getInt(body + 5));
+        info.setCaseId((nullMask & SpoolFormat.NULL_CASE_ID) != 0 ? null : window.getInt(body + 9));
+        info.setTitle((nullMask & SpoolFormat.NULL_TITLE) != 0 ? null : string(window, titleStart, titleLength));
+        info.setStep((nullMask & SpoolFormat.NULL_STEP) != 0 ? null : string(window, stepStart, stepLength));
+        return info;
+    }
+
+    private static String string(ByteBuffer window, int start, int length) {
+        return StandardCharsets.UTF_8.decode(window.slice(start, length)).toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.datamigration.service.spool;
+
+/**
+ * 快照文件格式
+ *
+ * <pre>
+ * 文件头（40字节）：
+ *   int  magic          "TCSP"
+ *   int  version
+ *   long count          记录数
+ *   int  minId / maxId  记录数为0时均为0
+ *   int  maxRecordBytes 最长一条记录的字节数（含长度前缀）
+ *   long indexOffset    稀疏索引的起始位置，也是记录区的结束位置
+ *   int  indexEntries   稀疏索引条目数
+ * 记录区，按 id 升序：
+ *   int  bodyLength     以下字段的字节数
+ *   int  id
+ *   byte nullMask       bit0 suit、bit1 caseId、bit2 title、bit3 step 为 NULL
+ *   int  suit
+ *   int  caseId
+ *   int  titleLength + UTF-8字节
+ *   int  stepLength  + UTF-8字节
+ * 稀疏索引，每 INDEX_INTERVAL 条记录一条：
+ *   int  id
+ *   long offset
+ * </pre>
+ * 整数均为大端序
+ */
+final class SpoolFormat {
+
+    static final int MAGIC = 0x54435350;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_BYTES = 40;
+
+    static final int INDEX_ENTRY_BYTES = 12;
+
+    /**
+     * 每隔多少条记录写一条稀疏索引
+     */
+    static final int INDEX_INTERVAL = 1024;
+
+    static final int NULL_SUIT = 1;
+
+    static final int NULL_CASE_ID = 1 << 1;
+
+    static final int NULL_TITLE = 1 << 2;
+
+    static final int NULL_STEP = 1 << 3;
+
+    /**
+     * 记录体中两个字符串之前的定长部分：id、nullMask、suit、caseId、titleLength
+     */
+    static final int FIXED_BODY_BYTES = 4 + 1 + 4 + 4 + 4;
+
+    private SpoolFormat() {
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.datamigration.service.spool;
+
+import lombok.Data;
+
+/**
+ * 一次快照抽取的结果
+ */
+@Data
+public class SpoolResult {
+
+    /** 快照文件路径 */
+    private String path;
+
+    /** 抽取的记录数 */
+    private long rows;
+
+    /** 文件大小（字节） */
+    private long bytes;
+
+    /** 耗时（毫秒） */
+    private long durationMillis;
+
+    /** 每秒抽取的记录数 */
+    private double rowsPerSecond;
+}
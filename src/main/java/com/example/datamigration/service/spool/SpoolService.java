@@ -0,0 +1,138 @@
+package com.example.datamigration.service.spool;
+
+import com.example.datamigration.config.MigrationProperties;
+import com.example.datamigration.entity.TestCaseInfo;
+import com.example.datamigration.mapper.TestCaseInfoMapper;
+import com.example.datamigration.service.execution.DbPermits;
+import com.example.datamigration.service.reader.KeysetSourceReader;
+import com.example.datamigration.service.reader.SourceReader;
+import com.example.datamigration.service.reader.TestCaseInfoSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+/**
+ * 源表快照：抽取 test_case_info 到本地快照文件，迁移时从快照读取
+ *
+ * 抽取阶段只做单线程顺序读和顺序写，不转换、不写目标库，持有源表读取的时间尽量短；
+ * 加载阶段（test-case-spool 任务）从内存映射的快照读取，可以反复重放，不再访问源表。
+ * 抽取先写临时文件，完成后原子替换，替换前已打开的快照不受影响
+ */
+@Slf4j
+@Service
+public class SpoolService {
+
+    @Autowired
+    private TestCaseInfoMapper testCaseInfoMapper;
+
+    @Autowired
+    private DbPermits dbPermits;
+
+    @Autowired
+    private MigrationProperties migrationProperties;
+
+    /**
+     * 当前打开的快照，文件被替换后重新打开
+     */
+    private SpoolFile opened;
+
+    /**
+     * 已打开快照的文件标识（inode），抽取替换文件后会变化
+     */
+    private Object openedKey;
+
+    /**
+     * 抽取 test_case_info 的全部记录到快照文件
+     *
+     * @return 抽取结果
+     * @throws UncheckedIOException 写入快照文件失败
+     */
+    public SpoolResult extract() {
+        MigrationProperties.Spool config = migrationProperties.getSpool();
+        Path file = path();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long begin = System.currentTimeMillis();
+        log.info("开始抽取 test_case_info 快照到 {}", file);
+
+        long rows;
+        long bytes;
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            SourceReader<TestCaseInfo> reader = new KeysetSourceReader<>(new TestCaseInfoSource(testCaseInfoMapper));
+            try (SpoolWriter writer = new SpoolWriter(temp)) {
+                List<TestCaseInfo> batch;
+                while (!(batch = readBatch(reader, config.getExtractBatchSize())).isEmpty()) {
+                    for (TestCaseInfo info : batch) {
+                        writer.append(info);
+                    }
+                }
+                rows = writer.getCount();
+            }
+            bytes = Files.size(temp);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入快照文件失败: " + e.getMessage(), e);
+        }
+
+        SpoolResult result = new SpoolResult();
+        result.setPath(file.toAbsolutePath().toString());
+        result.setRows(rows);
+        result.setBytes(bytes);
+        result.setDurationMillis(System.currentTimeMillis() - begin);
+        result.setRowsPerSecond(rows * 1000.0 / Math.max(result.getDurationMillis(), 1));
+        log.info("快照抽取完成: {} 条记录，{} 字节，耗时 {}ms", rows, bytes, result.getDurationMillis());
+        return result;
+    }
+
+    /**
+     * 打开当前的快照文件，文件未变化时复用已打开的实例
+     *
+     * @return 快照
+     * @throws IllegalStateException 快照文件不存在或无法读取
+     */
+    public synchronized SpoolFile current() {
+        Path file = path();
+        try {
+            if (!Files.exists(file)) {
+                throw new IllegalStateException("快照文件不存在，请先调用 /api/migration/spool/extract: " + file);
+            }
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            Object key = attributes.fileKey() != null ? attributes.fileKey() : attributes.lastModifiedTime();
+            if (opened == null || !key.equals(openedKey)) {
+                opened = SpoolFile.open(file);
+                openedKey = key;
+                log.info("打开快照文件 {}，{} 条记录", file, opened.getCount());
+            }
+            return opened;
+        } catch (IOException e) {
+            throw new IllegalStateException("读取快照文件失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return 快照文件路径
+     */
+    public Path path() {
+        return Paths.get(migrationProperties.getSpool().getPath());
+    }
+
+    private List<TestCaseInfo> readBatch(SourceReader<TestCaseInfo> reader, int batchSize) {
+        dbPermits.acquire();
+        try {
+            return reader.nextBatch(batchSize);
+        } finally {
+            dbPermits.release();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.datamigration.service.spool;
+
+import com.example.datamigration.entity.TestCaseInfo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 按 SpoolFormat 顺序写入快照文件
+ * 记录必须按 id 严格升序追加，close() 时写入稀疏索引并回填文件头
+ */
+class SpoolWriter implements AutoCloseable {
+
+    private static final int BUFFER_BYTES = 1024 * 1024;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+    private ByteBuffer indexBuffer = ByteBuffer.allocate(64 * 1024);
+
+    private long position = SpoolFormat.HEADER_BYTES;
+
+    private long count;
+
+    private int minId;
+
+    private int maxId;
+
+    private int maxRecordBytes;
+
+    SpoolWriter(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING);
+        channel.position(SpoolFormat.HEADER_BYTES);
+    }
+
+    /**
+     * 追加一条记录
+     *
+     * @param info 源记录，id 必须大于上一条
+     */
+    void append(TestCaseInfo info) throws IOException {
+        int id = info.getId();
+        if (count > 0 && id <= maxId) {
+            throw new IllegalStateException(String.format("快照记录必须按ID升序写入，%d 不大于 %d", id, maxId));
+        }
+
+        byte[] title = info.getTitle() == null ? EMPTY : info.getTitle().getBytes(StandardCharsets.UTF_8);
+        byte[] step = info.getStep() == null ? EMPTY : info.getStep().getBytes(StandardCharsets.UTF_8);
+        int nullMask = (info.getSuit() == null ? SpoolFormat.NULL_SUIT : 0)
+                     | (info.getCaseId() == null ? SpoolFormat.NULL_CASE_ID : 0)
+                     | (info.getTitle() == null ? SpoolFormat.NULL_TITLE : 0)
+                     | (info.getStep() == null ? SpoolFormat.NULL_STEP : 0);
+        int bodyLength = SpoolFormat.FIXED_BODY_BYTES + title.length + 4 + step.length;
+        int recordBytes = 4 + bodyLength;
+
+        if (count % SpoolFormat.INDEX_INTERVAL == 0) {
+            addIndexEntry(id, position);
+        }
+
+        ByteBuffer target = recordBytes <= buffer.capacity() ? buffer : ByteBuffer.allocate(recordBytes);
+        if (target == buffer && buffer.remaining() < recordBytes) {
+            flush();
+        }
+        target.putInt(bodyLength)
+              .putInt(id)
+              .put((byte) nullMask)
+              .putInt(info.getSuit() == null ? 0 : info.getSuit())
+              .putInt(info.getCaseId() == null ? 0 : info.getCaseId())
+              .putInt(title.length).put(title)
+              .putInt(step.length).put(step);
+        if (target != buffer) {
+            flush();
+            target.flip();
+            writeFully(target);
+        }
+
+        if (count == 0) {
+            minId = id;
+        }
+        maxId = id;
+        count++;
+        position += recordBytes;
+        maxRecordBytes = Math.max(maxRecordBytes, recordBytes);
+    }
+
+    /**
+     * @return 已写入的记录数
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * @return 文件总字节数，close() 之后有效
+     */
+    long getPosition() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            long indexOffset = position;
+            indexBuffer.flip();
+            int indexEntries = indexBuffer.remaining() / SpoolFormat.INDEX_ENTRY_BYTES;
+            writeFully(indexBuffer);
+            position += (long) indexEntries * SpoolFormat.INDEX_ENTRY_BYTES;
+
+            ByteBuffer header = ByteBuffer.allocate(SpoolFormat.HEADER_BYTES)
+                    .putInt(SpoolFormat.MAGIC)
+                    .putInt(SpoolFormat.VERSION)
+                    .putLong(count)
+                    .putInt(minId)
+                    .putInt(maxId)
+                    .putInt(maxRecordBytes)
+                    .putLong(indexOffset)
+                    .putInt(indexEntries);
+            header.flip();
+            channel.write(header, 0);
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void addIndexEntry(int id, long offset) {
+        if (indexBuffer.remaining() < SpoolFormat.INDEX_ENTRY_BYTES) {
+            ByteBuffer larger = ByteBuffer.allocate(indexBuffer.capacity() * 2);
+            indexBuffer.flip();
+            larger.put(indexBuffer);
+            indexBuffer = larger;
+        }
+        indexBuffer.putInt(id).putLong(offset);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
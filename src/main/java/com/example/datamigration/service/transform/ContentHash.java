@@ -0,0 +1,58 @@
+package com.example.datamigration.service.transform;
+
+import com.example.datamigration.entity.TestCasePool;
+import com.example.datamigration.entity.TestCaseStep;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * 一条测试用例写入内容的哈希
+ *
+ * 按用例标题、目录及按顺序排列的各步骤计算，源记录转换后与从目标表读回的结果相同时哈希相同，
+ * 用于 upsert 写入方式判断内容是否变化，以及迁移后核对源表与目标表
+ */
+public final class ContentHash {
+
+    private ContentHash() {
+    }
+
+    /**
+     * 取 SHA-256 的前8字节
+     *
+     * @param pool 用例，只使用标题和目录
+     * @param steps 按顺序排列的步骤，只使用名称和结果
+     * @return 内容哈希
+     */
+    public static long of(TestCasePool pool, List<TestCaseStep> steps) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, pool.getTitle());
+        update(digest, pool.getMenuId() == null ? null : pool.getMenuId().toString());
+        for (TestCaseStep step : steps) {
+            update(digest, step.getName());
+            update(digest, step.getResult());
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    /**
+     * 写入长度前缀和内容，null与空字符串区分开
+     */
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(4).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.datamigration.service.transform;
+
+import com.example.datamigration.entity.TestCaseInfo;
+import com.example.datamigration.entity.TestCasePool;
+import com.example.datamigration.entity.TestCaseStep;
+import com.example.datamigration.service.job.JobRecord;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 一条转换完成、等待写入的记录
+ * 步骤的 caseId 在 test_case_pool 写入并取得主键后才会填充
+ */
+@Data
+public class MigrationRecord implements JobRecord {
+
+    /** 源记录 */
+    private final TestCaseInfo source;
+
+    /** 待写入的用例池记录 */
+    private final TestCasePool pool;
+
+    /** 待写入的步骤记录 */
+    private final List<TestCaseStep> steps;
+
+    /** upsert 写入方式下与已迁移的内容相同、本次跳过写入，每次写入尝试时重新判断 */
+    private boolean unchanged;
+
+    @Override
+    public int getSourceId() {
+        return source.getId();
+    }
+
+    @Override
+    public String getSourceLabel() {
+        return source.getTitle();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.datamigration.service.transform;
+
+import com.example.datamigration.entity.TestCaseStep;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * step字段JSON流式解码器
+ *
+ * 使用Jackson流式 JsonParser 逐个token读取，直接把 name/result 写入 TestCaseStep，
+ * 不再为每个步骤创建 LinkedHashMap，也不再为每行创建匿名 TypeReference。
+ *
+ * 接受和拒绝的输入与 readValue(json, List&lt;Map&lt;String, String&gt;&gt;) 保持一致：
+ * 顶层为 null 时视为没有步骤；顶层不是数组、数组元素不是对象、字段值是对象或数组、JSON语法错误时抛出异常；
+ * 数字、布尔等标量字段值按字符串处理，未知字段忽略，数组结束后的内容忽略
+ */
+@Component
+public class StepJsonDecoder {
+
+    private final JsonFactory jsonFactory;
+
+    public StepJsonDecoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * 解码step字段
+     *
+     * @param stepJson step字段的JSON字符串
+     * @return 步骤列表，caseId未填充
+     * @throws IOException JSON语法错误或结构不符合要求
+     */
+    public List<TestCaseStep> decode(String stepJson) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(stepJson)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw MismatchedInputException.from(parser, List.class, "No content to map due to end-of-input");
+            }
+            if (token == JsonToken.VALUE_NULL) {
+                return Collections.emptyList();
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, List.class,
+                        "Cannot deserialize step list from " + token + " token, expected START_ARRAY");
+            }
+
+            List<TestCaseStep> steps = new ArrayList<>();
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw MismatchedInputException.from(parser, TestCaseStep.class,
+                            "Cannot deserialize step from " + token + " token, expected START_OBJECT");
+                }
+                steps.add(readStep(parser));
+            }
+            return steps;
+        }
+    }
+
+    private TestCaseStep readStep(JsonParser parser) throws IOException {
+        TestCaseStep step = new TestCaseStep();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, String.class,
+                        "Cannot deserialize step field '" + field + "' from " + value + " token");
+            }
+
+            String text = value == JsonToken.VALUE_NULL ? null : parser.getText();
+            if ("name".equals(field)) {
+                step.setName(text);
+            } else if ("result".equals(field)) {
+                step.setResult(text);
+            }
+        }
+        return step;
+    }
+}
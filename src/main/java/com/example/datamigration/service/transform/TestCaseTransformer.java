@@ -0,0 +1,83 @@
+package com.example.datamigration.service.transform;
+
+import com.example.datamigration.entity.TestCaseInfo;
+import com.example.datamigration.entity.TestCasePool;
+import com.example.datamigration.entity.TestCaseStep;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * test_case_info → test_case_pool + test_case_step 转换器
+ * 负责解析step字段的JSON字符串并构建目标对象，不访问数据库
+ */
+@Slf4j
+@Component
+public class TestCaseTransformer {
+
+    @Autowired
+    private StepJsonDecoder stepJsonDecoder;
+
+    /**
+     * 转换一批源数据
+     * 单条记录转换失败不影响同批其他记录，失败记录放入批次的 failures 中
+     *
+     * @param batchData 按ID升序排列的源数据
+     * @return 转换后的批次
+     */
+    public TransformedBatch<MigrationRecord> transform(List<TestCaseInfo> batchData) {
+        TransformedBatch<MigrationRecord> batch = new TransformedBatch<>(new ArrayList<>(batchData.size()),
+                                                                         batchData.get(batchData.size() - 1).getId());
+        for (TestCaseInfo info : batchData) {
+            try {
+                batch.getRecords().add(transform(info));
+            } catch (Exception e) {
+                batch.getFailures().add(new TransformedBatch.Failure(info.getId(), info.getTitle(), e.getMessage()));
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * 转换单条记录
+     *
+     * @param info 源记录
+     * @return 待写入的记录
+     * @throws IllegalArgumentException 记录或ID为空
+     * @throws RuntimeException step字段JSON解析失败
+     */
+    public MigrationRecord transform(TestCaseInfo info) {
+        // 1. 数据校验
+        if (info == null || info.getId() == null) {
+            throw new IllegalArgumentException("记录或ID为空");
+        }
+
+        // 2. 构建test_case_pool
+        TestCasePool pool = new TestCasePool();
+        pool.setTitle(info.getTitle());
+        pool.setMenuId(info.getSuit());
+
+        // 3. 解析step JSON字符串
+        return new MigrationRecord(info, pool, parseSteps(info));
+    }
+
+    private List<TestCaseStep> parseSteps(TestCaseInfo info) {
+        String stepJson = info.getStep();
+        if (stepJson == null || stepJson.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        try {
+            // 流式解析JSON数组，直接构建TestCaseStep对象
+            return stepJsonDecoder.decode(stepJson);
+        } catch (Exception e) {
+            log.warn("ID={} 的step字段JSON解析失败: {}, step={}",
+                    info.getId(), e.getMessage(), stepJson);
+            throw new RuntimeException("JSON解析失败: " + e.getMessage(), e);
+        }
+    }
+}
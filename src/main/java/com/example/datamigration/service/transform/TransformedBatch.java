@@ -0,0 +1,47 @@
+package com.example.datamigration.service.transform;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 转换阶段的输出批次
+ * 包含转换成功待写入的记录，以及转换阶段就已确定失败的记录（如step JSON格式错误）
+ *
+ * @param <T> 待写入的记录类型
+ */
+@Data
+public class TransformedBatch<T> {
+
+    /** 转换成功的记录，保持源记录的ID顺序 */
+    private final List<T> records;
+
+    /** 转换失败的记录 */
+    private final List<Failure> failures = new ArrayList<>();
+
+    /** 本批源数据的最后一条记录ID */
+    private final int lastSourceId;
+
+    /**
+     * 本批源记录数（含转换失败的记录）
+     */
+    public int sourceCount() {
+        return records.size() + failures.size();
+    }
+
+    /**
+     * 迁移失败的源记录
+     */
+    @Data
+    public static class Failure {
+        /** 源记录ID */
+        private final int sourceId;
+
+        /** 源记录的简要说明，如标题 */
+        private final String label;
+
+        /** 失败原因 */
+        private final String message;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.datamigration.service.verify;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * 一段记录的校验和，与记录的读取顺序无关
+ * 同时累加行哈希的和与异或，两侧行数、和、异或都相同才认为一致
+ */
+@Getter
+@EqualsAndHashCode
+class ChunkDigest {
+
+    private long count;
+
+    private long sum;
+
+    private long xor;
+
+    void add(long rowHash) {
+        count++;
+        sum += rowHash;
+        xor ^= rowHash;
+    }
+
+    void merge(ChunkDigest other) {
+        count += other.count;
+        sum += other.sum;
+        xor ^= other.xor;
+    }
+
+    /**
+     * 把源记录ID和内容哈希混合为行哈希，同一内容出现在不同的源记录上不会互相抵消
+     *
+     * @param sourceId 源记录ID
+     * @param contentHash 内容哈希
+     * @return 行哈希
+     */
+    static long rowHash(int sourceId, long contentHash) {
+        long x = contentHash ^ (sourceId * 0x9E3779B97F4A7C15L);
+        x ^= x >>> 33;
+        x *= 0xFF51AFD7ED558CCDL;
+        x ^= x >>> 33;
+        x *= 0xC4CEB53FE1A85EC3L;
+        x ^= x >>> 33;
+        return x;
+    }
+}
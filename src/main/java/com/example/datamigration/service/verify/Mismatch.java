@@ -0,0 +1,19 @@
+package com.example.datamigration.service.verify;
+
+import lombok.Value;
+
+/**
+ * 一条核对不一致的记录
+ */
+@Value
+public class Mismatch {
+
+    /** 源记录ID */
+    int sourceId;
+
+    /** 对应的 test_case_pool 主键，目标表中没有时为null */
+    Integer targetId;
+
+    /** 不一致的原因 */
+    String reason;
+}
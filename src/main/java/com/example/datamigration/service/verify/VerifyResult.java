@@ -0,0 +1,48 @@
+package com.example.datamigration.service.verify;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一次迁移核对的结果
+ */
+@Data
+public class VerifyResult {
+
+    /**
+     * 是否按 migration_source_map 逐段核对；为false时没有对应关系，只能比较全表校验和，无法定位到记录
+     */
+    private boolean keyed;
+
+    /** 源表与目标表是否一致 */
+    private boolean matched;
+
+    /** 源表记录数 */
+    private long sourceRows;
+
+    /** 目标表参与核对的用例数 */
+    private long targetRows;
+
+    /** 转换失败、不会被迁移的源记录数 */
+    private long sourceFailedRows;
+
+    /** 目标表中没有对应源记录的用例数，仅逐段核对时统计 */
+    private long unmappedTargetRows;
+
+    /** 分段数 */
+    private int chunks;
+
+    /** 校验和不一致、逐条比较过的分段数 */
+    private int mismatchedChunks;
+
+    /** 不一致的记录数 */
+    private long mismatchCount;
+
+    /** 不一致的记录，最多 migration.verify.max-mismatches 条 */
+    private List<Mismatch> mismatches = new ArrayList<>();
+
+    /** 耗时（毫秒） */
+    private long durationMillis;
+}
@@ -0,0 +1,465 @@
+package com.example.datamigration.service.verify;
+
+import com.example.datamigration.config.MigrationProperties;
+import com.example.datamigration.entity.TestCaseInfo;
+import com.example.datamigration.entity.TestCasePool;
+import com.example.datamigration.entity.TestCaseStep;
+import com.example.datamigration.service.execution.DbPermits;
+import com.example.datamigration.service.execution.MigrationExecutors;
+import com.example.datamigration.service.incremental.SourceMapStore;
+import com.example.datamigration.service.job.JobSource;
+import com.example.datamigration.service.job.TestCaseMigrationJob;
+import com.example.datamigration.service.reader.IdRange;
+import com.example.datamigration.service.transform.ContentHash;
+import com.example.datamigration.service.transform.MigrationRecord;
+import com.example.datamigration.service.transform.TestCaseTransformer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 迁移核对：证明 test_case_pool + test_case_step 与 test_case_info 一致
+ *
+ * 有 migration_source_map 时按源记录ID把主键空间切分为若干段并行核对，每段分别在源表和目标表上
+ * 计算与顺序无关的校验和（行哈希 = 源记录ID与内容哈希混合，段内累加和与异或），
+ * 源表一侧按迁移时的转换规则解析 step，目标表一侧按步骤主键顺序读回，内容相同则哈希相同。
+ * 只有校验和不一致的段才重新读取、逐条比较，定位到具体的源记录。
+ *
+ * 没有对应关系时无法把目标记录对应到源记录，只比较全表的校验和（内容哈希不与ID混合）
+ */
+@Slf4j
+@Service
+public class VerifyService {
+
+    /**
+     * 每次查询读取的源记录数
+     */
+    private static final int PAGE_SIZE = 2000;
+
+    /**
+     * 按主键查询目标表时每条SQL最多包含的ID数
+     */
+    private static final int MAX_IN_LIST = 1000;
+
+    /**
+     * 转换失败的源记录使用的内容哈希，目标表中不会有与之相同的记录
+     */
+    private static final long FAILED_CONTENT = 0x5EEDF00DDEADBEEFL;
+
+    /**
+     * 对应关系指向的用例在目标表中不存在时使用的内容哈希
+     */
+    private static final long MISSING_CONTENT = 0x0BADC0DE0BADC0DEL;
+
+    @Autowired
+    private TestCaseMigrationJob testCaseMigrationJob;
+
+    @Autowired
+    private TestCaseTransformer testCaseTransformer;
+
+    @Autowired
+    private SourceMapStore sourceMapStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DbPermits dbPermits;
+
+    @Autowired
+    private MigrationExecutors migrationExecutors;
+
+    @Autowired
+    private MigrationProperties migrationProperties;
+
+    /**
+     * 核对 test_case_info 的迁移结果
+     *
+     * @param workers 并行核对的分段数，为null时使用配置的默认值
+     * @param chunkSize 每段的源表主键跨度，为null时使用配置的默认值
+     * @return 核对结果
+     * @throws IllegalArgumentException 参数不合法
+     */
+    public VerifyResult verify(Integer workers, Integer chunkSize) {
+        MigrationProperties.Verify config = migrationProperties.getVerify();
+        int parallelism = workers != null ? workers : config.getWorkers();
+        int span = chunkSize != null ? chunkSize : config.getChunkSize();
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("并行核对数必须大于0: " + parallelism);
+        }
+        if (span < 1) {
+            throw new IllegalArgumentException("分段主键跨度必须大于0: " + span);
+        }
+
+        long begin = System.currentTimeMillis();
+        VerifyResult result = new VerifyResult();
+        result.setKeyed(permitted(() -> sourceMapStore.count(TestCaseMigrationJob.NAME)) > 0);
+        log.info("开始核对迁移结果，{}，分段跨度 {}，并行 {}", result.isKeyed() ? "按源记录ID逐段核对" : "没有对应关系，比较全表校验和",
+                 span, parallelism);
+
+        ExecutorService executor = migrationExecutors.newWorkerExecutor(parallelism);
+        try {
+            if (result.isKeyed()) {
+                verifyKeyed(executor, span, config.getMaxMismatches(), result);
+            } else {
+                verifyWhole(executor, span, result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("核对被中断", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        result.setDurationMillis(System.currentTimeMillis() - begin);
+        log.info("核对完成，{}：源表 {} 条，目标表 {} 条，不一致 {} 条，耗时 {}ms",
+                 result.isMatched() ? "一致" : "不一致", result.getSourceRows(), result.getTargetRows(),
+                 result.getMismatchCount(), result.getDurationMillis());
+        return result;
+    }
+
+    /**
+     * 按源记录ID逐段核对
+     */
+    private void verifyKeyed(ExecutorService executor, int span, int maxMismatches, VerifyResult result)
+            throws InterruptedException {
+        JobSource<TestCaseInfo> source = testCaseMigrationJob.source();
+        Integer sourceMin = permitted(source::minId);
+        Integer sourceMax = permitted(source::maxId);
+        Integer mappedMin = permitted(() -> sourceMapStore.minSourceId(TestCaseMigrationJob.NAME));
+        int min = sourceMin == null ? mappedMin : Math.min(sourceMin, mappedMin);
+        int max = sourceMax == null ? min : Math.max(sourceMax, min);
+        List<IdRange> chunks = chunks(min, max, span);
+
+        List<Future<KeyedChunk>> futures = new ArrayList<>(chunks.size());
+        for (IdRange chunk : chunks) {
+            futures.add(executor.submit(() -> verifyChunk(chunk)));
+        }
+
+        List<Mismatch> mismatches = new ArrayList<>();
+        for (Future<KeyedChunk> future : futures) {
+            KeyedChunk chunk = await(future);
+            result.setSourceRows(result.getSourceRows() + chunk.source.getCount());
+            result.setTargetRows(result.getTargetRows() + chunk.targetRows);
+            result.setSourceFailedRows(result.getSourceFailedRows() + chunk.failedRows);
+            if (chunk.mismatches != null) {
+                result.setMismatchedChunks(result.getMismatchedChunks() + 1);
+                result.setMismatchCount(result.getMismatchCount() + chunk.mismatches.size());
+                for (Mismatch mismatch : chunk.mismatches) {
+                    if (mismatches.size() < maxMismatches) {
+                        mismatches.add(mismatch);
+                    }
+                }
+            }
+        }
+
+        long pools = permitted(() -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM test_case_pool", Long.class));
+        result.setChunks(chunks.size());
+        result.setMismatches(mismatches);
+        result.setUnmappedTargetRows(Math.max(0, pools - result.getTargetRows()));
+        result.setMatched(result.getMismatchCount() == 0 && result.getUnmappedTargetRows() == 0);
+    }
+
+    /**
+     * 核对一段源记录：先比较两侧校验和，不一致时重新读取并逐条比较
+     */
+    private KeyedChunk verifyChunk(IdRange chunk) {
+        KeyedChunk outcome = new KeyedChunk();
+        scanSource(chunk, (sourceId, contentHash, failure) -> {
+            outcome.source.add(ChunkDigest.rowHash(sourceId, contentHash));
+            if (failure != null) {
+                outcome.failedRows++;
+            }
+        });
+        ChunkDigest target = new ChunkDigest();
+        scanTarget(chunk, (sourceId, targetId, contentHash) -> {
+            target.add(ChunkDigest.rowHash(sourceId, contentHash));
+            if (contentHash != MISSING_CONTENT) {
+                outcome.targetRows++;
+            }
+        });
+        if (!outcome.source.equals(target)) {
+            log.info("分段 {} 校验和不一致，逐条比较", chunk);
+            outcome.mismatches = compareRows(chunk);
+        }
+        return outcome;
+    }
+
+    /**
+     * 逐条比较一段源记录，只在校验和不一致时调用
+     */
+    private List<Mismatch> compareRows(IdRange chunk) {
+        Map<Integer, Long> sourceHashes = new HashMap<>();
+        Map<Integer, String> failures = new HashMap<>();
+        scanSource(chunk, (sourceId, contentHash, failure) -> {
+            sourceHashes.put(sourceId, contentHash);
+            if (failure != null) {
+                failures.put(sourceId, failure);
+            }
+        });
+        Map<Integer, long[]> targets = new HashMap<>();
+        scanTarget(chunk, (sourceId, targetId, contentHash) -> targets.put(sourceId, new long[]{targetId, contentHash}));
+
+        List<Mismatch> mismatches = new ArrayList<>();
+        TreeSet<Integer> sourceIds = new TreeSet<>(sourceHashes.keySet());
+        sourceIds.addAll(targets.keySet());
+        for (int sourceId : sourceIds) {
+            Long sourceHash = sourceHashes.get(sourceId);
+            long[] target = targets.get(sourceId);
+            Integer targetId = target == null ? null : (int) target[0];
+            if (target == null) {
+                mismatches.add(new Mismatch(sourceId, null, failures.containsKey(sourceId)
+                        ? "源记录转换失败，未迁移: " + failures.get(sourceId) : "目标表中没有该记录"));
+            } else if (target[1] == MISSING_CONTENT) {
+                mismatches.add(new Mismatch(sourceId, targetId, "对应的 test_case_pool 已不存在"));
+            } else if (sourceHash == null) {
+                mismatches.add(new Mismatch(sourceId, targetId, "源记录已删除"));
+            } else if (sourceHash != target[1]) {
+                mismatches.add(new Mismatch(sourceId, targetId, failures.containsKey(sourceId)
+                        ? "源记录转换失败: " + failures.get(sourceId) : "内容不一致"));
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * 没有对应关系时分别计算全表校验和
+     * 源表按源记录ID分段，目标表按 test_case_pool 主键分段，内容哈希相加与顺序和分段方式无关
+     */
+    private void verifyWhole(ExecutorService executor, int span, VerifyResult result) throws InterruptedException {
+        JobSource<TestCaseInfo> source = testCaseMigrationJob.source();
+        Integer sourceMin = permitted(source::minId);
+        Integer sourceMax = permitted(source::maxId);
+        Integer poolMin = permitted(() -> jdbcTemplate.queryForObject("SELECT MIN(id) FROM test_case_pool",
+                                                                      Integer.class));
+        Integer poolMax = permitted(() -> jdbcTemplate.queryForObject("SELECT MAX(id) FROM test_case_pool",
+                                                                      Integer.class));
+
+        AtomicLong failedRows = new AtomicLong();
+        List<Future<ChunkDigest>> sourceFutures = new ArrayList<>();
+        if (sourceMin != null) {
+            for (IdRange chunk : chunks(sourceMin, sourceMax, span)) {
+                sourceFutures.add(executor.submit(() -> {
+                    ChunkDigest digest = new ChunkDigest();
+                    scanSource(chunk, (sourceId, contentHash, failure) -> {
+                        if (failure != null) {
+                            failedRows.incrementAndGet();
+                        } else {
+                            digest.add(contentHash);
+                        }
+                    });
+                    return digest;
+                }));
+            }
+        }
+        List<Future<ChunkDigest>> targetFutures = new ArrayList<>();
+        if (poolMin != null) {
+            for (IdRange chunk : chunks(poolMin, poolMax, span)) {
+                targetFutures.add(executor.submit(() -> {
+                    ChunkDigest digest = new ChunkDigest();
+                    scanPools(chunk, (poolId, contentHash) -> digest.add(contentHash));
+                    return digest;
+                }));
+            }
+        }
+
+        ChunkDigest sourceTotal = new ChunkDigest();
+        for (Future<ChunkDigest> future : sourceFutures) {
+            sourceTotal.merge(await(future));
+        }
+        ChunkDigest targetTotal = new ChunkDigest();
+        for (Future<ChunkDigest> future : targetFutures) {
+            targetTotal.merge(await(future));
+        }
+
+        result.setChunks(sourceFutures.size() + targetFutures.size());
+        result.setSourceRows(sourceTotal.getCount() + failedRows.get());
+        result.setSourceFailedRows(failedRows.get());
+        result.setTargetRows(targetTotal.getCount());
+        result.setMatched(sourceTotal.equals(targetTotal));
+    }
+
+    /**
+     * 读取一段源记录，按迁移时的转换规则计算内容哈希
+     */
+    private void scanSource(IdRange chunk, SourceVisitor visitor) {
+        JobSource<TestCaseInfo> source = testCaseMigrationJob.source();
+        int lastId = chunk.getStartAfterId();
+        while (true) {
+            int after = lastId;
+            List<TestCaseInfo> page = permitted(() -> source.readAfter(after, chunk.getEndId(), PAGE_SIZE));
+            if (page.isEmpty()) {
+                return;
+            }
+            for (TestCaseInfo info : page) {
+                MigrationRecord record;
+                try {
+                    record = testCaseTransformer.transform(info);
+                } catch (Exception e) {
+                    visitor.visit(info.getId(), FAILED_CONTENT, e.getMessage());
+                    continue;
+                }
+                visitor.visit(info.getId(), ContentHash.of(record.getPool(), record.getSteps()), null);
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    /**
+     * 按对应关系读取一段源记录写入的用例和步骤，计算内容哈希
+     */
+    private void scanTarget(IdRange chunk, TargetVisitor visitor) {
+        Map<Integer, Integer> targetIds = permitted(() -> sourceMapStore.findTargetIds(
+                TestCaseMigrationJob.NAME, chunk.getStartAfterId(), chunk.getEndId()));
+        List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(targetIds.entrySet());
+        for (int from = 0; from < entries.size(); from += MAX_IN_LIST) {
+            List<Map.Entry<Integer, Integer>> slice = entries.subList(from, Math.min(from + MAX_IN_LIST, entries.size()));
+            List<Integer> poolIds = new ArrayList<>(slice.size());
+            for (Map.Entry<Integer, Integer> entry : slice) {
+                poolIds.add(entry.getValue());
+            }
+            Map<Integer, Long> hashes = loadPools(poolIds);
+            for (Map.Entry<Integer, Integer> entry : slice) {
+                Long hash = hashes.get(entry.getValue());
+                visitor.visit(entry.getKey(), entry.getValue(), hash == null ? MISSING_CONTENT : hash);
+            }
+        }
+    }
+
+    /**
+     * 按主键区间读取目标表中的用例和步骤，计算内容哈希
+     */
+    private void scanPools(IdRange chunk, PoolVisitor visitor) {
+        int lastId = chunk.getStartAfterId();
+        while (true) {
+            int after = lastId;
+            List<Integer> poolIds = permitted(() -> chunk.getEndId() == null
+                    ? jdbcTemplate.queryForList("SELECT id FROM test_case_pool WHERE id > ? ORDER BY id LIMIT ?",
+                                                Integer.class, after, MAX_IN_LIST)
+                    : jdbcTemplate.queryForList(
+                            "SELECT id FROM test_case_pool WHERE id > ? AND id <= ? ORDER BY id LIMIT ?",
+                            Integer.class, after, chunk.getEndId(), MAX_IN_LIST));
+            if (poolIds.isEmpty()) {
+                return;
+            }
+            loadPools(poolIds).forEach(visitor::visit);
+            lastId = poolIds.get(poolIds.size() - 1);
+        }
+    }
+
+    /**
+     * 读取若干用例及其步骤，步骤按主键顺序排列
+     *
+     * @param poolIds 用例ID，不超过 MAX_IN_LIST 个
+     * @return 内容哈希，key为用例ID；不存在的用例不在结果中
+     */
+    private Map<Integer, Long> loadPools(List<Integer> poolIds) {
+        if (poolIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(poolIds.size(), "?"));
+        Object[] args = poolIds.toArray();
+        Map<Integer, TestCasePool> pools = new TreeMap<>();
+        Map<Integer, List<TestCaseStep>> steps = new HashMap<>();
+        permitted(() -> {
+            jdbcTemplate.query("SELECT id, title, menu_id FROM test_case_pool WHERE id IN (" + placeholders + ")",
+                    rs -> {
+                        TestCasePool pool = new TestCasePool();
+                        pool.setId(rs.getInt("id"));
+                        pool.setTitle(rs.getString("title"));
+                        int menuId = rs.getInt("menu_id");
+                        pool.setMenuId(rs.wasNull() ? null : menuId);
+                        pools.put(pool.getId(), pool);
+                    }, args);
+            jdbcTemplate.query("SELECT case_id, name, result FROM test_case_step WHERE case_id IN (" + placeholders +
+                               ") ORDER BY case_id, id",
+                    rs -> {
+                        TestCaseStep step = new TestCaseStep();
+                        step.setName(rs.getString("name"));
+                        step.setResult(rs.getString("result"));
+                        steps.computeIfAbsent(rs.getInt("case_id"), key -> new ArrayList<>()).add(step);
+                    }, args);
+            return null;
+        });
+
+        Map<Integer, Long> hashes = new HashMap<>();
+        pools.forEach((id, pool) -> hashes.put(id, ContentHash.of(pool, steps.getOrDefault(id, List.of()))));
+        return hashes;
+    }
+
+    /**
+     * 按主键跨度切分区间，最后一段不设上界
+     */
+    private static List<IdRange> chunks(int minId, int maxId, int span) {
+        long count = ((long) maxId - minId) / span + 1;
+        return IdRange.split(minId, maxId, (int) Math.min(count, Integer.MAX_VALUE));
+    }
+
+    /**
+     * 持有一个数据库访问许可执行查询，与迁移共用许可
+     */
+    private <T> T permitted(Supplier<T> query) {
+        dbPermits.acquire();
+        try {
+            return query.get();
+        } finally {
+            dbPermits.release();
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("核对分段执行异常: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 一段的核对结果
+     */
+    private static class KeyedChunk {
+
+        private final ChunkDigest source = new ChunkDigest();
+
+        private long targetRows;
+
+        private long failedRows;
+
+        /** 校验和一致时为null */
+        private List<Mismatch> mismatches;
+    }
+
+    @FunctionalInterface
+    private interface SourceVisitor {
+        void visit(int sourceId, long contentHash, String failure);
+    }
+
+    @FunctionalInterface
+    private interface TargetVisitor {
+        void visit(int sourceId, int targetId, long contentHash);
+    }
+
+    @FunctionalInterface
+    private interface PoolVisitor {
+        void visit(int poolId, long contentHash);
+    }
+}
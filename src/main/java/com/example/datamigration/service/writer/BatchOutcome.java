@@ -0,0 +1,50 @@
+package com.example.datamigration.service.writer;
+
+import com.example.datamigration.service.job.JobSinks;
+import com.example.datamigration.service.transform.TransformedBatch;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一个批次在事务内的写入结果
+ * 只有所在事务提交后才计入迁移统计
+ */
+@Getter
+public class BatchOutcome {
+
+    /** 写入成功的记录数 */
+    private int succeeded;
+
+    /** 写入成功的记录在子表中的行数（测试用例迁移中为步骤数） */
+    private int succeededChildRows;
+
+    /** 写入失败的记录 */
+    private final List<TransformedBatch.Failure> failures = new ArrayList<>();
+
+    /** 批量写入失败、改为二分拆分重试的原因，整批成功时为null */
+    private String fallbackReason;
+
+    /** 二分拆分过程中重试的批量插入次数 */
+    private int retriedBatches;
+
+    <T> void addSucceeded(List<T> records, JobSinks<T> sinks) {
+        succeeded += records.size();
+        for (T record : records) {
+            succeededChildRows += sinks.childRowCount(record);
+        }
+    }
+
+    void addFailure(TransformedBatch.Failure failure) {
+        failures.add(failure);
+    }
+
+    void addRetriedBatch() {
+        retriedBatches++;
+    }
+
+    void setFallbackReason(String fallbackReason) {
+        this.fallbackReason = fallbackReason;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.datamigration.service.writer;
+
+import com.example.datamigration.service.checkpoint.CheckpointStore;
+import com.example.datamigration.service.execution.DbPermits;
+import com.example.datamigration.service.job.JobRecord;
+import com.example.datamigration.service.job.JobSink;
+import com.example.datamigration.service.job.JobSinks;
+import com.example.datamigration.service.metrics.MigrationMetrics;
+import com.example.datamigration.service.transform.TransformedBatch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * 目标表事务写入器
+ *
+ * 独立于 DataMigrationService 的Bean，事务通过 PlatformTransactionManager 显式控制，
+ * 不依赖 @Transactional 代理（同一个类内部调用时代理不生效，每次Mapper调用都会各自自动提交）。
+ * 每个分区通过 openPartition() 获得一个 PartitionWriter，由它决定事务边界。
+ * 与具体的表无关，目标表及写入顺序由迁移任务的 JobSinks 决定
+ */
+@Slf4j
+@Component
+public class JobBatchWriter {
+
+    @Autowired
+    private CheckpointStore checkpointStore;
+
+    @Autowired
+    private DbPermits dbPermits;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MigrationMetrics migrationMetrics;
+
+    /**
+     * 为一个分区创建写入器
+     *
+     * @param runId 迁移运行ID
+     * @param partitionNo 分区序号
+     * @param sinks 目标表写入顺序
+     * @param commitEveryBatches 每个事务包含的批次数
+     * @param onCommitted 批次所在事务提交后的回调
+     * @return 分区写入器，只能在创建它的线程上使用
+     */
+    public <T extends JobRecord> PartitionWriter<T> openPartition(
+            String runId, int partitionNo, JobSinks<T> sinks, int commitEveryBatches,
+            BiConsumer<TransformedBatch<T>, BatchOutcome> onCommitted) {
+        return new PartitionWriter<>(this, transactionManager, checkpointStore, dbPermits, runId, partitionNo,
+                                     sinks, commitEveryBatches, onCommitted);
+    }
+
+    /**
+     * 在调用方的事务中写入一批记录
+     * 策略：优先使用批量插入，失败时回滚到保存点，把批次对半拆分后分别重试，
+     * 直到定位出失败的单条记录。k条坏记录只需要约 2k·log2(n) 次批量插入，
+     * 而不是对n条记录逐条插入
+     *
+     * @param records 转换完成的记录
+     * @param sinks 目标表写入顺序
+     * @param status 当前事务
+     * @return 写入结果
+     */
+    <T extends JobRecord> BatchOutcome writeInTransaction(List<T> records, JobSinks<T> sinks,
+                                                          TransactionStatus status) {
+        BatchOutcome outcome = new BatchOutcome();
+        if (records.isEmpty()) {
+            return outcome;
+        }
+
+        // 尝试批量处理（推荐模式，性能高）
+        log.debug("尝试批量处理 {} 条记录", records.size());
+        Exception batchException = tryBatch(records, sinks, status, outcome);
+        if (batchException == null) {
+            log.debug("批量处理成功，共 {} 条记录", records.size());
+            return outcome;
+        }
+
+        log.warn("批量处理失败: {}，二分拆分定位失败记录", batchException.getMessage());
+        outcome.setFallbackReason(batchException.getMessage());
+        bisect(records, sinks, status, outcome);
+        log.info("二分定位完成，{} 条记录中失败 {} 条，重试批量插入 {} 次",
+                 records.size(), outcome.getFailures().size(), outcome.getRetriedBatches());
+        return outcome;
+    }
+
+    /**
+     * 把失败的批次拆成两半分别重试，失败的一半继续拆分，只剩1条时单独写入
+     *
+     * @param records 已确认整体写入失败的记录，至少2条
+     * @param sinks 目标表写入顺序
+     * @param status 当前事务
+     * @param outcome 写入结果
+     */
+    private <T extends JobRecord> void bisect(List<T> records, JobSinks<T> sinks, TransactionStatus status,
+                                              BatchOutcome outcome) {
+        if (records.size() == 1) {
+            writeOne(records.get(0), sinks, status, outcome);
+            return;
+        }
+
+        int middle = records.size() / 2;
+        for (List<T> half : List.of(records.subList(0, middle), records.subList(middle, records.size()))) {
+            if (half.size() == 1) {
+                writeOne(half.get(0), sinks, status, outcome);
+                continue;
+            }
+            outcome.addRetriedBatch();
+            if (tryBatch(half, sinks, status, outcome) != null) {
+                bisect(half, sinks, status, outcome);
+            }
+        }
+    }
+
+    /**
+     * 在保存点内批量写入，失败时撤销这部分写入
+     *
+     * @return 成功时返回null，失败时返回异常
+     */
+    private <T extends JobRecord> Exception tryBatch(List<T> records, JobSinks<T> sinks, TransactionStatus status,
+                                                     BatchOutcome outcome) {
+        Object savepoint = status.createSavepoint();
+        try {
+            writeAll(records, sinks);
+            status.releaseSavepoint(savepoint);
+            outcome.addSucceeded(records, sinks);
+            return null;
+        } catch (Exception e) {
+            status.rollbackToSavepoint(savepoint);
+            return e;
+        }
+    }
+
+    /**
+     * 单条写入拆分到最后的记录，使用独立的保存点，失败时只撤销该条记录
+     *
+     * @param record 转换完成的记录
+     * @param sinks 目标表写入顺序
+     * @param status 当前事务
+     * @param outcome 写入结果
+     */
+    private <T extends JobRecord> void writeOne(T record, JobSinks<T> sinks, TransactionStatus status,
+                                                BatchOutcome outcome) {
+        Object savepoint = status.createSavepoint();
+        try {
+            writeAll(List.of(record), sinks);
+            status.releaseSavepoint(savepoint);
+            outcome.addSucceeded(List.of(record), sinks);
+
+        } catch (Exception e) {
+            status.rollbackToSavepoint(savepoint);
+            outcome.addFailure(new TransformedBatch.Failure(record.getSourceId(), record.getSourceLabel(),
+                                                            e.getMessage()));
+        }
+    }
+
+    /**
+     * 按顺序把一批记录写入各目标表
+     * 每张子表写入前先从已写入的父表传递主键，每张表的写入行数必须与记录对应的行数一致。
+     * 在调用方的事务中执行，失败时由调用方回滚
+     *
+     * @param records 转换完成的记录
+     * @param sinks 目标表写入顺序
+     * @throws IllegalStateException 写入行数不符或父表主键缺失
+     */
+    public <T> void writeAll(List<T> records, JobSinks<T> sinks) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+
+        for (JobSinks.Step<T> step : sinks.steps()) {
+            if (step.getKeys() != null) {
+                for (T record : records) {
+                    step.getKeys().propagate(record);
+                }
+            }
+
+            JobSink<T> sink = step.getSink();
+            int expected = 0;
+            for (T record : records) {
+                expected += sink.rowCount(record);
+            }
+            if (expected == 0) {
+                continue;
+            }
+
+            long begin = System.nanoTime();
+            int inserted = sink.write(records);
+            migrationMetrics.record(sink.phase(), System.nanoTime() - begin);
+            if (inserted != expected) {
+                throw new IllegalStateException(String.format(
+                    "批量插入%s失败，期望插入%d条，实际插入%d条", sink.table(), expected, inserted));
+            }
+            log.debug("批量插入 {} 成功，共 {} 条记录", sink.table(), inserted);
+        }
+    }
+}
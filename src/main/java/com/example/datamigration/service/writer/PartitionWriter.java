@@ -0,0 +1,214 @@
+package com.example.datamigration.service.writer;
+
+import com.example.datamigration.service.checkpoint.CheckpointStore;
+import com.example.datamigration.service.execution.DbPermits;
+import com.example.datamigration.service.job.JobRecord;
+import com.example.datamigration.service.job.JobSinks;
+import com.example.datamigration.service.transform.TransformedBatch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * 单个分区的写入器，负责该分区的事务边界（分组提交）
+ *
+ * 连续 commitEveryBatches 个批次共用一个事务，每个批次写入后都在事务内推进检查点，
+ * 整组一次提交，减少提交次数和redo日志刷盘次数。
+ * 组内事务失败（如提交失败、连接中断）时回滚整组，再把组内每个批次各自放在独立事务中重放，
+ * 重放仍然失败则抛出异常，检查点停留在最后一次成功提交的位置。
+ * 每个打开的事务占用一个数据库访问许可，提交或回滚后归还。
+ *
+ * 事务绑定在线程上，同一个写入器只能在创建它的线程上使用
+ *
+ * @param <T> 待写入的记录类型
+ */
+@Slf4j
+public class PartitionWriter<T extends JobRecord> {
+
+    private final JobBatchWriter batchWriter;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final CheckpointStore checkpointStore;
+
+    private final DbPermits dbPermits;
+
+    private final String runId;
+
+    private final int partitionNo;
+
+    private final JobSinks<T> sinks;
+
+    private final int commitEveryBatches;
+
+    private final BiConsumer<TransformedBatch<T>, BatchOutcome> onCommitted;
+
+    /**
+     * 当前打开的事务，没有未提交的批次时为null
+     */
+    private TransactionStatus status;
+
+    /**
+     * 当前事务中已写入、尚未提交的批次
+     */
+    private final List<Pending<T>> pending = new ArrayList<>();
+
+    PartitionWriter(JobBatchWriter batchWriter, PlatformTransactionManager transactionManager,
+                    CheckpointStore checkpointStore, DbPermits dbPermits, String runId, int partitionNo,
+                    JobSinks<T> sinks, int commitEveryBatches,
+                    BiConsumer<TransformedBatch<T>, BatchOutcome> onCommitted) {
+        if (commitEveryBatches < 1) {
+            throw new IllegalArgumentException("每个事务包含的批次数必须大于0: " + commitEveryBatches);
+        }
+        this.batchWriter = batchWriter;
+        this.transactionManager = transactionManager;
+        this.checkpointStore = checkpointStore;
+        this.dbPermits = dbPermits;
+        this.runId = runId;
+        this.partitionNo = partitionNo;
+        this.sinks = sinks;
+        this.commitEveryBatches = commitEveryBatches;
+        this.onCommitted = onCommitted;
+    }
+
+    /**
+     * 写入一个批次，累计满 commitEveryBatches 个批次时提交
+     *
+     * @param batch 转换后的批次
+     */
+    public void write(TransformedBatch<T> batch) {
+        if (status == null) {
+            status = begin();
+        }
+
+        try {
+            BatchOutcome outcome = writeAndCheckpoint(batch, status);
+            pending.add(new Pending<>(batch, outcome));
+        } catch (RuntimeException e) {
+            List<TransformedBatch<T>> group = pendingBatches();
+            group.add(batch);
+            rollbackAndReplay(group, e);
+            return;
+        }
+
+        if (pending.size() >= commitEveryBatches) {
+            commit();
+        }
+    }
+
+    /**
+     * 提交尚未提交的批次
+     * 分区结束、暂停或出错退出前调用
+     */
+    public void flush() {
+        if (status != null) {
+            commit();
+        }
+    }
+
+    private void commit() {
+        List<TransformedBatch<T>> group = pendingBatches();
+        try {
+            transactionManager.commit(status);
+        } catch (RuntimeException e) {
+            // 提交失败时事务管理器已回滚
+            status = null;
+            dbPermits.release();
+            pending.clear();
+            replay(group, e);
+            return;
+        }
+        status = null;
+        dbPermits.release();
+
+        for (Pending<T> p : pending) {
+            onCommitted.accept(p.batch, p.outcome);
+        }
+        pending.clear();
+    }
+
+    private void rollbackAndReplay(List<TransformedBatch<T>> group, RuntimeException cause) {
+        try {
+            transactionManager.rollback(status);
+        } catch (RuntimeException e) {
+            log.warn("分区 {} 回滚事务失败: {}", partitionNo, e.getMessage());
+        }
+        status = null;
+        dbPermits.release();
+        pending.clear();
+        replay(group, cause);
+    }
+
+    /**
+     * 把失败事务中的批次逐个放在独立事务中重放
+     */
+    private void replay(List<TransformedBatch<T>> group, RuntimeException cause) {
+        if (group.size() == 1 && commitEveryBatches == 1) {
+            throw cause;
+        }
+        log.warn("分区 {} 的 {} 个批次事务失败: {}，逐批重放", partitionNo, group.size(), cause.getMessage());
+
+        for (TransformedBatch<T> batch : group) {
+            TransactionStatus single = begin();
+            BatchOutcome outcome;
+            try {
+                outcome = writeAndCheckpoint(batch, single);
+            } catch (RuntimeException e) {
+                try {
+                    transactionManager.rollback(single);
+                } finally {
+                    dbPermits.release();
+                }
+                throw e;
+            }
+            try {
+                transactionManager.commit(single);
+            } finally {
+                dbPermits.release();
+            }
+            onCommitted.accept(batch, outcome);
+        }
+    }
+
+    /**
+     * 获取数据库访问许可后开启事务
+     */
+    private TransactionStatus begin() {
+        dbPermits.acquire();
+        try {
+            return transactionManager.getTransaction(new DefaultTransactionDefinition());
+        } catch (RuntimeException e) {
+            dbPermits.release();
+            throw e;
+        }
+    }
+
+    private BatchOutcome writeAndCheckpoint(TransformedBatch<T> batch, TransactionStatus tx) {
+        BatchOutcome outcome = batchWriter.writeInTransaction(batch.getRecords(), sinks, tx);
+        checkpointStore.save(runId, partitionNo, batch.getLastSourceId());
+        return outcome;
+    }
+
+    private List<TransformedBatch<T>> pendingBatches() {
+        List<TransformedBatch<T>> batches = new ArrayList<>(pending.size() + 1);
+        for (Pending<T> p : pending) {
+            batches.add(p.batch);
+        }
+        return batches;
+    }
+
+    private static class Pending<T> {
+        private final TransformedBatch<T> batch;
+        private final BatchOutcome outcome;
+
+        private Pending(TransformedBatch<T> batch, BatchOutcome outcome) {
+            this.batch = batch;
+            this.outcome = outcome;
+        }
+    }
+}
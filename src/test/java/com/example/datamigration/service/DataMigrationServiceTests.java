@@ -0,0 +1,345 @@
+package com.example.datamigration.service;
+
+import com.example.datamigration.service.checkpoint.CheckpointStore;
+import com.example.datamigration.service.execution.DbPermits;
+import com.example.datamigration.service.execution.MigrationExecutors;
+import com.example.datamigration.service.execution.RunState;
+import com.example.datamigration.service.execution.ThroughputBudget;
+import com.example.datamigration.service.job.TestCaseMigrationJob;
+import com.example.datamigration.service.metrics.MigrationProgress;
+import com.example.datamigration.service.reader.IdRange;
+import com.example.datamigration.service.reader.ReaderMode;
+import com.example.datamigration.service.sink.SinkMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class DataMigrationServiceTests {
+
+    @Autowired
+    private DataMigrationService dataMigrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CheckpointStore checkpointStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DbPermits dbPermits;
+
+    @Autowired
+    private ThroughputBudget throughputBudget;
+
+    @Autowired
+    private MigrationExecutors migrationExecutors;
+
+    @BeforeEach
+    void cleanTables() {
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_info");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_pool");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_step");
+        jdbcTemplate.execute("TRUNCATE TABLE migration_checkpoint");
+        jdbcTemplate.execute("TRUNCATE TABLE migration_source_map");
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = SinkMode.class, names = {"XML", "JDBC_BATCH"})
+    void migratesAllRowsAcrossPartitions(SinkMode sinkMode) {
+        for (int id = 1; id <= 2500; id++) {
+            insertInfo(id, steps(id % 4));
+        }
+
+        double stepsBefore = meterRegistry.get("migration.steps.written").counter().count();
+
+        MigrationOptions options = new MigrationOptions();
+        options.setWorkers(3);
+        options.setSinkMode(sinkMode);
+        DataMigrationService.MigrationResult result = dataMigrationService.executeMigration(options);
+
+        assertThat(result.getTotalCount()).isEqualTo(2500);
+        assertThat(result.getSuccessCount()).isEqualTo(2500);
+        assertThat(result.getFailedCount()).isZero();
+        assertThat(result.getPartitionCount()).isEqualTo(3);
+        assertThat(count("test_case_pool")).isEqualTo(2500);
+        assertThat(count("test_case_step")).isEqualTo(2500 / 4 * (0 + 1 + 2 + 3));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM test_case_step s LEFT JOIN test_case_pool p ON p.id = s.case_id WHERE p.id IS NULL",
+                Long.class)).isZero();
+        assertThat(result.getStageStats()).containsKeys("READ", "TRANSFORM", "WRITE");
+        assertThat(result.getSinkMode()).isEqualTo(sinkMode);
+        assertThat(result.getBatchSizes()).hasSize(3);
+
+        assertThat(meterRegistry.get("migration.steps.written").counter().count() - stepsBefore)
+                .isEqualTo(2500 / 4 * (0 + 1 + 2 + 3));
+        for (String phase : new String[]{"read", "parse", "pool_insert", "step_insert"}) {
+            assertThat(meterRegistry.get("migration.batch.latency").tag("phase", phase).timer().count()).isPositive();
+        }
+        assertThat(dataMigrationService.getCurrentProgress()).isNull();
+    }
+
+    @Test
+    void groupCommitCoversTrailingPartialGroup() {
+        for (int id = 1; id <= 4500; id++) {
+            insertInfo(id, steps(1));
+        }
+
+        // 5个批次，每3批提交一次，最后2批在分区结束时提交
+        MigrationOptions options = new MigrationOptions();
+        options.setCommitEveryBatches(3);
+        options.setAdaptiveBatch(false);
+        DataMigrationService.MigrationResult result = dataMigrationService.executeMigration(options);
+
+        assertThat(result.getSuccessCount()).isEqualTo(4500);
+        assertThat(result.getCommitEveryBatches()).isEqualTo(3);
+        assertThat(result.getBatchSizes()).singleElement()
+                .satisfies(sizes -> assertThat(sizes.getBatches()).isEqualTo(5));
+        assertThat(count("test_case_pool")).isEqualTo(4500);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT last_id FROM migration_checkpoint WHERE run_id = ?", Integer.class, result.getRunId()))
+                .isEqualTo(4500);
+    }
+
+    @Test
+    void cursorReaderStreamsEachPartitionInOneScan() {
+        for (int id = 1; id <= 3000; id++) {
+            insertInfo(id, steps(id % 3));
+        }
+
+        MigrationOptions options = new MigrationOptions();
+        options.setWorkers(3);
+        options.setReaderMode(ReaderMode.CURSOR);
+        options.setBatchSize(400);
+        options.setAdaptiveBatch(false);
+        DataMigrationService.MigrationResult result = dataMigrationService.executeMigration(options);
+
+        assertThat(result.getSuccessCount()).isEqualTo(3000);
+        assertThat(result.getFailedCount()).isZero();
+        assertThat(count("test_case_pool")).isEqualTo(3000);
+        assertThat(count("test_case_step")).isEqualTo(3000);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT last_id FROM migration_checkpoint WHERE run_id = ? ORDER BY partition_no", Integer.class,
+                result.getRunId())).containsExactly(1000, 2000, 3000);
+        assertThat(dbPermits.available()).isEqualTo(dbPermits.getTotal());
+
+        MigrationOptions tooMany = new MigrationOptions();
+        tooMany.setWorkers(dbPermits.getTotal());
+        tooMany.setReaderMode(ReaderMode.CURSOR);
+        assertThatThrownBy(() -> dataMigrationService.executeMigration(tooMany))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void upsertRerunsAreIdempotentAndRewriteOnlyChangedRows() {
+        for (int id = 1; id <= 500; id++) {
+            insertInfo(id, steps(2));
+        }
+
+        MigrationOptions options = new MigrationOptions();
+        options.setWorkers(2);
+        options.setSinkMode(SinkMode.UPSERT);
+        DataMigrationService.MigrationResult first = dataMigrationService.executeMigration(options);
+        assertThat(first.getSuccessCount()).isEqualTo(500);
+        assertThat(first.getStepCount()).isEqualTo(1000);
+
+        // 整表重跑：内容未变化，不写入任何步骤
+        DataMigrationService.MigrationResult rerun = dataMigrationService.executeMigration(options);
+        assertThat(rerun.getSuccessCount()).isEqualTo(500);
+        assertThat(rerun.getStepCount()).isZero();
+        assertThat(count("test_case_pool")).isEqualTo(500);
+        assertThat(count("test_case_step")).isEqualTo(1000);
+
+        // 只重跑 [1, 10]，其中一条已修改
+        jdbcTemplate.update("UPDATE test_case_info SET title = 'changed', step = ? WHERE id = 7", steps(3));
+        MigrationOptions subset = new MigrationOptions();
+        subset.setSinkMode(SinkMode.UPSERT);
+        subset.setStartAfterId(0);
+        subset.setEndId(10);
+        DataMigrationService.MigrationResult partial = dataMigrationService.executeMigration(subset);
+        assertThat(partial.getTotalCount()).isEqualTo(10);
+        assertThat(partial.getStepCount()).isEqualTo(3);
+        assertThat(count("test_case_pool")).isEqualTo(500);
+        assertThat(count("test_case_step")).isEqualTo(1001);
+        Integer poolId = jdbcTemplate.queryForObject(
+                "SELECT target_id FROM migration_source_map WHERE job_name = 'test-case' AND source_id = 7",
+                Integer.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT title FROM test_case_pool WHERE id = ?", String.class, poolId))
+                .isEqualTo("changed");
+    }
+
+    @Test
+    void malformedStepJsonFailsOnlyThatRow() {
+        for (int id = 1; id <= 10; id++) {
+            insertInfo(id, id == 4 ? "[{\"name\":\"broken\"" : steps(2));
+        }
+
+        DataMigrationService.MigrationResult result = dataMigrationService.executeMigration(1);
+
+        assertThat(result.getSuccessCount()).isEqualTo(9);
+        assertThat(result.getFailedCount()).isEqualTo(1);
+        assertThat(result.getFailedIds().page(0, 10).getIds()).containsExactly(4);
+        assertThat(count("test_case_pool")).isEqualTo(9);
+        assertThat(count("test_case_step")).isEqualTo(18);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = SinkMode.class, names = {"XML", "JDBC_BATCH"})
+    void bisectsBatchToIsolateRowsRejectedByTarget(SinkMode sinkMode) {
+        // 步骤名超过目标列长度，转换成功但写入失败
+        String tooLong = "[{\"name\":\"" + "x".repeat(300) + "\",\"result\":\"success\"}]";
+        for (int id = 1; id <= 1000; id++) {
+            insertInfo(id, id == 137 || id == 801 ? tooLong : steps(2));
+        }
+
+        MigrationOptions options = new MigrationOptions();
+        options.setSinkMode(sinkMode);
+        DataMigrationService.MigrationResult result = dataMigrationService.executeMigration(options);
+
+        assertThat(result.getSuccessCount()).isEqualTo(998);
+        assertThat(result.getFailedIds().page(0, 10).getIds()).containsExactlyInAnyOrder(137, 801);
+        assertThat(count("test_case_pool")).isEqualTo(998);
+        assertThat(count("test_case_step")).isEqualTo(998 * 2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM test_case_pool WHERE title IN ('case-137', 'case-801')", Long.class)).isZero();
+    }
+
+    @Test
+    void resumesUnfinishedPartitionsFromCheckpoint() {
+        for (int id = 1; id <= 30; id++) {
+            insertInfo(id, steps(1));
+        }
+
+        // 模拟上次迁移中途退出：分区0已提交到ID=10，分区1尚未开始
+        String runId = "20000101_000000_000";
+        checkpointStore.createRun(runId, TestCaseMigrationJob.NAME, IdRange.split(1, 30, 2), SinkMode.JDBC_BATCH.name());
+        checkpointStore.save(runId, 0, 10);
+        assertThat(dataMigrationService.hasResumableRun()).isTrue();
+
+        MigrationOptions options = new MigrationOptions();
+        options.setResume(true);
+        DataMigrationService.MigrationResult result = dataMigrationService.executeMigration(options);
+
+        assertThat(result.getRunId()).isEqualTo(runId);
+        assertThat(result.getSinkMode()).isEqualTo(SinkMode.JDBC_BATCH);
+        assertThat(result.getPartitionCount()).isEqualTo(2);
+        assertThat(result.getSuccessCount()).isEqualTo(20);
+        assertThat(jdbcTemplate.queryForList("SELECT title FROM test_case_pool", String.class))
+                .containsExactlyInAnyOrderElementsOf(IntStream.rangeClosed(11, 30).mapToObj(id -> "case-" + id).toList());
+        assertThat(dataMigrationService.hasResumableRun()).isFalse();
+    }
+
+    @Test
+    void completedRunLeavesNothingToResume() {
+        for (int id = 1; id <= 5; id++) {
+            insertInfo(id, steps(1));
+        }
+
+        DataMigrationService.MigrationResult result = dataMigrationService.executeMigration(2);
+
+        assertThat(result.getRunId()).isNotNull();
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT last_id FROM migration_checkpoint WHERE run_id = ? ORDER BY partition_no",
+                Integer.class, result.getRunId())).containsExactly(2, 5);
+        assertThat(dataMigrationService.hasResumableRun()).isFalse();
+    }
+
+    @Test
+    void pauseDrainsInFlightBatchesAndCancelLeavesAResumableRun() throws Exception {
+        for (int id = 1; id <= 6000; id++) {
+            insertInfo(id, steps(1));
+        }
+        // 限速让迁移持续几秒，便于在中途暂停和取消
+        throughputBudget.setLimits(2000L, null);
+        try {
+            MigrationOptions options = new MigrationOptions();
+            options.setWorkers(2);
+            options.setReaderMode(ReaderMode.CURSOR);
+            options.setBatchSize(100);
+            options.setAdaptiveBatch(false);
+            CompletableFuture<DataMigrationService.MigrationResult> running = CompletableFuture.supplyAsync(
+                    () -> dataMigrationService.executeMigration(options), migrationExecutors.taskExecutor());
+            awaitUntil(() -> count("test_case_pool") > 0);
+
+            dataMigrationService.pause(TestCaseMigrationJob.NAME);
+            awaitUntil(() -> dataMigrationService.getCurrentProgress().getState() == RunState.PAUSED);
+            MigrationProgress paused = dataMigrationService.getCurrentProgress();
+            long committed = count("test_case_pool");
+            assertThat(committed).isLessThan(6000);
+            assertThat(paused.getRowsWritten()).isEqualTo(committed);
+            // 分区1的区间是 (3000, 6000]，已提交的记录数与检查点位置一一对应
+            assertThat(paused.getResumePositions().get(0) + paused.getResumePositions().get(1) - 3000L)
+                    .isEqualTo(committed);
+            // 暂停期间 cursor 读取器已归还连接
+            assertThat(dbPermits.available()).isEqualTo(dbPermits.getTotal());
+            Thread.sleep(200);
+            assertThat(count("test_case_pool")).isEqualTo(committed);
+
+            dataMigrationService.unpause(TestCaseMigrationJob.NAME);
+            awaitUntil(() -> count("test_case_pool") > committed);
+            dataMigrationService.cancel(TestCaseMigrationJob.NAME);
+            DataMigrationService.MigrationResult cancelled = running.get(30, TimeUnit.SECONDS);
+
+            assertThat(cancelled.isCancelled()).isTrue();
+            assertThat(cancelled.getSuccessCount()).isEqualTo(count("test_case_pool")).isLessThan(6000);
+            assertThat(jdbcTemplate.queryForList(
+                    "SELECT last_id FROM migration_checkpoint WHERE run_id = ? ORDER BY partition_no", Integer.class,
+                    cancelled.getRunId())).containsExactlyElementsOf(cancelled.getResumePositions().values());
+            assertThat(dataMigrationService.hasResumableRun()).isTrue();
+            assertThat(dbPermits.available()).isEqualTo(dbPermits.getTotal());
+        } finally {
+            throughputBudget.setLimits(0L, null);
+        }
+
+        MigrationOptions resume = new MigrationOptions();
+        resume.setResume(true);
+        dataMigrationService.executeMigration(resume);
+        assertThat(count("test_case_pool")).isEqualTo(6000);
+        assertThat(count("test_case_step")).isEqualTo(6000);
+        assertThat(dataMigrationService.hasResumableRun()).isFalse();
+    }
+
+    private void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("等待超时").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private String steps(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"step-").append(i).append("\",\"result\":\"success\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private void insertInfo(int id, String step) {
+        jdbcTemplate.update("INSERT INTO test_case_info (id, title, step, suit, case_id) VALUES (?, ?, ?, ?, ?)",
+                id, "case-" + id, step, id % 7, id);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
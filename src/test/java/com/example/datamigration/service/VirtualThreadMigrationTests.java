@@ -0,0 +1,62 @@
+package com.example.datamigration.service;
+
+import com.example.datamigration.service.execution.DbPermits;
+import com.example.datamigration.service.execution.MigrationExecutors;
+import com.example.datamigration.service.execution.ThreadMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "migration.execution.threads=virtual",
+        "migration.execution.db-permits=2"
+})
+class VirtualThreadMigrationTests {
+
+    @Autowired
+    private DataMigrationService dataMigrationService;
+
+    @Autowired
+    private MigrationExecutors migrationExecutors;
+
+    @Autowired
+    private DbPermits dbPermits;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanTables() {
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_info");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_pool");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_step");
+        jdbcTemplate.execute("TRUNCATE TABLE migration_checkpoint");
+    }
+
+    @Test
+    void morePartitionsThanPermitsShareTheConnections() throws Exception {
+        for (int id = 1; id <= 3000; id++) {
+            jdbcTemplate.update("INSERT INTO test_case_info (id, title, step, suit, case_id) VALUES (?, ?, ?, ?, ?)",
+                    id, "case-" + id, "[{\"name\":\"step\",\"result\":\"success\"}]", id % 7, id);
+        }
+
+        MigrationOptions options = new MigrationOptions();
+        options.setWorkers(8);
+        DataMigrationService.MigrationResult result = CompletableFuture
+                .supplyAsync(() -> dataMigrationService.executeMigration(options), migrationExecutors.taskExecutor())
+                .get();
+
+        assertThat(migrationExecutors.getMode()).isEqualTo(ThreadMode.VIRTUAL);
+        assertThat(result.getPartitionCount()).isEqualTo(8);
+        assertThat(result.getSuccessCount()).isEqualTo(3000);
+        assertThat(result.getFailedCount()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM test_case_step", Long.class)).isEqualTo(3000);
+        assertThat(dbPermits.available()).isEqualTo(dbPermits.getTotal()).isEqualTo(2);
+    }
+}
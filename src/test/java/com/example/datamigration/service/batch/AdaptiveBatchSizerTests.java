@@ -0,0 +1,75 @@
+package com.example.datamigration.service.batch;
+
+import com.example.datamigration.config.MigrationProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBatchSizerTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(900);
+
+    @Test
+    void growsAdditivelyAndBacksOffMultiplicatively() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(config());
+
+        sizer.onBatchWritten(1000, 1000 * 100, FAST);
+        sizer.onBatchWritten(1100, 1100 * 100, FAST);
+        assertThat(sizer.nextSize()).isEqualTo(1200);
+
+        sizer.onBatchWritten(1200, 1200 * 100, SLOW);
+        assertThat(sizer.nextSize()).isEqualTo(600);
+
+        // 不低于下限
+        for (int i = 0; i < 10; i++) {
+            sizer.onBatchWritten(sizer.nextSize(), sizer.nextSize() * 100L, SLOW);
+        }
+        assertThat(sizer.nextSize()).isEqualTo(100);
+
+        BatchSizeSnapshot snapshot = sizer.snapshot(0);
+        assertThat(snapshot.getHistory()).startsWith(1000, 1100, 1200, 600, 300, 150, 100);
+        assertThat(snapshot.getBatches()).isEqualTo(13);
+        assertThat(snapshot.getMaxSize()).isEqualTo(1200);
+    }
+
+    @Test
+    void staysUnderPacketLimitForStepHeavyRows() {
+        MigrationProperties.Batch config = config();
+        config.setMaxPacketBytes(1024 * 1024);
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(config);
+
+        // 每条记录约4KB步骤数据，1MB最多约256条，即使写入很快也不再增大
+        sizer.onBatchWritten(1000, 1000 * 4096L, FAST);
+        assertThat(sizer.nextSize()).isEqualTo(256);
+
+        sizer.onBatchWritten(256, 256 * 4096L, FAST);
+        assertThat(sizer.nextSize()).isEqualTo(256);
+    }
+
+    @Test
+    void fixedSizeIgnoresLatency() {
+        MigrationProperties.Batch config = config();
+        config.setAdaptive(false);
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(config);
+
+        sizer.onBatchWritten(1000, 1000 * 100, SLOW);
+
+        assertThat(sizer.nextSize()).isEqualTo(1000);
+        assertThat(sizer.snapshot(0).getHistory()).containsExactly(1000);
+    }
+
+    private MigrationProperties.Batch config() {
+        MigrationProperties.Batch config = new MigrationProperties.Batch();
+        config.setSize(1000);
+        config.setMinSize(100);
+        config.setMaxSize(5000);
+        config.setTargetLatencyMillis(500);
+        config.setAdditiveStep(100);
+        config.setDecreaseFactor(0.5);
+        return config;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.datamigration.service.errorlog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorLogWriterTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentAppendsAreAllWrittenAsJsonLines() throws Exception {
+        Path file = dir.resolve("errors.jsonl");
+        // 缓冲区很小，强制多次按大小写出
+        ErrorLogWriter writer = ErrorLogWriter.open(file, ErrorLogFormat.JSON, "run-1", objectMapper, 256, 60_000);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t * 1000;
+            Thread thread = new Thread(() -> {
+                for (int i = 1; i <= 1000; i++) {
+                    writer.append(ErrorLogEntry.record(offset + i, "case-" + (offset + i), "失败"));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        writer.append(ErrorLogEntry.message("分区异常"));
+        writer.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(4001);
+        assertThat(writer.getWrittenCount()).isEqualTo(4001);
+
+        List<Integer> ids = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode json = objectMapper.readTree(line);
+            assertThat(json.get("runId").asText()).isEqualTo("run-1");
+            if (!json.get("sourceId").isNull()) {
+                ids.add(json.get("sourceId").asInt());
+            }
+        }
+        assertThat(ids).containsExactlyInAnyOrderElementsOf(IntStream.rangeClosed(1, 4000).boxed().toList());
+    }
+
+    @Test
+    void textFormatFlushesOnIntervalBeforeClose() throws Exception {
+        Path file = dir.resolve("errors.log");
+        ErrorLogWriter writer = ErrorLogWriter.open(file, ErrorLogFormat.TEXT, "run-2", objectMapper, 64 * 1024, 50);
+        try {
+            writer.append(ErrorLogEntry.record(7, "case-7", "JSON解析失败"));
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!Files.readString(file, StandardCharsets.UTF_8).contains("ID=7")
+                   && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(Files.readString(file, StandardCharsets.UTF_8))
+                    .startsWith("数据迁移错误日志")
+                    .contains("ID=7 迁移失败: JSON解析失败, title=case-7");
+        } finally {
+            writer.close();
+        }
+    }
+}
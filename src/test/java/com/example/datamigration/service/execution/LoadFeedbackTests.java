@@ -0,0 +1,77 @@
+package com.example.datamigration.service.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "migration.throttle.probe-sql=SELECT COUNT(*) AS running FROM test_case_info",
+        "migration.throttle.probe-threshold=5",
+        "migration.throttle.probe-interval-ms=3600000",
+        "migration.throttle.min-factor=0.2",
+        "migration.throttle.recover-step=0.5"
+})
+class LoadFeedbackTests {
+
+    @Autowired
+    private LoadFeedback loadFeedback;
+
+    @Autowired
+    private ThroughputBudget throughputBudget;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanTables() {
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_info");
+    }
+
+    @AfterEach
+    void resetLimits() {
+        throughputBudget.setLimits(0L, 0L);
+    }
+
+    @Test
+    void backsOffWhileTheProbeIsOverThresholdAndRecoversAfterwards() {
+        throughputBudget.setLimits(1000L, 0L);
+        for (int id = 1; id <= 10; id++) {
+            jdbcTemplate.update("INSERT INTO test_case_info (id, title, step, suit, case_id) VALUES (?, ?, ?, ?, ?)",
+                    id, "case-" + id, "[]", 1, id);
+        }
+
+        throughputBudget.acquire(1, 0);
+        loadFeedback.probe();
+        assertThat(loadFeedback.getLastValue()).isEqualTo(10.0);
+        assertThat(throughputBudget.effectiveRowsPerSecond()).isEqualTo(500.0);
+
+        throughputBudget.acquire(1, 0);
+        loadFeedback.probe();
+        loadFeedback.probe();
+        loadFeedback.probe();
+        assertThat(throughputBudget.getLoadFactor()).isEqualTo(0.2);
+        assertThat(throughputBudget.effectiveRowsPerSecond()).isEqualTo(200.0);
+
+        // 运行期间调整上限，降速比例保持不变
+        throughputBudget.setLimits(2000L, null);
+        assertThat(throughputBudget.effectiveRowsPerSecond()).isEqualTo(400.0);
+
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_info");
+        loadFeedback.probe();
+        assertThat(throughputBudget.getLoadFactor()).isEqualTo(0.7);
+        loadFeedback.probe();
+        assertThat(throughputBudget.getLoadFactor()).isEqualTo(1.0);
+        assertThat(throughputBudget.effectiveRowsPerSecond()).isEqualTo(2000.0);
+
+        // 空闲且没有降速时不探测
+        jdbcTemplate.update("INSERT INTO test_case_info (id, title, step, suit, case_id) VALUES (1, 'x', '[]', 1, 1)");
+        loadFeedback.probe();
+        assertThat(loadFeedback.getLastValue()).isEqualTo(0.0);
+        assertThat(throughputBudget.getLoadFactor()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.datamigration.service.failure;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FailedIdStoreTests {
+
+    @Test
+    void pagesAcrossSpilledAndInMemoryIds() {
+        try (FailedIdStore store = new FailedIdStore(100)) {
+            for (int id = 1; id <= 1050; id++) {
+                store.add(id * 3);
+            }
+
+            assertThat(store.size()).isEqualTo(1050);
+            assertThat(store.isSpilled()).isTrue();
+
+            // 每页37条，页边界会跨过文件和内存的分界
+            List<Integer> ids = new ArrayList<>();
+            Long cursor = 0L;
+            while (cursor != null) {
+                FailurePage page = store.page(cursor, 37);
+                assertThat(page.getTotal()).isEqualTo(1050);
+                for (int id : page.getIds()) {
+                    ids.add(id);
+                }
+                cursor = page.getNextCursor();
+            }
+            assertThat(ids).containsExactlyElementsOf(IntStream.rangeClosed(1, 1050).map(id -> id * 3).boxed().toList());
+        }
+    }
+
+    @Test
+    void pageBeyondEndIsEmpty() {
+        try (FailedIdStore store = new FailedIdStore(10)) {
+            store.add(4);
+
+            assertThat(store.isSpilled()).isFalse();
+            assertThat(store.page(0, 10).getIds()).containsExactly(4);
+            assertThat(store.page(0, 10).getNextCursor()).isNull();
+            assertThat(store.page(5, 10).getIds()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.datamigration.service.ids;
+
+import com.example.datamigration.config.MigrationProperties;
+import com.example.datamigration.service.DataMigrationService;
+import com.example.datamigration.service.MigrationOptions;
+import com.example.datamigration.service.execution.DbPermits;
+import com.example.datamigration.service.sink.SinkMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "migration.ids.mode=preallocated",
+        "migration.ids.block-size=100"
+})
+class IdAllocatorTests {
+
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private DataMigrationService dataMigrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DbPermits dbPermits;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MigrationProperties migrationProperties;
+
+    @BeforeEach
+    void cleanTables() {
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_info");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_pool");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_step");
+        jdbcTemplate.execute("TRUNCATE TABLE migration_checkpoint");
+    }
+
+    @Test
+    void allocatorsInDifferentProcessesNeverShareIds() {
+        // 第二个分配器模拟另一个进程，两者只通过 migration_id_block 协调
+        IdAllocator other = new IdAllocator(jdbcTemplate, dbPermits, transactionManager, migrationProperties);
+
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < 250; i++) {
+            assertThat(ids.add(idAllocator.next("test_case_step"))).isTrue();
+            assertThat(ids.add(other.next("test_case_step"))).isTrue();
+        }
+    }
+
+    @Test
+    void reservationStartsAboveExistingRows() {
+        jdbcTemplate.update("INSERT INTO test_case_step (id, name, result, case_id) VALUES (?, 'x', 'x', 0)",
+                            1_000_000);
+
+        assertThat(idAllocator.reserve("test_case_step", 10)).isEqualTo(1_000_001);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = SinkMode.class, names = {"XML", "JDBC_BATCH"})
+    void migratesWithPreallocatedPoolIds(SinkMode sinkMode) {
+        for (int id = 1; id <= 700; id++) {
+            jdbcTemplate.update("INSERT INTO test_case_info (id, title, step, suit, case_id) VALUES (?, ?, ?, ?, ?)",
+                    id, "case-" + id, "[{\"name\":\"a\",\"result\":\"ok\"},{\"name\":\"b\",\"result\":\"ok\"}]",
+                    id % 7, id);
+        }
+
+        MigrationOptions options = new MigrationOptions();
+        options.setWorkers(3);
+        options.setSinkMode(sinkMode);
+        DataMigrationService.MigrationResult result = dataMigrationService.executeMigration(options);
+
+        assertThat(result.getSuccessCount()).isEqualTo(700);
+        assertThat(result.getStepCount()).isEqualTo(1400);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM test_case_pool", Long.class)).isEqualTo(700);
+        // 每条步骤都指向同标题用例的预分配主键
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM test_case_step s JOIN test_case_pool p ON p.id = s.case_id", Long.class))
+                .isEqualTo(1400);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT case_id) FROM test_case_step", Long.class)).isEqualTo(700);
+    }
+}
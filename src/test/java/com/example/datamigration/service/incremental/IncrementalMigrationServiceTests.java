@@ -0,0 +1,95 @@
+package com.example.datamigration.service.incremental;
+
+import com.example.datamigration.service.DataMigrationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "migration.incremental.updated-at-column=updated_at")
+class IncrementalMigrationServiceTests {
+
+    @Autowired
+    private IncrementalMigrationService incrementalMigrationService;
+
+    @Autowired
+    private DataMigrationService dataMigrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanTables() {
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_info");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_pool");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_step");
+        jdbcTemplate.execute("TRUNCATE TABLE migration_checkpoint");
+        jdbcTemplate.execute("TRUNCATE TABLE migration_source_map");
+        jdbcTemplate.execute("TRUNCATE TABLE migration_watermark");
+    }
+
+    @Test
+    void deltaMigratesNewRowsAndReplacesChangedOnes() {
+        for (int id = 1; id <= 100; id++) {
+            insertInfo(id, "case-" + id, steps(2));
+        }
+        // 全量迁移后首次增量以它为起点，不会重复迁移
+        DataMigrationService.MigrationResult full = dataMigrationService.executeMigration(2);
+        assertThat(full.getSuccessCount()).isEqualTo(100);
+        assertThat(count("migration_source_map")).isEqualTo(100);
+
+        IncrementalResult first = incrementalMigrationService.runDelta();
+        assertThat(first.getPrevious().getLastId()).isEqualTo(100);
+        assertThat(first.getInserts().getTotalCount()).isZero();
+        assertThat(first.getChanges().getTotalCount()).isZero();
+        assertThat(count("test_case_pool")).isEqualTo(100);
+
+        for (int id = 101; id <= 150; id++) {
+            insertInfo(id, "case-" + id, steps(2));
+        }
+        jdbcTemplate.update("UPDATE test_case_info SET title = ?, step = ?, updated_at = ? WHERE id = 5",
+                "changed", steps(3), Timestamp.valueOf(LocalDateTime.now().plusMinutes(1)));
+
+        IncrementalResult second = incrementalMigrationService.runDelta();
+        assertThat(second.getChanges().getSuccessCount()).isEqualTo(1);
+        assertThat(second.getInserts().getSuccessCount()).isEqualTo(50);
+        assertThat(second.getCurrent().getLastId()).isEqualTo(150);
+        assertThat(count("test_case_pool")).isEqualTo(150);
+        assertThat(count("test_case_step")).isEqualTo(150 * 2 + 1);
+        Integer poolId = jdbcTemplate.queryForObject(
+                "SELECT target_id FROM migration_source_map WHERE job_name = 'test-case' AND source_id = 5",
+                Integer.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT title FROM test_case_pool WHERE id = ?", String.class, poolId))
+                .isEqualTo("changed");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM test_case_step WHERE case_id = ?", Long.class,
+                poolId)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM test_case_pool WHERE title = 'case-5'",
+                Long.class)).isZero();
+    }
+
+    private void insertInfo(int id, String title, String step) {
+        jdbcTemplate.update("INSERT INTO test_case_info (id, title, step, suit, case_id) VALUES (?, ?, ?, ?, ?)",
+                id, title, step, 1, id);
+    }
+
+    private static String steps(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"step").append(i).append("\",\"result\":\"success\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
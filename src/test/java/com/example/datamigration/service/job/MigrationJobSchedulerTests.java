@@ -0,0 +1,197 @@
+package com.example.datamigration.service.job;
+
+import com.example.datamigration.service.DataMigrationService;
+import com.example.datamigration.service.MigrationOptions;
+import com.example.datamigration.service.execution.DbPermits;
+import com.example.datamigration.service.sink.SinkMode;
+import lombok.Value;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "migration.execution.db-permits=4")
+class MigrationJobSchedulerTests {
+
+    @Autowired
+    private MigrationJobScheduler migrationJobScheduler;
+
+    @Autowired
+    private DbPermits dbPermits;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanTables() {
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_info");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_pool");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_step");
+        jdbcTemplate.execute("TRUNCATE TABLE `user`");
+        jdbcTemplate.execute("TRUNCATE TABLE user_copy");
+        jdbcTemplate.execute("TRUNCATE TABLE migration_checkpoint");
+    }
+
+    @Test
+    void runsTwoJobsConcurrentlyUnderSharedPermits() throws Exception {
+        for (int id = 1; id <= 1500; id++) {
+            jdbcTemplate.update("INSERT INTO test_case_info (id, title, step, suit, case_id) VALUES (?, ?, ?, ?, ?)",
+                    id, "case-" + id, "[{\"name\":\"step\",\"result\":\"success\"}]", id % 7, id);
+            jdbcTemplate.update("INSERT INTO `user` (id, name, age) VALUES (?, ?, ?)", id, "user-" + id, id % 90);
+        }
+
+        MigrationOptions options = new MigrationOptions();
+        options.setWorkers(2);
+        options.setCommitEveryBatches(1);
+        Map<String, CompletableFuture<DataMigrationService.MigrationResult>> futures =
+                migrationJobScheduler.start(List.of(TestCaseMigrationJob.NAME, UserCopyJob.NAME), options);
+
+        DataMigrationService.MigrationResult cases = futures.get(TestCaseMigrationJob.NAME).get(60, TimeUnit.SECONDS);
+        DataMigrationService.MigrationResult users = futures.get(UserCopyJob.NAME).get(60, TimeUnit.SECONDS);
+
+        assertThat(cases.getJobName()).isEqualTo(TestCaseMigrationJob.NAME);
+        assertThat(cases.getSuccessCount()).isEqualTo(1500);
+        assertThat(users.getJobName()).isEqualTo(UserCopyJob.NAME);
+        assertThat(users.getSuccessCount()).isEqualTo(1500);
+        assertThat(users.getStepCount()).isZero();
+        assertThat(cases.getRunId()).isNotEqualTo(users.getRunId());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_copy WHERE source = 'user'", Long.class))
+                .isEqualTo(1500);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM migration_checkpoint WHERE job_name = ? AND finished = 1",
+                Long.class, UserCopyJob.NAME)).isEqualTo(2);
+        assertThat(migrationJobScheduler.getLastResult(UserCopyJob.NAME)).isSameAs(users);
+        assertThat(dbPermits.available()).isEqualTo(dbPermits.getTotal());
+    }
+
+    @Test
+    void rejectsUnknownJobWithoutStartingAny() {
+        assertThatThrownBy(() -> migrationJobScheduler.start(List.of(UserCopyJob.NAME, "missing"),
+                                                             new MigrationOptions()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("missing");
+        assertThat(migrationJobScheduler.isRunning(UserCopyJob.NAME)).isFalse();
+    }
+
+    @TestConfiguration
+    static class UserCopyJobConfig {
+
+        @Bean
+        UserCopyJob userCopyJob(JdbcTemplate jdbcTemplate) {
+            return new UserCopyJob(jdbcTemplate);
+        }
+    }
+
+    /**
+     * user → user_copy，单目标表的最小任务
+     */
+    static class UserCopyJob implements MigrationJob<Map<String, Object>, UserCopy> {
+
+        static final String NAME = "user-copy";
+
+        private final JdbcTemplate jdbcTemplate;
+
+        UserCopyJob(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public JobSource<Map<String, Object>> source() {
+            return new JobSource<>() {
+                @Override
+                public Integer minId() {
+                    return jdbcTemplate.queryForObject("SELECT MIN(id) FROM `user`", Integer.class);
+                }
+
+                @Override
+                public Integer maxId() {
+                    return jdbcTemplate.queryForObject("SELECT MAX(id) FROM `user`", Integer.class);
+                }
+
+                @Override
+                public long estimateCount() {
+                    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM `user`", Long.class);
+                }
+
+                @Override
+                public List<Map<String, Object>> readAfter(int lastId, Integer endId, int limit) {
+                    return jdbcTemplate.queryForList(
+                            "SELECT id, name, age FROM `user` WHERE id > ? AND id <= ? ORDER BY id LIMIT ?",
+                            lastId, endId == null ? Integer.MAX_VALUE : endId, limit);
+                }
+
+                @Override
+                public int idOf(Map<String, Object> row) {
+                    return ((Number) row.get("id")).intValue();
+                }
+
+                @Override
+                public String labelOf(Map<String, Object> row) {
+                    return (String) row.get("name");
+                }
+            };
+        }
+
+        @Override
+        public RowTransformer<Map<String, Object>, UserCopy> transformer() {
+            return row -> new UserCopy(((Number) row.get("id")).intValue(), (String) row.get("name"),
+                                       (Integer) row.get("age"));
+        }
+
+        @Override
+        public JobSinks<UserCopy> sinks(SinkMode mode) {
+            return JobSinks.of(new JobSink<>() {
+                @Override
+                public String table() {
+                    return "user_copy";
+                }
+
+                @Override
+                public int rowCount(UserCopy record) {
+                    return 1;
+                }
+
+                @Override
+                public int write(List<UserCopy> records) {
+                    jdbcTemplate.batchUpdate("INSERT INTO user_copy (id, name, age, source) VALUES (?, ?, ?, 'user')",
+                            records, records.size(), (ps, record) -> {
+                                ps.setInt(1, record.getSourceId());
+                                ps.setString(2, record.getName());
+                                ps.setObject(3, record.getAge());
+                            });
+                    return records.size();
+                }
+            });
+        }
+    }
+
+    @Value
+    static class UserCopy implements JobRecord {
+        int sourceId;
+
+        String name;
+
+        Integer age;
+
+        @Override
+        public String getSourceLabel() {
+            return name;
+        }
+    }
+}
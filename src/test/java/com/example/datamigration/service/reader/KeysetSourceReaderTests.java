@@ -0,0 +1,104 @@
+package com.example.datamigration.service.reader;
+
+import com.example.datamigration.entity.TestCaseInfo;
+import com.example.datamigration.mapper.TestCaseInfoMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class KeysetSourceReaderTests {
+
+    @Autowired
+    private TestCaseInfoMapper testCaseInfoMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void readsAllRowsInIdOrderAcrossGaps() {
+        for (int id : new int[]{3, 7, 8, 20, 21}) {
+            insertInfo(id);
+        }
+
+        SourceReader<TestCaseInfo> reader = new KeysetSourceReader<>(source());
+        List<Integer> ids = new ArrayList<>();
+        List<TestCaseInfo> batch;
+        while (!(batch = reader.nextBatch(2)).isEmpty()) {
+            assertThat(batch).hasSizeLessThanOrEqualTo(2);
+            batch.forEach(info -> ids.add(info.getId()));
+        }
+
+        assertThat(ids).containsExactly(3, 7, 8, 20, 21);
+        assertThat(reader.getLastId()).isEqualTo(21);
+        assertThat(reader.nextBatch(2)).isEmpty();
+    }
+
+    @Test
+    void picksUpRowsInsertedDuringTheRun() {
+        insertInfo(1);
+        insertInfo(2);
+
+        SourceReader<TestCaseInfo> reader = new KeysetSourceReader<>(source());
+        assertThat(reader.nextBatch(2)).extracting(TestCaseInfo::getId).containsExactly(1, 2);
+
+        insertInfo(5);
+        assertThat(reader.nextBatch(2)).extracting(TestCaseInfo::getId).containsExactly(5);
+    }
+
+    @Test
+    void startsAfterGivenId() {
+        insertInfo(1);
+        insertInfo(2);
+        insertInfo(3);
+
+        SourceReader<TestCaseInfo> reader = new KeysetSourceReader<>(source(), 1);
+        assertThat(reader.nextBatch(10)).extracting(TestCaseInfo::getId).containsExactly(2, 3);
+    }
+
+    @Test
+    void partitionsCoverEveryRowExactlyOnce() {
+        for (int id = 1; id <= 23; id++) {
+            insertInfo(id);
+        }
+
+        List<IdRange> ranges = IdRange.split(1, 23, 4);
+        assertThat(ranges).hasSize(4);
+        assertThat(ranges.get(0).getStartAfterId()).isZero();
+        assertThat(ranges.get(3).getEndId()).isNull();
+
+        List<Integer> ids = new ArrayList<>();
+        for (IdRange range : ranges) {
+            SourceReader<TestCaseInfo> reader = KeysetSourceReader.forRange(source(), range);
+            List<TestCaseInfo> batch;
+            while (!(batch = reader.nextBatch(4)).isEmpty()) {
+                batch.forEach(info -> ids.add(info.getId()));
+            }
+        }
+
+        assertThat(ids).hasSize(23).doesNotHaveDuplicates().isSorted();
+    }
+
+    @Test
+    void splitNeverCreatesMorePartitionsThanIds() {
+        assertThat(IdRange.split(5, 6, 8)).hasSize(2);
+        assertThat(IdRange.split(7, 7, 3)).hasSize(1);
+    }
+
+    private TestCaseInfoSource source() {
+        return new TestCaseInfoSource(testCaseInfoMapper);
+    }
+
+    private void insertInfo(int id) {
+        jdbcTemplate.update("INSERT INTO test_case_info (id, title, step, suit, case_id) VALUES (?, ?, ?, ?, ?)",
+                id, "case-" + id, "[]", 1, id);
+    }
+}
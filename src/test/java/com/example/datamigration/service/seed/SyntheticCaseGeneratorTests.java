@@ -0,0 +1,55 @@
+package com.example.datamigration.service.seed;
+
+import com.example.datamigration.entity.TestCaseInfo;
+import com.example.datamigration.service.transform.StepJsonDecoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyntheticCaseGeneratorTests {
+
+    private final StepJsonDecoder decoder = new StepJsonDecoder(new ObjectMapper());
+
+    @Test
+    void malformedRowsFailToDecodeAtRoughlyTheRequestedRate() {
+        SyntheticCaseSpec spec = new SyntheticCaseSpec();
+        spec.setMalformedRate(0.1);
+        SyntheticCaseGenerator generator = new SyntheticCaseGenerator(spec);
+
+        List<TestCaseInfo> batch = generator.batch(1, 2000);
+        long undecodable = batch.stream().filter(info -> !decodes(info.getStep())).count();
+
+        assertThat(undecodable).isEqualTo(generator.getMalformedCount());
+        assertThat(undecodable).isBetween(140L, 260L);
+    }
+
+    @Test
+    void sameSeedGeneratesSameRows() {
+        SyntheticCaseSpec spec = new SyntheticCaseSpec();
+        spec.setMalformedRate(0.05);
+
+        assertThat(new SyntheticCaseGenerator(spec).batch(1, 100))
+                .isEqualTo(new SyntheticCaseGenerator(spec).batch(1, 100));
+    }
+
+    @Test
+    void rejectsRateOutsideZeroToOne() {
+        SyntheticCaseSpec spec = new SyntheticCaseSpec();
+        spec.setMalformedRate(1.5);
+
+        assertThatThrownBy(() -> new SyntheticCaseGenerator(spec)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private boolean decodes(String json) {
+        try {
+            decoder.decode(json);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.datamigration.service.sink;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TsvRowStreamTests {
+
+    @Test
+    void escapesSpecialCharactersAndNulls() throws IOException {
+        List<Object[]> rows = List.of(
+                new Object[]{1, "tab\there", null},
+                new Object[]{2, "line\nbreak\\slash\r", 7},
+                new Object[]{3, "中文标题", 0});
+
+        String tsv = new String(new TsvRowStream<>(rows, row -> row).readAllBytes(), StandardCharsets.UTF_8);
+
+        assertThat(tsv).isEqualTo("1\ttab\\there\t\\N\n"
+                                  + "2\tline\\nbreak\\\\slash\\r\t7\n"
+                                  + "3\t中文标题\t0\n");
+    }
+
+    @Test
+    void readsAcrossRowBoundariesInSmallChunks() throws IOException {
+        List<Integer> rows = IntStream.rangeClosed(1, 500).boxed().toList();
+        TsvRowStream<Integer> stream = new TsvRowStream<>(rows, id -> new Object[]{id, "row-" + id});
+
+        StringBuilder text = new StringBuilder();
+        byte[] buffer = new byte[7];
+        int n;
+        while ((n = stream.read(buffer, 0, buffer.length)) != -1) {
+            text.append(new String(buffer, 0, n, StandardCharsets.US_ASCII));
+        }
+
+        String[] lines = text.toString().split("\n");
+        assertThat(lines).hasSize(500);
+        assertThat(lines[499]).isEqualTo("500\trow-500");
+        assertThat(stream.read()).isEqualTo(-1);
+    }
+
+    @Test
+    void emptyBatchIsEmptyStream() throws IOException {
+        assertThat(new TsvRowStream<>(List.<Object[]>of(), row -> row).readAllBytes()).isEmpty();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.datamigration.service.spool;
+
+import com.example.datamigration.entity.TestCaseInfo;
+import com.example.datamigration.service.DataMigrationService;
+import com.example.datamigration.service.MigrationOptions;
+import com.example.datamigration.service.job.SpooledTestCaseJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "migration.spool.path=target/test-spool/test_case_info.spool")
+class SpoolServiceTests {
+
+    @Autowired
+    private SpoolService spoolService;
+
+    @Autowired
+    private SpooledTestCaseJob spooledTestCaseJob;
+
+    @Autowired
+    private DataMigrationService dataMigrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanTables() {
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_info");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_pool");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_step");
+        jdbcTemplate.execute("TRUNCATE TABLE migration_checkpoint");
+    }
+
+    @Test
+    void readsRecordsAcrossSmallMappedWindows(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("cases.spool");
+        try (SpoolWriter writer = new SpoolWriter(file)) {
+            for (int id = 1; id <= 5000; id++) {
+                writer.append(info(id * 2, id % 3 == 0 ? null : "用例-" + id, "[]".repeat(id % 17), id % 5 == 0 ? null : id));
+            }
+        }
+
+        // 窗口远小于文件，记录会跨越窗口边界
+        SpoolFile spool = SpoolFile.open(file, 4096);
+        assertThat(spool.getCount()).isEqualTo(5000);
+        assertThat(spool.minId()).isEqualTo(2);
+        assertThat(spool.maxId()).isEqualTo(10000);
+
+        List<TestCaseInfo> all = new ArrayList<>();
+        int lastId = 0;
+        List<TestCaseInfo> batch;
+        while (!(batch = spool.readAfter(lastId, null, 333)).isEmpty()) {
+            all.addAll(batch);
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        assertThat(all).hasSize(5000);
+        TestCaseInfo sample = all.get(2999);
+        assertThat(sample.getId()).isEqualTo(6000);
+        assertThat(sample.getTitle()).isNull();
+        assertThat(sample.getStep()).isEqualTo("[]".repeat(3000 % 17));
+        assertThat(sample.getSuit()).isNull();
+        assertThat(all.get(0).getTitle()).isEqualTo("用例-1");
+
+        // 主键区间 (2001, 3001]
+        List<TestCaseInfo> range = spool.readAfter(2001, 3001, 10_000);
+        assertThat(range).extracting(TestCaseInfo::getId).first().isEqualTo(2002);
+        assertThat(range).extracting(TestCaseInfo::getId).last().isEqualTo(3000);
+        assertThat(range).hasSize(500);
+    }
+
+    @Test
+    void loadsFromSnapshotWithoutTouchingSource() {
+        for (int id = 1; id <= 1200; id++) {
+            jdbcTemplate.update("INSERT INTO test_case_info (id, title, step, suit, case_id) VALUES (?, ?, ?, ?, ?)",
+                    id, "case-" + id, "[{\"name\":\"step\",\"result\":\"success\"}]", id % 7, id);
+        }
+        SpoolResult extracted = spoolService.extract();
+        assertThat(extracted.getRows()).isEqualTo(1200);
+
+        // 抽取完成后源表不再参与加载
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_info");
+
+        MigrationOptions options = new MigrationOptions();
+        options.setWorkers(3);
+        for (int run = 1; run <= 2; run++) {
+            jdbcTemplate.execute("TRUNCATE TABLE test_case_pool");
+            jdbcTemplate.execute("TRUNCATE TABLE test_case_step");
+            DataMigrationService.MigrationResult result = dataMigrationService.executeMigration(spooledTestCaseJob,
+                                                                                                options);
+            assertThat(result.getSuccessCount()).isEqualTo(1200);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM test_case_step", Long.class))
+                    .isEqualTo(1200);
+        }
+    }
+
+    private static TestCaseInfo info(int id, String title, String step, Integer suit) {
+        TestCaseInfo info = new TestCaseInfo();
+        info.setId(id);
+        info.setTitle(title);
+        info.setStep(step);
+        info.setSuit(suit);
+        info.setCaseId(id);
+        return info;
+    }
+}
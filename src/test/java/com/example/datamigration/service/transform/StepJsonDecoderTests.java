@@ -0,0 +1,75 @@
+package com.example.datamigration.service.transform;
+
+import com.example.datamigration.entity.TestCaseStep;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 流式解码结果需要与原先的 readValue(json, List&lt;Map&lt;String, String&gt;&gt;) 完全一致
+ */
+class StepJsonDecoderTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final StepJsonDecoder decoder = new StepJsonDecoder(objectMapper);
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[]",
+        "null",
+        "[{\"name\":\"open\",\"result\":\"success\"},{\"name\":\"close\",\"result\":\"fail\"}]",
+        "[{\"result\":\"only result\"}]",
+        "[{}]",
+        "[{\"name\":null,\"result\":\"x\"}]",
+        "[{\"name\":12,\"result\":true}]",
+        "[{\"name\":\"a\",\"name\":\"b\",\"extra\":\"ignored\"}]",
+        "[{\"name\":\"中文步骤\",\"result\":\"转义\\\"引号\\n换行\"}]",
+        " [ {\"name\" : \"spaced\"} ] trailing"
+    })
+    void acceptsTheSameInputAsMapBinding(String json) throws IOException {
+        assertThat(decoder.decode(json))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(legacyDecode(json));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[{\"name\":\"broken\"",
+        "{\"name\":\"not an array\"}",
+        "\"text\"",
+        "[\"text\"]",
+        "[{\"name\":{\"nested\":1}}]",
+        "[{\"name\":[\"a\"]}]",
+        "[{'name':'single quotes'}]",
+        "[{\"name\":\"a\"},]",
+        "[null]"
+    })
+    void rejectsTheSameInputAsMapBinding(String json) {
+        assertThatThrownBy(() -> legacyDecode(json)).isInstanceOf(Exception.class);
+        assertThatThrownBy(() -> decoder.decode(json)).isInstanceOf(IOException.class);
+    }
+
+    private List<TestCaseStep> legacyDecode(String json) throws IOException {
+        List<Map<String, String>> steps = objectMapper.readValue(json, new TypeReference<List<Map<String, String>>>() {});
+        List<TestCaseStep> result = new ArrayList<>();
+        if (steps != null) {
+            for (Map<String, String> stepMap : steps) {
+                TestCaseStep step = new TestCaseStep();
+                step.setName(stepMap.get("name"));
+                step.setResult(stepMap.get("result"));
+                result.add(step);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.datamigration.service.verify;
+
+import com.example.datamigration.service.DataMigrationService;
+import com.example.datamigration.service.MigrationOptions;
+import com.example.datamigration.service.sink.SinkMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class VerifyServiceTests {
+
+    @Autowired
+    private VerifyService verifyService;
+
+    @Autowired
+    private DataMigrationService dataMigrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanTables() {
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_info");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_pool");
+        jdbcTemplate.execute("TRUNCATE TABLE test_case_step");
+        jdbcTemplate.execute("TRUNCATE TABLE migration_checkpoint");
+        jdbcTemplate.execute("TRUNCATE TABLE migration_source_map");
+    }
+
+    @Test
+    void chunkedChecksumsLocateTamperedRows() {
+        for (int id = 1; id <= 500; id++) {
+            jdbcTemplate.update("INSERT INTO test_case_info (id, title, step, suit, case_id) VALUES (?, ?, ?, ?, ?)",
+                    id, "case-" + id, "[{\"name\":\"step-" + id + "\",\"result\":\"success\"}]", id % 7, id);
+        }
+        MigrationOptions options = new MigrationOptions();
+        options.setWorkers(2);
+        options.setSinkMode(SinkMode.UPSERT);
+        assertThat(dataMigrationService.executeMigration(options).getSuccessCount()).isEqualTo(500);
+
+        VerifyResult clean = verifyService.verify(3, 64);
+        assertThat(clean.isKeyed()).isTrue();
+        assertThat(clean.isMatched()).isTrue();
+        assertThat(clean.getSourceRows()).isEqualTo(500);
+        assertThat(clean.getTargetRows()).isEqualTo(500);
+        assertThat(clean.getChunks()).isEqualTo(8);
+        assertThat(clean.getMismatchedChunks()).isZero();
+
+        jdbcTemplate.update("UPDATE test_case_step SET result = 'failure' WHERE case_id = (" +
+                "SELECT target_id FROM migration_source_map WHERE job_name = 'test-case' AND source_id = 42)");
+        jdbcTemplate.update("DELETE FROM test_case_pool WHERE id = (" +
+                "SELECT target_id FROM migration_source_map WHERE job_name = 'test-case' AND source_id = 300)");
+        jdbcTemplate.update("DELETE FROM test_case_info WHERE id = 451");
+
+        VerifyResult tampered = verifyService.verify(3, 64);
+        assertThat(tampered.isMatched()).isFalse();
+        assertThat(tampered.getMismatchedChunks()).isEqualTo(3);
+        assertThat(tampered.getMismatches()).extracting(Mismatch::getSourceId).containsExactlyInAnyOrder(42, 300, 451);
+        assertThat(tampered.getMismatches()).filteredOn(mismatch -> mismatch.getSourceId() == 451)
+                .extracting(Mismatch::getReason).containsExactly("源记录已删除");
+
+        // 没有对应关系时只能比较全表校验和
+        jdbcTemplate.execute("TRUNCATE TABLE migration_source_map");
+        VerifyResult unkeyed = verifyService.verify(3, 64);
+        assertThat(unkeyed.isKeyed()).isFalse();
+        assertThat(unkeyed.isMatched()).isFalse();
+        assertThat(unkeyed.getSourceRows()).isEqualTo(499);
+        assertThat(unkeyed.getTargetRows()).isEqualTo(499);
+        assertThat(unkeyed.getMismatches()).isEmpty();
+    }
+}
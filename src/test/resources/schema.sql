@@ -0,0 +1,69 @@
+CREATE TABLE IF NOT EXISTS test_case_info (
+    id         INT AUTO_INCREMENT PRIMARY KEY,
+    title      VARCHAR(255),
+    step       TEXT,
+    suit       INT,
+    case_id    INT,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS test_case_pool (
+    id      INT AUTO_INCREMENT PRIMARY KEY,
+    title   VARCHAR(255),
+    menu_id INT
+);
+
+CREATE TABLE IF NOT EXISTS test_case_step (
+    id      INT AUTO_INCREMENT PRIMARY KEY,
+    name    VARCHAR(255),
+    result  VARCHAR(255),
+    case_id INT
+);
+
+CREATE TABLE IF NOT EXISTS `user` (
+    id   BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255),
+    age  INT
+);
+
+CREATE TABLE IF NOT EXISTS user_copy (
+    id     BIGINT PRIMARY KEY,
+    name   VARCHAR(255),
+    age    INT,
+    source VARCHAR(32)
+);
+
+CREATE TABLE IF NOT EXISTS migration_checkpoint (
+    run_id         VARCHAR(64) NOT NULL,
+    job_name       VARCHAR(64) NOT NULL DEFAULT 'test-case',
+    partition_no   INT         NOT NULL,
+    start_after_id INT         NOT NULL,
+    end_id         INT         NULL,
+    last_id        INT         NOT NULL,
+    finished       TINYINT     NOT NULL DEFAULT 0,
+    sink_mode      VARCHAR(32) NOT NULL,
+    updated_at     TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (run_id, partition_no)
+);
+
+CREATE TABLE IF NOT EXISTS migration_id_block (
+    name    VARCHAR(64) NOT NULL,
+    next_id BIGINT      NOT NULL,
+    PRIMARY KEY (name)
+);
+
+CREATE TABLE IF NOT EXISTS migration_source_map (
+    job_name  VARCHAR(64) NOT NULL,
+    source_id INT         NOT NULL,
+    target_id INT         NOT NULL,
+    row_hash  BIGINT      NULL,
+    PRIMARY KEY (job_name, source_id)
+);
+
+CREATE TABLE IF NOT EXISTS migration_watermark (
+    job_name        VARCHAR(64) NOT NULL,
+    last_id         INT         NOT NULL,
+    last_updated_at TIMESTAMP   NULL,
+    updated_at      TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (job_name)
+);